@@ -3,6 +3,7 @@ package com.plaintext.auth.config;
 import com.plaintext.auth.security.JwtAuthenticationFilter;
 import com.plaintext.common.security.CommonAuthEntryPoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -43,6 +44,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public Endpoints
                         .requestMatchers("/api/auth/signup", "/api/auth/login", "/api/auth/tnc").permitAll()
+                        // Health checks and the metrics scrape, open on management.server.port only;
+                        // on the public port these paths need a token like everything else
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         // Protected Endpoints (everything else)
                         .anyRequest().authenticated())
 
@@ -1,6 +1,7 @@
 package com.plaintext.auth.security;
 
-import com.plaintext.auth.util.JwtUtils;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.common.security.JwtVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,27 +15,27 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
 
-    private final JwtUtils jwtUtils;
+    private final JwtVerifier jwtVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                // Create minimal Authentication object
+            // One parse (or a cache hit) both validates the token and yields the caller
+            AuthenticatedUser principal = jwt == null ? null : jwtVerifier.verify(jwt).orElse(null);
+            if (principal != null) {
+                // Create minimal Authentication object; getName() is still the username
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.emptyList());
+                        principal, null, principal.authorities());
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
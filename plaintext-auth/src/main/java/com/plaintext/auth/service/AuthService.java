@@ -8,6 +8,7 @@ import com.plaintext.auth.util.JwtUtils;
 import com.plaintext.common.config.TncConfig;
 import com.plaintext.common.enums.UserRole;
 import com.plaintext.common.model.User;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
 public class AuthService {
 
     private final UserRepository userRepository;
@@ -57,7 +59,7 @@ public class AuthService {
     /**
      * LOGIN USER
      * 1. Authenticate with Spring Security (checks password match).
-     * 2. Generate JWT.
+     * 2. Generate JWT (carries the user's id and role).
      * 3. Return Token + User Info + T&C Status.
      */
     public AuthResponse authenticateUser(LoginRequest request) {
@@ -65,10 +67,10 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateToken(request.getUsername());
 
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new com.plaintext.common.exception.ResourceNotFoundException("User not found"));
+        String jwt = jwtUtils.generateToken(user);
 
         // Check T&C Version
         boolean requiresTnc = !TncConfig.CURRENT_TNC_VERSION
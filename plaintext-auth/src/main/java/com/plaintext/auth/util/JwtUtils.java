@@ -1,6 +1,7 @@
 package com.plaintext.auth.util;
 
-import io.jsonwebtoken.JwtException;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.JwtClaims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -13,69 +14,32 @@ import java.util.Date;
 @Component
 public class JwtUtils {
 
+    private final int jwtExpirationMs;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    /** Built once at startup rather than on every token. */
+    private final SecretKey signingKey;
 
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
-
-    /**
-     * 3. key() Helper
-     * Converts our Hex/Base64 secret string into a cryptographic SecretKey object.
-     * The JJWT library needs this object to perform the actual signing.
-     */
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret, @Value("${jwt.expiration}") int jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
     }
 
     /**
      * 4. generateToken
-     * Creates a new JWT for a specific username.
-     * @param username The user's unique identifier
+     * Creates a new JWT for a specific user.
+     * Besides the username it carries the user's id and role, so the core service
+     * can identify the caller without looking the user up.
+     * @param user The authenticated user
      * @return String The signed JWT (looks like eyJhbGciOi...)
      */
-    public String generateToken(String username) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .subject(username) // The "Subject" is the person this token is for
+                .subject(user.getUsername()) // The "Subject" is the person this token is for
+                .claim(JwtClaims.USER_ID, user.getId().toString())
+                .claim(JwtClaims.ROLE, user.getRole().name())
                 .issuedAt(new Date()) // When was it created?
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs)) // When does it die?
-                .signWith(key()) // Sign it with our secret key so it can't be tampered with
+                .signWith(signingKey) // Sign it with our secret key so it can't be tampered with
                 .compact(); // Build it into a String
     }
-
-    /**
-     * 5. getUserNameFromJwtToken
-     * Extracts the username from the token payload.
-     * This is used to identify WHO is making the request.
-     */
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key()) // Verify the signature matches our key
-                .build()
-                .parseSignedClaims(token) // Parse the token
-                .getPayload()
-                .getSubject(); // Get the "Subject" field (which is the username)
-    }
-
-    /**
-     * 6. validateJwtToken
-     * Checks two things:
-     * A. Is the signature valid? (Did WE create this token?)
-     * B. Is the token expired?
-     */
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key())
-                    .build()
-                    .parse(authToken); // If this line doesn't throw an error, the token is valid
-            return true;
-        } catch (JwtException e) {
-            // In a real app, you might log this error
-            // e.g., "Malformed JWT", "Expired JWT", "Unsupported JWT"
-            System.err.println("Invalid JWT token: " + e.getMessage());
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.plaintext.auth.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plaintext.auth.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Full context on H2: signup and login are timed through @Timed, token checks by the shared
+ * JwtVerifier, and the scrape endpoint is reachable without a token on the management port only.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-metrics;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=0"
+})
+class MetricsEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void authCallsAreTimedAndScraped() throws Exception {
+        assertEquals(200, post("/api/auth/signup", """
+                {"username": "metrics", "email": "metrics@test.com", "password": "password123"}
+                """, null).statusCode());
+        HttpResponse<String> login = post("/api/auth/login", """
+                {"username": "metrics", "password": "password123"}
+                """, null);
+        assertEquals(200, login.statusCode());
+        String token = objectMapper.readTree(login.body()).get("token").asText();
+        assertEquals(200, post("/api/auth/tnc/accept", "", token).statusCode());
+
+        assertEquals(1, meterRegistry.get("plaintext.service")
+                .tag("class", AuthService.class.getName())
+                .tag("method", "authenticateUser")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("plaintext.jwt.verification")
+                .tag("result", "valid")
+                .timers().stream().mapToLong(timer -> timer.count()).sum());
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        String body = scrape.body();
+        assertTrue(body.contains("plaintext_service_seconds_bucket{"), "service timer histogram");
+        assertTrue(body.contains("plaintext_jwt_verification_seconds_count{"), "JWT verification timer");
+        assertTrue(body.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool wait histogram");
+        assertTrue(body.contains("application=\"plaintext-auth\""), "common application tag");
+    }
+
+    @Test
+    void actuatorIsNotServedOnThePublicPort() throws Exception {
+        HttpResponse<String> unauthorized = get(port, "/actuator/prometheus");
+        assertEquals(401, unauthorized.statusCode());
+        JsonNode error = objectMapper.readTree(unauthorized.body());
+        assertEquals(401, error.get("status").asInt());
+        assertEquals("Unauthorized", error.get("error").asText());
+        assertEquals("/actuator/prometheus", error.get("path").asText());
+        assertTrue(error.get("timestamp").isTextual(), "ISO-8601 timestamp");
+        assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+    }
+
+    private HttpResponse<String> post(String path, String json, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
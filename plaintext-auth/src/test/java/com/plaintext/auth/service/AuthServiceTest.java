@@ -70,7 +70,6 @@ class AuthServiceTest {
         Authentication authentication = mock(Authentication.class);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtils.generateToken("user")).thenReturn("jwt-token");
 
         User user = User.builder()
                 .username("user")
@@ -78,6 +77,7 @@ class AuthServiceTest {
                 .role(UserRole.USER)
                 .build();
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(jwtUtils.generateToken(user)).thenReturn("jwt-token");
 
         AuthResponse response = authService.authenticateUser(request);
 
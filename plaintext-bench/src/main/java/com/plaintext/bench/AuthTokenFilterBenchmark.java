@@ -0,0 +1,75 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.security.JwtClaims;
+import com.plaintext.common.security.JwtVerifier;
+import com.plaintext.core.security.AuthTokenFilter;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of core's AuthTokenFilter on an authenticated request, with and
+ * without the verified-token cache. Request stubs are built per invocation in both cases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthTokenFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private String authorization;
+    private AuthTokenFilter filter;
+
+    @Setup
+    public void setUp() {
+        String token = Jwts.builder()
+                .subject("benchmark_user")
+                .claim(JwtClaims.USER_ID, UUID.randomUUID().toString())
+                .claim(JwtClaims.ROLE, UserRole.USER.name())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtBenchmark.SECRET)))
+                .compact();
+        authorization = "Bearer " + token;
+        // Tokens carry id and role, so the legacy username lookup (and the repository) is never used
+        filter = new AuthTokenFilter(new JwtVerifier(JwtBenchmark.SECRET, verifiedCacheSize, new SimpleMeterRegistry()), null);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        HttpServletRequest request = ServletStubs.request(Map.of("Authorization", authorization));
+        try {
+            filter.doFilter(request, ServletStubs.response(), (chainRequest, chainResponse) -> { });
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
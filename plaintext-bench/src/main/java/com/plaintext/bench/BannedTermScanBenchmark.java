@@ -0,0 +1,104 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.moderation.TermMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moderation scoring of one 280-char post against the banned-term list, in posts per second
+ * on one thread: the Aho-Corasick TermMatcher against a lower-case-and-contains loop over
+ * the terms, as the list grows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BannedTermScanBenchmark {
+    private static final int POSTS = 4096;
+    private static final int POST_LENGTH = 280;
+
+    @Param({"100", "1000", "10000"})
+    public int terms;
+
+    private String[] posts;
+    private List<String> termList;
+    private TermMatcher matcher;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] vocabulary = new String[5000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = word(random);
+        }
+        // Banned phrases of one to three words, built from the same vocabulary as the posts
+        termList = new ArrayList<>(terms);
+        for (int i = 0; i < terms; i++) {
+            StringBuilder term = new StringBuilder(vocabulary[random.nextInt(vocabulary.length)]);
+            for (int w = random.nextInt(3); w > 0; w--) {
+                term.append(' ').append(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            termList.add(term.toString());
+        }
+        matcher = TermMatcher.compile(termList);
+
+        posts = new String[POSTS];
+        for (int p = 0; p < POSTS; p++) {
+            StringBuilder post = new StringBuilder(POST_LENGTH + 16);
+            while (post.length() < POST_LENGTH) {
+                String word = vocabulary[random.nextInt(vocabulary.length)];
+                post.append(random.nextInt(8) == 0 ? word.toUpperCase(Locale.ROOT) : word).append(' ');
+            }
+            posts[p] = post.substring(0, POST_LENGTH);
+        }
+    }
+
+    @Benchmark
+    public int automaton() {
+        return matcher.count(nextPost());
+    }
+
+    @Benchmark
+    public int containsLoop() {
+        String text = nextPost().toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (String term : termList) {
+            if (text.contains(term)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String nextPost() {
+        String post = posts[next];
+        next = (next + 1) & (POSTS - 1);
+        return post;
+    }
+
+    private static String word(SplittableRandom random) {
+        char[] letters = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,73 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a feed page the way the MVC message converter does (Jackson 3, the mapper
+ * Spring Boot configures for HTTP responses). {@code toBytes} includes the buffer copy;
+ * {@code toStream} writes straight to a discarding stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedSerializationBenchmark {
+
+    @Param({"20", "50", "1000"})
+    public int posts;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private CursorPage<PostResponse> page;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PostResponse> items = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            items.add(PostResponse.builder()
+                    .id(UUID.randomUUID())
+                    .content("Plaintext post number " + i + ", about as long as a typical short post on the site.")
+                    .username("user" + (i % 97))
+                    .likesCount(i * 3)
+                    .commentsCount(i)
+                    .createdAt(now.minusMinutes(i))
+                    .moderationScore(0)
+                    .moderationStatus(ModerationStatus.APPROVED)
+                    .build());
+        }
+        page = new CursorPage<>(items, "MjAyNi0wMS0wMVQxMjowMHwwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDA");
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void toStream() {
+        mapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
@@ -0,0 +1,92 @@
+package com.plaintext.bench;
+
+import com.plaintext.auth.util.JwtUtils;
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.common.security.JwtClaims;
+import com.plaintext.common.security.JwtVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing a token at login, and the cost of authenticating one request: the original
+ * filter path (key rebuilt and token parsed twice) against JwtVerifier without and with
+ * its verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private String token;
+    private JwtVerifier uncached;
+    private JwtVerifier cached;
+    private JwtUtils jwtUtils;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .subject("benchmark_user")
+                .claim(JwtClaims.USER_ID, UUID.randomUUID().toString())
+                .claim(JwtClaims.ROLE, UserRole.USER.name())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(legacyKey())
+                .compact();
+        uncached = new JwtVerifier(SECRET, 0, new SimpleMeterRegistry());
+        cached = new JwtVerifier(SECRET, 10_000, new SimpleMeterRegistry());
+
+        jwtUtils = new JwtUtils(SECRET, 86_400_000);
+        user = User.builder().id(UUID.randomUUID()).username("benchmark_user").role(UserRole.USER).build();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    // What validateJwtToken + getUserNameFromJwtToken used to do on every request
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parser().verifyWith(legacyKey()).build().parse(token);
+        return Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> singleParse() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> cachedVerify() {
+        return cached.verify(token);
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,79 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.common.security.JwtClaims;
+import com.plaintext.common.security.JwtVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtVerifier under concurrent requests from many users, with the default cache of 10000
+ * tokens. Each thread verifies tokens of {@code users} distinct users in random order: 1000
+ * stay cached and every call is a hit, 20000 do not fit and about half the calls parse the
+ * token and evict the least recently used one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtCacheBenchmark {
+    private static final int CACHE_SIZE = 10_000;
+
+    @Param({"1000", "20000"})
+    public int users;
+
+    private String[] tokens;
+    private JwtVerifier verifier;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtBenchmark.SECRET));
+        Date expiration = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = Jwts.builder()
+                    .subject("user" + i)
+                    .claim(JwtClaims.USER_ID, UUID.randomUUID().toString())
+                    .claim(JwtClaims.ROLE, UserRole.USER.name())
+                    .expiration(expiration)
+                    .signWith(key)
+                    .compact();
+        }
+        verifier = new JwtVerifier(JwtBenchmark.SECRET, CACHE_SIZE, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> verify(Requests requests) {
+        return verifier.verify(tokens[requests.random.nextInt(users)]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.core.dto.PostResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping: the builder-based PostResponse.from used on the write path
+ * against the all-args constructor the JPQL projections call for every row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostMappingBenchmark {
+
+    @Param({"20", "1000"})
+    public int posts;
+
+    private List<Post> entities;
+
+    @Setup
+    public void setUp() {
+        User author = User.builder().id(UUID.randomUUID()).username("benchmark_user").build();
+        entities = new ArrayList<>(posts);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < posts; i++) {
+            entities.add(Post.builder().id(UUID.randomUUID()).user(author).content("Post number " + i)
+                    .likesCount(i).commentsCount(i / 2).createdAt(now.minusMinutes(i)).moderationStatus(ModerationStatus.APPROVED)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<PostResponse> builder() {
+        List<PostResponse> out = new ArrayList<>(entities.size());
+        for (Post post : entities) {
+            out.add(PostResponse.from(post, post.getUser().getUsername()));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<PostResponse> constructor() {
+        List<PostResponse> out = new ArrayList<>(entities.size());
+        for (Post post : entities) {
+            out.add(new PostResponse(post.getId(), post.getContent(), post.getImageUrl(), post.getUser().getUsername(),
+                    post.getLikesCount(), post.getCommentsCount(), post.getCreatedAt(), post.getModerationScore(),
+                    post.getModerationStatus(), false));
+        }
+        return out;
+    }
+}
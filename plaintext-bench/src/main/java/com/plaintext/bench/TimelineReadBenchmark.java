@@ -0,0 +1,150 @@
+package com.plaintext.bench;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.core.CoreApplication;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.TimelineRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.service.CelebrityRegistry;
+import com.plaintext.core.service.TimelineService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-time cost of the hybrid timeline (TimelineService.getTimeline) against a real Postgres
+ * database, as the follower count of the viewer's authors grows.
+ *
+ * The viewer is one of {@code followers} users who all follow the same 20 authors. Below the
+ * celebrity threshold (1000) the authors' posts were fanned out and a page is one range scan
+ * of the viewer's materialized timeline; from the threshold on they are pulled, and a page
+ * also runs one query per followed author. The core application and an embedded Postgres
+ * server are started once per parameter value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimelineReadBenchmark {
+    private static final int CELEBRITY_THRESHOLD = 1000;
+    private static final int AUTHORS = 20;
+    private static final int POSTS_PER_AUTHOR = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "500", "1000", "10000"})
+    public int followers;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private TimelineService timelineService;
+    private UUID viewerId;
+    private String secondPageCursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(CoreApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--plaintext.timeline.celebrity-threshold=" + CELEBRITY_THRESHOLD);
+        timelineService = context.getBean(TimelineService.class);
+        seed();
+        secondPageCursor = timelineService.getTimeline(viewerId, null, PAGE_SIZE).getNextCursor();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public CursorPage<PostResponse> firstPage() {
+        return timelineService.getTimeline(viewerId, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostResponse> secondPage() {
+        return timelineService.getTimeline(viewerId, secondPageCursor, PAGE_SIZE);
+    }
+
+    // Writes the follow graph in bulk, then creates the posts the way PostService does:
+    // fanned out below the threshold, only in the author's own timeline above it
+    private void seed() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        TimelineRepository timelineRepository = context.getBean(TimelineRepository.class);
+        CelebrityRegistry celebrityRegistry = context.getBean(CelebrityRegistry.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password_hash, role, status, created_at, updated_at)
+                SELECT gen_random_uuid(), 'follower' || i, 'follower' || i || '@bench.local', 'hash',
+                       'USER', 'ACTIVE', now(), now()
+                FROM generate_series(1, ?) i
+                """, followers);
+        List<User> authors = new ArrayList<>(AUTHORS);
+        for (int a = 0; a < AUTHORS; a++) {
+            authors.add(userRepository.save(User.builder()
+                    .username("author" + a).email("author" + a + "@bench.local").passwordHash("hash").build()));
+        }
+        jdbcTemplate.update("""
+                INSERT INTO follows (follower_id, following_id, created_at)
+                SELECT f.id, a.id, now() FROM users f CROSS JOIN users a
+                WHERE f.username LIKE 'follower%' AND a.username LIKE 'author%'
+                """);
+        viewerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'follower1'", UUID.class);
+
+        celebrityRegistry.refresh();
+        for (int p = 0; p < POSTS_PER_AUTHOR; p++) {
+            for (User author : authors) {
+                transaction.executeWithoutResult(status -> {
+                    Post post = postRepository.saveAndFlush(Post.builder()
+                            .user(author)
+                            .content("Post by " + author.getUsername())
+                            .moderationStatus(ModerationStatus.APPROVED)
+                            .build());
+                    if (celebrityRegistry.isCelebrity(author.getId())) {
+                        timelineRepository.insertOwn(post.getId(), author.getId(), post.getCreatedAt());
+                    } else {
+                        timelineRepository.fanOut(post.getId(), author.getId(), post.getCreatedAt());
+                    }
+                });
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
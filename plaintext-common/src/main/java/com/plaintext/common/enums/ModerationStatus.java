@@ -0,0 +1,24 @@
+package com.plaintext.common.enums;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Values of posts.moderation_status. Posts start PENDING; plaintext-moderation
+ * moves them to APPROVED or REJECTED, and feeds hide the HIDDEN ones. Posts whose
+ * scoring keeps failing end up REJECTED_ERROR, hidden until someone looks at them.
+ */
+public enum ModerationStatus {
+    PENDING,
+    APPROVED,
+    REJECTED,
+    REJECTED_ERROR;
+
+    // Bound into every feed query, so no query spells out a status of its own
+    public static final Set<ModerationStatus> HIDDEN = Collections.unmodifiableSet(EnumSet.of(REJECTED, REJECTED_ERROR));
+
+    public boolean isHidden() {
+        return HIDDEN.contains(this);
+    }
+}
@@ -0,0 +1,32 @@
+package com.plaintext.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One bearer token check by JwtVerifier, which both services' authentication filters call.
+ * Disabled unless a recording enables it, e.g. with the bundled jfr/plaintext.jfc.
+ */
+@Name("com.plaintext.JwtVerification")
+@Label("JWT Verification")
+@Category({"Plaintext", "Security"})
+@Description("Bearer token verification, with the verified-token cache outcome")
+@Enabled(false)
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    @Label("Cache")
+    @Description("hit, miss, or off when the verified-token cache is disabled")
+    public String cache;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("User ID")
+    public String userId;
+}
@@ -0,0 +1,30 @@
+package com.plaintext.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One permit request against a configured rate limit rule; the duration is the store lookup.
+ */
+@Name("com.plaintext.RateLimit")
+@Label("Rate Limit Decision")
+@Category({"Plaintext", "Security"})
+@Description("A rate limit check and whether the action was allowed")
+@Enabled(false)
+@StackTrace(false)
+public class RateLimitEvent extends Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("Username")
+    public String username;
+
+    @Label("Allowed")
+    public boolean allowed;
+}
@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "comments")
+// Backs keyset pagination of a post's comments, oldest first, and a user's latest comments
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_created_at_id", columnList = "post_id, created_at, id"),
+        @Index(name = "idx_comments_user_created_at", columnList = "user_id, created_at DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,8 +1,10 @@
 package com.plaintext.common.model;
 
+import com.plaintext.common.enums.ModerationStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,7 +12,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "posts")
+// Composite indexes back the keyset-paginated feed and profile reads; the moderation
+// ones back plaintext-moderation's oldest-first claim and core's poll for its results
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_posts_user_created_at_id", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_posts_moderation_status_created_at", columnList = "moderation_status, created_at"),
+        @Index(name = "idx_posts_moderated_at", columnList = "moderated_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -47,10 +56,20 @@ public class Post {
     @Builder.Default
     private Integer moderationScore = 0;
 
-    // We store this as a String for now, could be an Enum later
+    @Enumerated(EnumType.STRING)
     @Column(name = "moderation_status")
     @Builder.Default
-    private String moderationStatus = "PENDING";
+    private ModerationStatus moderationStatus = ModerationStatus.PENDING;
+
+    // Failed scoring attempts; plaintext-moderation gives up on the post at its max-attempts
+    @Column(name = "moderation_attempts")
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer moderationAttempts = 0;
+
+    // Set by plaintext-moderation when it decides; null while PENDING
+    @Column(name = "moderated_at")
+    private LocalDateTime moderatedAt;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
@@ -7,7 +7,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_likes")
+// The primary key leads with post_id, so a user's latest likes need their own index
+@Table(name = "post_likes", indexes = {
+        @Index(name = "idx_post_likes_user_created_at", columnList = "user_id, created_at DESC")
+})
 @IdClass(PostLikeId.class)
 @Getter
 @Setter
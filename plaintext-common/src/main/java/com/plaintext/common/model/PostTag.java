@@ -0,0 +1,51 @@
+package com.plaintext.common.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One #hashtag or @mention of a post, written with the post by PostService.
+ * The tag keeps its sigil ("#java", "@alice"), so both kinds share one index and
+ * reading a tag page is a range scan over (tag, created_at, post_id) that never
+ * touches posts until the page's rows are known.
+ */
+@Entity
+@Table(name = "post_tags", indexes = {
+        @Index(name = "idx_post_tags_tag_created_at_post", columnList = "tag, created_at DESC, post_id DESC")
+})
+@IdClass(PostTagId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostTag implements Persistable<PostTagId> {
+    public static final int MAX_LENGTH = 64;
+
+    @Id
+    @Column(name = "tag", length = MAX_LENGTH)
+    private String tag;
+
+    @Id
+    @Column(name = "post_id")
+    private UUID postId;
+
+    // Copy of posts.created_at, the tag page sort key
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public PostTagId getId() {
+        return new PostTagId(tag, postId);
+    }
+
+    // Rows are only ever inserted, with the post; without this save() would merge and SELECT each one first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.plaintext.common.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTagId implements Serializable {
+    private String tag;
+    private UUID postId;
+}
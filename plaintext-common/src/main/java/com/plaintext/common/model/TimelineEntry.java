@@ -0,0 +1,44 @@
+package com.plaintext.common.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of a user's materialized home timeline.
+ * Rows are written by follower fan-out when a post is created, so reading a
+ * timeline is a range scan over (user_id, created_at, post_id) and never has
+ * to consult the follow graph.
+ */
+@Entity
+@Table(name = "timeline_entries", indexes = {
+        @Index(name = "idx_timeline_user_created_at_post", columnList = "user_id, created_at DESC, post_id DESC"),
+        @Index(name = "idx_timeline_user_author", columnList = "user_id, author_id")
+})
+@IdClass(TimelineEntryId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    // Timeline owner
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "post_id")
+    private UUID postId;
+
+    // Denormalized so an unfollow can prune without joining posts
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    // Copy of posts.created_at, the timeline sort key
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
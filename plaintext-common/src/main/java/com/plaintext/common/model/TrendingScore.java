@@ -0,0 +1,40 @@
+package com.plaintext.common.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Checkpoint of core's in-memory trending scores, one partition per core instance. Each
+ * instance rewrites its own partition every checkpoint and reads it back on startup, so
+ * instances never overwrite each other. Not a source of truth: losing it only costs the
+ * ranking its history.
+ */
+@Entity
+@Table(name = "trending_scores")
+@IdClass(TrendingScoreId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingScore {
+
+    // plaintext.trending.instance-id of the instance that wrote the row
+    @Id
+    @Column(name = "instance_id", length = 64)
+    private String instanceId;
+
+    @Id
+    @Column(name = "post_id")
+    private UUID postId;
+
+    // Decayed to checkpointed_at; the reader decays it further by the time since
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    @Column(name = "checkpointed_at", nullable = false)
+    private LocalDateTime checkpointedAt;
+}
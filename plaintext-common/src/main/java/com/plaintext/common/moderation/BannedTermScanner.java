@@ -0,0 +1,38 @@
+package com.plaintext.common.moderation;
+
+import java.util.Collection;
+
+/**
+ * Scans text against a banned-term list that can be replaced while scans are running.
+ * {@link #reload} compiles the new automaton on the calling thread and then swaps a volatile
+ * reference: scans never wait, and one already under way finishes on the list it started with.
+ */
+public final class BannedTermScanner {
+    private volatile TermMatcher matcher;
+
+    public BannedTermScanner(Collection<String> terms) {
+        this.matcher = TermMatcher.compile(terms);
+    }
+
+    public void reload(Collection<String> terms) {
+        matcher = TermMatcher.compile(terms);
+    }
+
+    /** Occurrences of banned terms in the text. */
+    public int count(CharSequence text) {
+        return matcher.count(text);
+    }
+
+    public boolean matchesAny(CharSequence text) {
+        return matcher.matchesAny(text);
+    }
+
+    /** The current list, for callers that need several calls against the same one. */
+    public TermMatcher matcher() {
+        return matcher;
+    }
+
+    public int size() {
+        return matcher.size();
+    }
+}
@@ -0,0 +1,267 @@
+package com.plaintext.common.moderation;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable Aho-Corasick automaton over a set of terms, compiled to a full DFA: every
+ * (state, character) pair has its transition precomputed, so a scan is one table lookup per
+ * character, in one pass, whatever the number of terms, and allocates nothing.
+ *
+ * Terms and text are folded the same way before matching: lower-cased and compatibility
+ * decomposed with diacritics dropped, so fullwidth "ＦＲＥＥ" and "frée" both match "free".
+ * Folding maps one UTF-16 char to at most one char through a table, which is what keeps scans
+ * allocation-free; characters outside the Basic Multilingual Plane pass through unchanged.
+ * Matches are substrings, not whole words.
+ *
+ * Only characters that occur in some term get a column in the transition table, so it takes
+ * about 4 bytes x states x distinct term characters, e.g. ~6 MB for 5,000 English phrases,
+ * plus a fixed 128 KB for the char-to-column map. Scans slow down once the table outgrows
+ * the CPU caches; see BannedTermScanBenchmark.
+ */
+public final class TermMatcher {
+    // Combining marks fold to this and are skipped, so "e" + U+0301 matches like "e"
+    private static final char SKIP = 0;
+    private static final char[] FOLD = foldTable();
+    // Set on a transition whose target state ends at least one term
+    private static final int MATCH = Integer.MIN_VALUE;
+
+    private final List<String> terms;
+    private final char[] columnOf;       // raw char -> column: 0 if in no term, the last one if folded away
+    private final int width;             // columns per row
+    private final int[] delta;           // row + column -> target row, | MATCH if the target ends a term
+    private final int[] matchesAt;       // terms ending in each state, counting suffixes
+    private final int[] termAt;          // the term spelled by each state, or -1
+    private final int[] outputLink;      // nearest proper suffix state that is a term, or -1
+
+    private TermMatcher(List<String> terms, char[] columnOf, int width, int[] delta,
+                        int[] matchesAt, int[] termAt, int[] outputLink) {
+        this.terms = terms;
+        this.columnOf = columnOf;
+        this.width = width;
+        this.delta = delta;
+        this.matchesAt = matchesAt;
+        this.termAt = termAt;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * Compiles the terms; blank ones are ignored and ones equal after folding kept once.
+     * Cost is linear in the total term length times the number of distinct term characters.
+     */
+    public static TermMatcher compile(Collection<String> rawTerms) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String raw : rawTerms) {
+            String term = fold(raw).strip();
+            if (!term.isEmpty()) {
+                unique.add(term);
+            }
+        }
+        List<String> terms = List.copyOf(unique);
+
+        char[] symbolOf = new char[Character.MAX_VALUE + 1];
+        int symbols = 1;
+        long maxStates = 1;
+        for (String term : terms) {
+            maxStates += term.length();
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (symbolOf[c] == 0) {
+                    symbolOf[c] = (char) symbols++;
+                }
+            }
+        }
+        // One extra column for folded-away chars, which leave the state as it is
+        int width = symbols + 1;
+        if (maxStates * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Term list too large for one matcher: " + terms.size() + " terms");
+        }
+
+        // Trie first, with -1 for missing edges
+        int[] next = new int[(int) maxStates * symbols];
+        Arrays.fill(next, -1);
+        int[] termAt = new int[(int) maxStates];
+        Arrays.fill(termAt, -1);
+        int states = 1;
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int edge = state * symbols + symbolOf[term.charAt(i)];
+                if (next[edge] < 0) {
+                    next[edge] = states++;
+                }
+                state = next[edge];
+            }
+            termAt[state] = t;
+        }
+
+        // Breadth-first, each missing edge becomes the failure state's edge; failure states
+        // are shallower, so their rows are already complete when they are copied from
+        int[] fail = new int[states];
+        int[] matchesAt = new int[states];
+        int[] outputLink = new int[states];
+        int[] order = new int[states];
+        int head = 0;
+        int tail = 0;
+        outputLink[0] = -1;
+        for (int s = 0; s < symbols; s++) {
+            int child = next[s];
+            if (child < 0) {
+                next[s] = 0;
+            } else {
+                order[tail++] = child;
+            }
+        }
+        for (int s = 1; s < states; s++) {
+            matchesAt[s] = termAt[s] >= 0 ? 1 : 0;
+        }
+        while (head < tail) {
+            int state = order[head++];
+            int failure = fail[state];
+            matchesAt[state] += matchesAt[failure];
+            outputLink[state] = termAt[failure] >= 0 ? failure : outputLink[failure];
+            for (int s = 0; s < symbols; s++) {
+                int edge = state * symbols + s;
+                int child = next[edge];
+                if (child < 0) {
+                    next[edge] = next[failure * symbols + s];
+                } else {
+                    fail[child] = next[failure * symbols + s];
+                    order[tail++] = child;
+                }
+            }
+        }
+
+        // Scan table: targets pre-multiplied into row offsets and flagged when they end a term,
+        // so a scan step is one lookup and a sign test
+        int[] delta = new int[states * width];
+        for (int state = 0; state < states; state++) {
+            int row = state * width;
+            for (int s = 0; s < symbols; s++) {
+                int target = next[state * symbols + s];
+                delta[row + s] = target * width | (matchesAt[target] != 0 ? MATCH : 0);
+            }
+            delta[row + symbols] = row;
+        }
+        // Folding and column lookup composed, so a scan does one lookup per char of text
+        char[] columnOf = new char[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            columnOf[c] = FOLD[c] == SKIP ? (char) symbols : symbolOf[FOLD[c]];
+        }
+        return new TermMatcher(terms, columnOf, width, delta, matchesAt, Arrays.copyOf(termAt, states), outputLink);
+    }
+
+    /** Occurrences of any term in the text, overlapping ones included. */
+    public int count(CharSequence text) {
+        int row = 0;
+        int count = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int target = delta[row + columnOf[text.charAt(i)]];
+            if (target < 0) {
+                target &= ~MATCH;
+                count += matchesAt[target / width];
+            }
+            row = target;
+        }
+        return count;
+    }
+
+    /** Like {@link #count} but stops at the first match. */
+    public boolean matchesAny(CharSequence text) {
+        int row = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            row = delta[row + columnOf[text.charAt(i)]];
+            if (row < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports every occurrence, in order of where it ends. Allocation-free as long as
+     * the handler is.
+     */
+    public void forEachMatch(CharSequence text, MatchHandler handler) {
+        int row = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int target = delta[row + columnOf[text.charAt(i)]];
+            if (target < 0) {
+                target &= ~MATCH;
+                int state = target / width;
+                for (int s = termAt[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                    handler.onMatch(termAt[s], i + 1);
+                }
+            }
+            row = target;
+        }
+    }
+
+    /** The folded form of a term, by the id {@link MatchHandler} reports. */
+    public String term(int id) {
+        return terms.get(id);
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    /** Applies the folding used for matching, e.g. to show what a term will match as. */
+    public static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = FOLD[text.charAt(i)];
+            if (c != SKIP) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * @param term id of the matched term, see {@link #term(int)}
+         * @param end  index in the scanned text just past the match
+         */
+        void onMatch(int term, int end);
+    }
+
+    // One entry per UTF-16 unit, computed once per JVM (tens of milliseconds)
+    private static char[] foldTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        StringBuilder kept = new StringBuilder(4);
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (c == SKIP || Character.isSurrogate(ch)) {
+                table[c] = ch;
+                continue;
+            }
+            String decomposed = Normalizer.normalize(String.valueOf(Character.toLowerCase(ch)), Normalizer.Form.NFKD);
+            kept.setLength(0);
+            for (int i = 0; i < decomposed.length(); i++) {
+                char d = decomposed.charAt(i);
+                int type = Character.getType(d);
+                if (type != Character.NON_SPACING_MARK && type != Character.ENCLOSING_MARK
+                        && type != Character.COMBINING_SPACING_MARK) {
+                    kept.append(d);
+                }
+            }
+            if (kept.isEmpty()) {
+                table[c] = SKIP;
+            } else if (kept.length() == 1) {
+                table[c] = Character.toLowerCase(kept.charAt(0));
+            } else {
+                // Expands to several chars (ligatures, "½"); one char in, one char out
+                table[c] = Character.toLowerCase(ch);
+            }
+        }
+        table[SKIP] = SKIP;
+        return table;
+    }
+}
@@ -0,0 +1,104 @@
+package com.plaintext.common.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free GCRA (a token bucket expressed as one timestamp per subject).
+ *
+ * Each subject's state is a single AtomicLong holding its "theoretical arrival time";
+ * a check is one map lookup and one CAS, with no allocation once the subject is known.
+ * Idle subjects are swept out every {@code sweepInterval} on a thread of the store's own,
+ * never on a caller's; close the store to stop it.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore, AutoCloseable {
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private final Map<RateLimitAction, ConcurrentHashMap<String, AtomicLong>> buckets =
+            new EnumMap<>(RateLimitAction.class);
+    private final ScheduledExecutorService sweeper;
+
+    public InMemoryRateLimitStore() {
+        this(SWEEP_INTERVAL);
+    }
+
+    public InMemoryRateLimitStore(Duration sweepInterval) {
+        for (RateLimitAction action : RateLimitAction.values()) {
+            buckets.put(action, new ConcurrentHashMap<>());
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-sweep").daemon().factory());
+        long interval = sweepInterval.toNanos();
+        sweeper.scheduleWithFixedDelay(() -> sweep(System.nanoTime()), interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean tryAcquire(RateLimitAction action, String subject, RateLimitRule rule) {
+        long now = System.nanoTime();
+        ConcurrentHashMap<String, AtomicLong> perAction = buckets.get(action);
+        AtomicLong arrival = perAction.get(subject);
+        if (arrival == null) {
+            arrival = perAction.computeIfAbsent(subject, s -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        long interval = rule.emissionIntervalNanos();
+        long tolerance = rule.burstToleranceNanos();
+        while (true) {
+            long current = arrival.get();
+            long tat = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            if (tat - now > tolerance) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, tat + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes back one emission interval, never leaving the bucket fuller than a fresh one.
+     */
+    @Override
+    public void refund(RateLimitAction action, String subject, RateLimitRule rule) {
+        AtomicLong arrival = buckets.get(action).get(subject);
+        if (arrival == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long current = arrival.get();
+            if (current == Long.MIN_VALUE || current - now <= 0) {
+                return;
+            }
+            long refunded = current - rule.emissionIntervalNanos();
+            if (arrival.compareAndSet(current, refunded - now < 0 ? now : refunded)) {
+                return;
+            }
+        }
+    }
+
+    public int trackedSubjects() {
+        return buckets.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Drops subjects whose bucket has fully refilled; they are indistinguishable from new ones.
+     * A check racing with the removal can at worst be granted one extra permit.
+     */
+    void sweep(long now) {
+        for (ConcurrentHashMap<String, AtomicLong> perAction : buckets.values()) {
+            perAction.entrySet().removeIf(e -> e.getValue().get() - now <= 0);
+        }
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
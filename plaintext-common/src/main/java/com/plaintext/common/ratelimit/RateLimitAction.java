@@ -0,0 +1,9 @@
+package com.plaintext.common.ratelimit;
+
+public enum RateLimitAction {
+    POST,
+    LIKE,
+    COMMENT,
+    FOLLOW,
+    EXPORT
+}
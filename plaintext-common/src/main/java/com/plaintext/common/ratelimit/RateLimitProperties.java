@@ -0,0 +1,25 @@
+package com.plaintext.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "plaintext.rate-limit")
+public class RateLimitProperties {
+
+    // Defaults apply to any action not overridden in configuration
+    private Map<RateLimitAction, RateLimitRule> rules = new EnumMap<>(Map.of(
+            RateLimitAction.POST, new RateLimitRule(1, Duration.ofMinutes(5)),
+            RateLimitAction.LIKE, new RateLimitRule(60, Duration.ofMinutes(1)),
+            RateLimitAction.COMMENT, new RateLimitRule(10, Duration.ofMinutes(1)),
+            RateLimitAction.FOLLOW, new RateLimitRule(30, Duration.ofMinutes(1)),
+            RateLimitAction.EXPORT, new RateLimitRule(10, Duration.ofHours(1))));
+
+    // Actions a user may only have this many of in progress at once, on this instance
+    private Map<RateLimitAction, Integer> concurrency = new EnumMap<>(Map.of(
+            RateLimitAction.EXPORT, 1));
+}
@@ -0,0 +1,25 @@
+package com.plaintext.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Allows {@code capacity} actions per {@code period}, all of which may be spent in a burst.
+ */
+public record RateLimitRule(int capacity, Duration period) {
+
+    public RateLimitRule {
+        if (capacity < 1 || period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and period");
+        }
+    }
+
+    // Time one action "costs" (GCRA emission interval)
+    public long emissionIntervalNanos() {
+        return period.toNanos() / capacity;
+    }
+
+    // How far ahead of now the bucket may be booked before we reject (GCRA burst tolerance)
+    public long burstToleranceNanos() {
+        return period.toNanos() - emissionIntervalNanos();
+    }
+}
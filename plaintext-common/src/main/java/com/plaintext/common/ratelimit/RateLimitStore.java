@@ -0,0 +1,21 @@
+package com.plaintext.common.ratelimit;
+
+/**
+ * Holds rate-limit state. The default keeps it in process memory, which is exact for a
+ * single instance; multi-instance deployments can register a shared implementation
+ * (e.g. Redis) as a bean and it replaces the in-memory one.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consumes one permit for the subject if one is available.
+     *
+     * @return false if the subject is over its limit
+     */
+    boolean tryAcquire(RateLimitAction action, String subject, RateLimitRule rule);
+
+    /**
+     * Gives back one permit acquired earlier, for an action that did not happen after all.
+     */
+    void refund(RateLimitAction action, String subject, RateLimitRule rule);
+}
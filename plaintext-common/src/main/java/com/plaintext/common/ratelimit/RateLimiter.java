@@ -0,0 +1,142 @@
+package com.plaintext.common.ratelimit;
+
+import com.plaintext.common.exception.TooManyRequestsException;
+import com.plaintext.common.jfr.RateLimitEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class RateLimiter {
+    private final RateLimitStore store;
+    private final Map<RateLimitAction, RateLimitRule> rules;
+    private final Map<RateLimitAction, Integer> concurrency;
+    // Per action, the users with any in progress and how many; absent users have none
+    private final Map<RateLimitAction, ConcurrentHashMap<String, Integer>> running = new EnumMap<>(RateLimitAction.class);
+    private final Map<RateLimitAction, Counter> rejections = new EnumMap<>(RateLimitAction.class);
+
+    public RateLimiter(RateLimitStore store, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.rules = new EnumMap<>(properties.getRules());
+        this.concurrency = new EnumMap<>(properties.getConcurrency());
+        for (RateLimitAction action : RateLimitAction.values()) {
+            running.put(action, new ConcurrentHashMap<>());
+            rejections.put(action, Counter.builder("plaintext.ratelimit.rejections")
+                    .tag("action", action.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Consumes one permit for the user, or throws if they are over the limit for this action.
+     * Actions without a configured rule are not limited.
+     *
+     * The permit is taken before the action runs, so concurrent requests cannot both slip
+     * through. Called inside a transaction, it is given back if that transaction rolls back;
+     * outside one, a failed action keeps it spent.
+     */
+    public void check(RateLimitAction action, String username) {
+        RateLimitRule rule = rules.get(action);
+        if (rule == null) {
+            return;
+        }
+        RateLimitEvent event = new RateLimitEvent();
+        event.begin();
+        boolean allowed = store.tryAcquire(action, username, rule);
+        if (event.shouldCommit()) {
+            event.action = action.name().toLowerCase(Locale.ROOT);
+            event.username = username;
+            event.allowed = allowed;
+            event.commit();
+        }
+        if (!allowed) {
+            rejections.get(action).increment();
+            throw new TooManyRequestsException(messageFor(action, rule));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        store.refund(action, username, rule);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Takes one of the user's concurrent slots for a long-running action, then consumes a permit
+     * as {@link #check} does; throws if either is exhausted. A user over the concurrency limit
+     * keeps their permits. Actions without a configured concurrency only get the rate check.
+     *
+     * @return the slot, to be closed once the action finishes, whether it succeeded or not
+     */
+    public Slot enter(RateLimitAction action, String username) {
+        Integer limit = concurrency.get(action);
+        if (limit == null) {
+            check(action, username);
+            return new Slot(action, null);
+        }
+        boolean[] full = new boolean[1];
+        running.get(action).compute(username, (user, count) -> {
+            int current = count == null ? 0 : count;
+            full[0] = current >= limit;
+            return full[0] ? count : current + 1;
+        });
+        if (full[0]) {
+            rejections.get(action).increment();
+            throw new TooManyRequestsException("Too many " + action.name().toLowerCase(Locale.ROOT)
+                    + "s in progress. Limit is " + limit + " at a time.");
+        }
+        Slot slot = new Slot(action, username);
+        try {
+            check(action, username);
+        } catch (RuntimeException e) {
+            slot.close();
+            throw e;
+        }
+        return slot;
+    }
+
+    int inProgress(RateLimitAction action, String username) {
+        return running.get(action).getOrDefault(username, 0);
+    }
+
+    /**
+     * A concurrent slot held by one action in progress. Closing it more than once is harmless.
+     */
+    public final class Slot implements AutoCloseable {
+        private final RateLimitAction action;
+        private final String username;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Slot(RateLimitAction action, String username) {
+            this.action = action;
+            this.username = username;
+        }
+
+        @Override
+        public void close() {
+            if (username != null && closed.compareAndSet(false, true)) {
+                running.get(action).computeIfPresent(username, (user, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    private static String messageFor(RateLimitAction action, RateLimitRule rule) {
+        if (action == RateLimitAction.POST && rule.capacity() == 1 && rule.period().toMinutes() > 0) {
+            return "Rate limit exceeded. Please wait " + rule.period().toMinutes() + " minutes between posts.";
+        }
+        return "Rate limit exceeded for " + action.name().toLowerCase(Locale.ROOT)
+                + ". Limit is " + rule.capacity() + " per " + rule.period().toSeconds() + " seconds.";
+    }
+}
@@ -0,0 +1,25 @@
+package com.plaintext.common.security;
+
+import com.plaintext.common.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal built from JWT claims, so services know who is calling without loading the users row.
+ * Implements Principal so {@code Authentication.getName()} still returns the username.
+ */
+public record AuthenticatedUser(UUID id, String username, UserRole role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return role == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.plaintext.common.security;
+
+/**
+ * Custom claim names shared by the token issuer (auth) and verifiers (auth, core).
+ * The subject claim stays the username.
+ */
+public final class JwtClaims {
+    public static final String USER_ID = "uid";
+    public static final String ROLE = "role";
+
+    private JwtClaims() {
+    }
+}
@@ -0,0 +1,168 @@
+package com.plaintext.common.security;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.jfr.JwtVerificationEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens for both services. The key and parser are built once, each token
+ * is parsed once into an AuthenticatedUser, and verified tokens are remembered (keyed by a
+ * SHA-256 digest, so raw tokens are never held in memory) until they expire. Once
+ * {@code jwt.verified-cache-size} tokens are cached, the least recently used one makes room.
+ *
+ * Tokens issued before the id/role claims were added yield a principal with a null id and role.
+ * Every call is timed as plaintext.jwt.verification, tagged with the cache and verification outcome,
+ * and emits a JwtVerificationEvent when a flight recording enables it.
+ */
+@Slf4j
+@Component
+public class JwtVerifier {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtParser parser;
+    private final int cacheSize;
+    // Access-ordered LRU; guarded by itself
+    private final Map<TokenDigest, Verified> verified;
+    // Indexed by [CacheOutcome][valid ? 0 : 1]
+    private final Timer[][] timers = new Timer[CacheOutcome.values().length][2];
+
+    public JwtVerifier(@Value("${jwt.secret}") String secret,
+                       @Value("${jwt.verified-cache-size:10000}") int cacheSize,
+                       MeterRegistry meterRegistry) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build();
+        this.cacheSize = cacheSize;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TokenDigest, Verified> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        List<CacheOutcome> outcomes = cacheSize > 0
+                ? List.of(CacheOutcome.HIT, CacheOutcome.MISS)
+                : List.of(CacheOutcome.OFF);
+        for (CacheOutcome cache : outcomes) {
+            for (boolean valid : new boolean[]{true, false}) {
+                timers[cache.ordinal()][valid ? 0 : 1] = Timer.builder("plaintext.jwt.verification")
+                        .tag("cache", cache.name().toLowerCase(Locale.ROOT))
+                        .tag("result", valid ? "valid" : "invalid")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * @return the caller, or empty if the token is malformed, forged or expired
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        long start = System.nanoTime();
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        if (cacheSize <= 0) {
+            return timed(CacheOutcome.OFF, parse(token).map(Verified::principal), start, event);
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        long now = System.currentTimeMillis();
+        Verified hit;
+        synchronized (verified) {
+            hit = verified.get(digest);
+            if (hit != null && hit.expiresAtMillis() <= now) {
+                verified.remove(digest);
+            }
+        }
+        if (hit != null) {
+            Optional<AuthenticatedUser> principal = hit.expiresAtMillis() > now
+                    ? Optional.of(hit.principal())
+                    : Optional.empty();
+            return timed(CacheOutcome.HIT, principal, start, event);
+        }
+        Optional<Verified> parsed = parse(token);
+        parsed.ifPresent(v -> {
+            synchronized (verified) {
+                verified.put(digest, v);
+            }
+        });
+        return timed(CacheOutcome.MISS, parsed.map(Verified::principal), start, event);
+    }
+
+    private Optional<AuthenticatedUser> timed(CacheOutcome cache, Optional<AuthenticatedUser> result, long start,
+                                              JwtVerificationEvent event) {
+        timers[cache.ordinal()][result.isPresent() ? 0 : 1].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (event.shouldCommit()) {
+            event.cache = cache.name().toLowerCase(Locale.ROOT);
+            event.valid = result.isPresent();
+            UUID userId = result.map(AuthenticatedUser::id).orElse(null);
+            event.userId = userId == null ? null : userId.toString();
+            event.commit();
+        }
+        return result;
+    }
+
+    int cachedTokens() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    private Optional<Verified> parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String userId = claims.get(JwtClaims.USER_ID, String.class);
+            String role = claims.get(JwtClaims.ROLE, String.class);
+            AuthenticatedUser principal = new AuthenticatedUser(
+                    userId == null ? null : UUID.fromString(userId),
+                    claims.getSubject(),
+                    role == null ? null : UserRole.valueOf(role));
+            Date expiration = claims.getExpiration();
+            return Optional.of(new Verified(principal, expiration == null ? Long.MAX_VALUE : expiration.getTime()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private enum CacheOutcome {
+        HIT, MISS, OFF
+    }
+
+    private record Verified(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.plaintext.common.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TermMatcherTest {
+
+    @Test
+    void reportsOverlappingMatchesInOnePass() {
+        TermMatcher matcher = TermMatcher.compile(List.of("he", "she", "his", "hers"));
+        List<String> found = new ArrayList<>();
+
+        matcher.forEachMatch("ushers", (term, end) -> found.add(matcher.term(term) + "@" + end));
+
+        assertEquals(List.of("she@4", "he@4", "hers@6"), found);
+        assertEquals(3, matcher.count("ushers"));
+        assertTrue(matcher.matchesAny("this"));
+        assertFalse(matcher.matchesAny("nothing to see"));
+    }
+
+    @Test
+    void foldsCaseWidthAndDiacritics() {
+        TermMatcher matcher = TermMatcher.compile(List.of("Free Crypto"));
+
+        assertEquals(1, matcher.count("get FREE CRYPTO now"));
+        assertEquals(1, matcher.count("ｆｒｅｅ ｃｒｙｐｔｏ"));
+        assertEquals(1, matcher.count("frée crÿpto"));
+        assertEquals(1, matcher.count("fre\u0301e crypto")); // decomposed accent
+        assertEquals(0, matcher.count("free-crypto"));
+        assertEquals("free crypto", TermMatcher.fold("FRÉE Crypto"));
+    }
+
+    @Test
+    void ignoresBlankAndDuplicateTerms() {
+        TermMatcher matcher = TermMatcher.compile(List.of("spam", " SPAM ", "", "  "));
+
+        assertEquals(1, matcher.size());
+        assertEquals(2, matcher.count("spam spam"));
+        assertEquals(0, TermMatcher.compile(List.of()).count("anything"));
+    }
+
+    @Test
+    void countsLikeANaiveScanOnRandomInput() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> terms = new ArrayList<>();
+            for (int t = 0; t < 1 + random.nextInt(20); t++) {
+                terms.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            TermMatcher matcher = TermMatcher.compile(terms);
+            String text = randomText(random, random.nextInt(200));
+
+            int expected = 0;
+            for (String term : terms.stream().distinct().toList()) {
+                for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + 1)) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, matcher.count(text), () -> terms + " in " + text);
+        }
+    }
+
+    @Test
+    void scansAllocateNothing() {
+        TermMatcher matcher = TermMatcher.compile(List.of("buy followers", "free crypto", "click here"));
+        String post = "Totally normal post about the weather, then: click here for free crypto! ".repeat(3);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().threadId();
+        int sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += matcher.count(post);
+        }
+
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100_000; i++) {
+            sink += matcher.count(post);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertEquals(120_000 * 6, sink);
+        assertTrue(allocated < 10_000, () -> allocated + " bytes allocated by 100,000 scans");
+    }
+
+    @Test
+    void reloadNeverBlocksOrTearsConcurrentScans() throws Exception {
+        BannedTermScanner scanner = new BannedTermScanner(List.of("alpha"));
+        String text = "alpha beta gamma";
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> scans = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            scans.add(pool.submit(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    int count = scanner.count(text);
+                    assertTrue(count == 1 || count == 3, "count " + count);
+                }
+            }));
+        }
+        for (int i = 0; i < 200; i++) {
+            scanner.reload(i % 2 == 0 ? List.of("alpha", "beta", "gamma") : List.of("alpha"));
+        }
+        for (Future<?> scan : scans) {
+            scan.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    private static String randomText(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(3)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package com.plaintext.common.ratelimit;
+
+import com.plaintext.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        RateLimitRule rule = new RateLimitRule(3, Duration.ofMinutes(1));
+
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertFalse(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+
+        // Other users and other actions have their own buckets
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "bob", rule));
+        assertTrue(store.tryAcquire(RateLimitAction.COMMENT, "alice", rule));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        RateLimitRule rule = new RateLimitRule(1, Duration.ofMillis(50));
+
+        assertTrue(store.tryAcquire(RateLimitAction.POST, "alice", rule));
+        assertFalse(store.tryAcquire(RateLimitAction.POST, "alice", rule));
+        Thread.sleep(60);
+        assertTrue(store.tryAcquire(RateLimitAction.POST, "alice", rule));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        RateLimitRule rule = new RateLimitRule(100, Duration.ofHours(1));
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                pool.submit(() -> {
+                    start.await();
+                    if (store.tryAcquire(RateLimitAction.FOLLOW, "alice", rule)) {
+                        granted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void sweepDropsOnlyIdleSubjects() throws InterruptedException {
+        RateLimitRule shortRule = new RateLimitRule(1, Duration.ofMillis(10));
+        RateLimitRule longRule = new RateLimitRule(1, Duration.ofHours(1));
+        store.tryAcquire(RateLimitAction.LIKE, "idle", shortRule);
+        store.tryAcquire(RateLimitAction.LIKE, "busy", longRule);
+
+        Thread.sleep(20);
+        store.sweep(System.nanoTime());
+
+        assertEquals(1, store.trackedSubjects());
+        assertFalse(store.tryAcquire(RateLimitAction.LIKE, "busy", longRule));
+    }
+
+    @Test
+    void sweepRunsOnItsOwnThread() throws InterruptedException {
+        try (InMemoryRateLimitStore swept = new InMemoryRateLimitStore(Duration.ofMillis(20))) {
+            swept.tryAcquire(RateLimitAction.LIKE, "idle", new RateLimitRule(1, Duration.ofMillis(10)));
+            assertEquals(1, swept.trackedSubjects());
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (swept.trackedSubjects() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, swept.trackedSubjects());
+        }
+    }
+
+    @Test
+    void refundGivesBackOnePermitAtMost() {
+        RateLimitRule rule = new RateLimitRule(2, Duration.ofHours(1));
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertFalse(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+
+        store.refund(RateLimitAction.LIKE, "alice", rule);
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertFalse(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+
+        // Refunds beyond a full bucket are lost, and unknown subjects are ignored
+        for (int i = 0; i < 5; i++) {
+            store.refund(RateLimitAction.LIKE, "alice", rule);
+        }
+        store.refund(RateLimitAction.LIKE, "bob", rule);
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertTrue(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+        assertFalse(store.tryAcquire(RateLimitAction.LIKE, "alice", rule));
+    }
+
+    @Test
+    void rateLimiterRefundsThePermitWhenTheTransactionRollsBack() {
+        RateLimiter limiter = new RateLimiter(store, new RateLimitProperties(), new SimpleMeterRegistry());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            limiter.check(RateLimitAction.POST, "alice");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertDoesNotThrow(() -> limiter.check(RateLimitAction.POST, "alice"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            limiter.check(RateLimitAction.POST, "bob");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.check(RateLimitAction.POST, "bob"));
+    }
+
+    @Test
+    void rateLimiterThrowsTooManyRequests() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter(store, new RateLimitProperties(), meterRegistry);
+
+        assertDoesNotThrow(() -> limiter.check(RateLimitAction.POST, "alice"));
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.check(RateLimitAction.POST, "alice"));
+        assertEquals("Rate limit exceeded. Please wait 5 minutes between posts.", ex.getMessage());
+        assertEquals(1, meterRegistry.get("plaintext.ratelimit.rejections").tag("action", "post").counter().count());
+    }
+
+    @Test
+    void rateLimiterCapsActionsInProgressPerUser() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRules().put(RateLimitAction.EXPORT, new RateLimitRule(3, Duration.ofHours(1)));
+        RateLimiter limiter = new RateLimiter(store, properties, meterRegistry);
+
+        RateLimiter.Slot running = limiter.enter(RateLimitAction.EXPORT, "alice");
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> limiter.enter(RateLimitAction.EXPORT, "alice"));
+        assertEquals("Too many exports in progress. Limit is 1 at a time.", ex.getMessage());
+        // Other users have their own slots
+        limiter.enter(RateLimitAction.EXPORT, "bob").close();
+
+        running.close();
+        running.close();
+        assertEquals(0, limiter.inProgress(RateLimitAction.EXPORT, "alice"));
+        limiter.enter(RateLimitAction.EXPORT, "alice").close();
+
+        // The attempt rejected while one was running spent no permit: this is the third of three
+        limiter.enter(RateLimitAction.EXPORT, "alice").close();
+        assertThrows(TooManyRequestsException.class, () -> limiter.enter(RateLimitAction.EXPORT, "alice"));
+        assertEquals(0, limiter.inProgress(RateLimitAction.EXPORT, "alice"));
+        assertEquals(2, meterRegistry.get("plaintext.ratelimit.rejections").tag("action", "export").counter().count());
+    }
+}
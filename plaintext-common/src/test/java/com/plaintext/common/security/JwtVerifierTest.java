@@ -0,0 +1,143 @@
+package com.plaintext.common.security;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.jfr.JwtVerificationEvent;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtVerifierTest {
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String OTHER_SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    @Test
+    void verify_ReturnsClaimsAndCachesTheToken() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, meterRegistry);
+        UUID userId = UUID.randomUUID();
+        String token = token(SECRET, "alice", userId, 60_000);
+
+        AuthenticatedUser expected = new AuthenticatedUser(userId, "alice", UserRole.USER);
+        assertEquals(Optional.of(expected), verifier.verify(token));
+        assertEquals(Optional.of(expected), verifier.verify(token));
+        assertEquals(1, verifier.cachedTokens());
+        assertEquals(1, verifications(meterRegistry, "miss", "valid"));
+        assertEquals(1, verifications(meterRegistry, "hit", "valid"));
+    }
+
+    @Test
+    void verify_RejectsForgedAndMalformedTokens() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, meterRegistry);
+
+        assertTrue(verifier.verify(token(OTHER_SECRET, "alice", UUID.randomUUID(), 60_000)).isEmpty());
+        assertTrue(verifier.verify("not-a-jwt").isEmpty());
+        assertEquals(0, verifier.cachedTokens());
+        assertEquals(2, verifications(meterRegistry, "miss", "invalid"));
+    }
+
+    @Test
+    void verify_RejectsCachedTokenOnceItExpires() throws InterruptedException {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, new SimpleMeterRegistry());
+        String token = token(SECRET, "alice", UUID.randomUUID(), 2_000); // exp has second precision
+
+        assertTrue(verifier.verify(token).isPresent());
+        Thread.sleep(2_100);
+        assertTrue(verifier.verify(token).isEmpty());
+        assertEquals(0, verifier.cachedTokens());
+    }
+
+    @Test
+    void verify_KeepsCacheBounded() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 20, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(verifier.verify(token(SECRET, "user" + i, UUID.randomUUID(), 60_000)).isPresent());
+        }
+
+        assertTrue(verifier.cachedTokens() <= 20);
+    }
+
+    @Test
+    void verify_EvictsTheLeastRecentlyUsedToken() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtVerifier verifier = new JwtVerifier(SECRET, 2, meterRegistry);
+        String first = token(SECRET, "first", UUID.randomUUID(), 60_000);
+        String second = token(SECRET, "second", UUID.randomUUID(), 60_000);
+        String third = token(SECRET, "third", UUID.randomUUID(), 60_000);
+
+        verifier.verify(first);
+        verifier.verify(second);
+        verifier.verify(first);
+        // Full: the second token is the one not used since
+        verifier.verify(third);
+        verifier.verify(first);
+        verifier.verify(second);
+
+        assertEquals(2, verifier.cachedTokens());
+        assertEquals(2, verifications(meterRegistry, "hit", "valid"));
+        assertEquals(4, verifications(meterRegistry, "miss", "valid"));
+    }
+
+    @Test
+    void verify_AcceptsTokensWithoutIdClaims() {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, new SimpleMeterRegistry());
+        String legacy = Jwts.builder().subject("alice").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).compact();
+
+        assertEquals(Optional.of(new AuthenticatedUser(null, "alice", null)), verifier.verify(legacy));
+    }
+
+    @Test
+    void verify_EmitsFlightRecorderEvents(@TempDir Path dir) throws Exception {
+        JwtVerifier verifier = new JwtVerifier(SECRET, 10, new SimpleMeterRegistry());
+        UUID userId = UUID.randomUUID();
+        String token = token(SECRET, "alice", userId, 60_000);
+        Path file = dir.resolve("jwt.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(JwtVerificationEvent.class);
+            recording.start();
+            verifier.verify(token);
+            verifier.verify(token);
+            verifier.verify("not-a-jwt");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(List.of("miss", "hit", "miss"), events.stream().map(e -> e.getString("cache")).toList());
+        assertEquals(List.of(true, true, false), events.stream().map(e -> e.getBoolean("valid")).toList());
+        assertEquals(userId.toString(), events.get(0).getString("userId"));
+    }
+
+    private static String token(String secret, String username, UUID userId, long ttlMillis) {
+        return Jwts.builder()
+                .subject(username)
+                .claim(JwtClaims.USER_ID, userId.toString())
+                .claim(JwtClaims.ROLE, UserRole.USER.name())
+                .expiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .compact();
+    }
+
+    private static long verifications(MeterRegistry meterRegistry, String cache, String result) {
+        return meterRegistry.get("plaintext.jwt.verification").tag("cache", cache).tag("result", result).timer().count();
+    }
+}
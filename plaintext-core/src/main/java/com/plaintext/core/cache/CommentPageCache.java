@@ -0,0 +1,127 @@
+package com.plaintext.core.cache;
+
+import com.plaintext.core.dto.CommentResponse;
+import com.plaintext.core.event.CommentAddedEvent;
+import com.plaintext.core.service.PostService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of the oldest comments of recently read posts, i.e. the first page of
+ * every thread. Each entry holds up to {@link #ROWS_PER_POST} rows, enough to answer a
+ * first page of any allowed size plus its look-ahead row, so it serves every limit.
+ *
+ * Comments are listed oldest first, so once an entry is full new comments land on a
+ * later page and the entry never changes again. Entries that are not full yet hold the
+ * whole thread and new comments are appended after commit.
+ */
+@Component
+public class CommentPageCache {
+    public static final int ROWS_PER_POST = PostService.MAX_PAGE_SIZE + 1;
+    private static final int STRIPES = 64;
+
+    private final Map<UUID, List<CommentResponse>> entries;
+    // Bumped per stripe on every new comment; a load that raced with one is not cached
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CommentPageCache(@Value("${plaintext.comments.cache-size:2000}") int maxPosts, MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("plaintext.comments.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("plaintext.comments.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("plaintext.comments.cache.evictions").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, List<CommentResponse>> eldest) {
+                if (size() > maxPosts) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("plaintext.comments.cache.size", this, CommentPageCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the first {@code fetch} comments of the post, loading and caching them on a miss.
+     *
+     * @param fetch  at most {@link #ROWS_PER_POST}
+     * @param loader reads the first {@link #ROWS_PER_POST} comments from the database
+     */
+    public List<CommentResponse> firstPage(UUID postId, int fetch, Supplier<List<CommentResponse>> loader) {
+        List<CommentResponse> cached;
+        synchronized (entries) {
+            cached = entries.get(postId);
+        }
+        if (cached != null) {
+            hits.increment();
+            return head(cached, fetch);
+        }
+        misses.increment();
+        int stripe = stripeOf(postId);
+        long stamp = writeStamps.get(stripe);
+        List<CommentResponse> loaded = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (writeStamps.get(stripe) == stamp) {
+                entries.put(postId, loaded);
+            }
+        }
+        return head(loaded, fetch);
+    }
+
+    // Ordered before ContentVersions, so a new thread ETag never covers the old entry
+    @Order(0)
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        synchronized (entries) {
+            writeStamps.incrementAndGet(stripeOf(event.postId()));
+            List<CommentResponse> current = entries.get(event.postId());
+            if (current == null || current.size() >= ROWS_PER_POST || contains(current, event.comment().getId())) {
+                return;
+            }
+            List<CommentResponse> appended = new ArrayList<>(current.size() + 1);
+            appended.addAll(current);
+            appended.add(event.comment());
+            entries.put(event.postId(), List.copyOf(appended));
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static List<CommentResponse> head(List<CommentResponse> rows, int fetch) {
+        return rows.size() > fetch ? rows.subList(0, fetch) : rows;
+    }
+
+    private static boolean contains(List<CommentResponse> rows, UUID commentId) {
+        for (CommentResponse row : rows) {
+            if (row.getId().equals(commentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripeOf(UUID postId) {
+        return (postId.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+}
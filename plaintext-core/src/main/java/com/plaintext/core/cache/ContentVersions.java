@@ -0,0 +1,120 @@
+package com.plaintext.core.cache;
+
+import com.plaintext.core.event.CommentAddedEvent;
+import com.plaintext.core.event.PostCountersFlushedEvent;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.event.PostEngagementEvent;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.repository.PostRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counters behind the ETags of the polled read endpoints: one for the explore feed,
+ * one per author (their posts page) and one per post (its comment thread). Authors and posts
+ * are striped over fixed arrays, so memory is bounded; keys sharing a stripe only cost each
+ * other spurious 200s, never a stale 304.
+ *
+ * A version is bumped only once the change is visible to readers: after commit, after the
+ * in-memory caches applied it (their listeners are ordered first), for comment counts after
+ * PostCounterAggregator flushed them, and for verdicts once ModerationResultPoller saw them.
+ * Controllers read the version before the data, so a poll racing a write may get new data
+ * under the old tag, which the next poll revalidates, but never old data under a new tag.
+ *
+ * Tags start with a random per-process epoch: like the caches they front, versions are local
+ * to one instance and do not survive a restart.
+ */
+@Component
+public class ContentVersions {
+    public static final int AFTER_CACHES = Ordered.LOWEST_PRECEDENCE;
+    private static final int STRIPES = 1 << 12;
+    private static final int LOOKUP_BATCH = 1000;
+
+    private final PostRepository postRepository;
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong()) + "-";
+    private final AtomicLong feed = new AtomicLong();
+    private final AtomicLongArray authors = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray threads = new AtomicLongArray(STRIPES);
+
+    public ContentVersions(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /** Every page of the explore feed. */
+    public String feedTag() {
+        return epoch + feed.get();
+    }
+
+    /** Every page of one author's posts. */
+    public String authorTag(String username) {
+        return epoch + authors.get(stripeOf(username.hashCode()));
+    }
+
+    /** Every page of one post's comments. */
+    public String commentsTag(UUID postId) {
+        return epoch + threads.get(stripeOf(postId.hashCode()));
+    }
+
+    @Order(AFTER_CACHES)
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        feed.incrementAndGet();
+        authorChanged(event.post().getUsername());
+    }
+
+    @Order(AFTER_CACHES)
+    @TransactionalEventListener
+    public void onEngagement(PostEngagementEvent event) {
+        // Cached feed pages change at commit; database pages only once comment counts are flushed
+        feed.incrementAndGet();
+        if (event.authorUsername() != null) {
+            authorChanged(event.authorUsername());
+        }
+    }
+
+    @Order(AFTER_CACHES)
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        threads.incrementAndGet(stripeOf(event.postId().hashCode()));
+    }
+
+    /**
+     * Runs on the flushing thread, never on a request: looking up the authors of the
+     * flushed posts costs one query per thousand posts per flush interval.
+     */
+    @EventListener
+    public void onCountersFlushed(PostCountersFlushedEvent event) {
+        feed.incrementAndGet();
+        List<UUID> postIds = new ArrayList<>(event.postIds());
+        for (int from = 0; from < postIds.size(); from += LOOKUP_BATCH) {
+            List<UUID> batch = postIds.subList(from, Math.min(from + LOOKUP_BATCH, postIds.size()));
+            postRepository.findAuthorUsernames(batch).forEach(this::authorChanged);
+        }
+    }
+
+    /** Verdicts change the status and score shown, and rejected posts disappear. */
+    @Order(AFTER_CACHES)
+    @EventListener
+    public void onModerated(PostsModeratedEvent event) {
+        feed.incrementAndGet();
+        event.posts().forEach(post -> authorChanged(post.authorUsername()));
+    }
+
+    private void authorChanged(String username) {
+        authors.incrementAndGet(stripeOf(username.hashCode()));
+    }
+
+    private static int stripeOf(int hash) {
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.plaintext.core.cache;
+
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.event.PostEngagementEvent;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.util.PageCursor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, lock-free cache of the newest posts, shared by every explore feed reader.
+ *
+ * Posts are kept in a skip list ordered newest first by (createdAt, id), the feed's own
+ * order, so a page seeks to its cursor in O(log n) and reads only the rows it returns.
+ * Past {@code cache-size} the oldest post is dropped.
+ *
+ * Entries are snapshots: a counter change swaps in a new PostResponse with a CAS
+ * rather than mutating the cached one, so callers must treat returned items as read-only.
+ * Pages that reach past the oldest cached post fall back to the database.
+ */
+@Component
+public class ExploreFeedCache implements SmartInitializingSingleton {
+    private static final Comparator<PageCursor> NEWEST_FIRST = Comparator
+            .comparing(PageCursor::createdAt, Comparator.reverseOrder())
+            .thenComparing(PageCursor::id, (a, b) -> PageCursor.compareIds(b, a));
+
+    private final PostRepository postRepository;
+    private final int capacity;
+    private final ConcurrentSkipListMap<PageCursor, PostResponse> posts = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Map<UUID, PageCursor> keys = new ConcurrentHashMap<>();
+    // ConcurrentSkipListMap.size() walks the whole list
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean warmed;
+    // True while the cache holds every post in the table (small deployments, nothing evicted yet)
+    private volatile boolean holdsEverything;
+
+    public ExploreFeedCache(PostRepository postRepository, @Value("${plaintext.feed.cache-size:1000}") int capacity) {
+        this.postRepository = postRepository;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Warms the cache before the web server starts, so write-through inserts
+     * from new posts can never interleave with the warm-up.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<PostResponse> latest = postRepository.findLatest(Limit.of(capacity));
+        holdsEverything = latest.size() < capacity;
+        latest.forEach(this::insert);
+        warmed = true;
+    }
+
+    // Ordered before ContentVersions, so a new feed ETag never covers the old cache contents
+    @Order(0)
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        insert(event.post());
+    }
+
+    @Order(0)
+    @TransactionalEventListener
+    public void onEngagement(PostEngagementEvent event) {
+        replace(event.postId(), current -> current.toBuilder()
+                .likesCount(plus(current.getLikesCount(), event.likesDelta()))
+                .commentsCount(plus(current.getCommentsCount(), event.commentsDelta()))
+                .build());
+    }
+
+    /**
+     * Rejected posts are dropped from the cache; others take the verdict's status and score.
+     */
+    @Order(0)
+    @EventListener
+    public void onModerated(PostsModeratedEvent event) {
+        for (PostsModeratedEvent.ModeratedPost post : event.posts()) {
+            if (post.status().isHidden()) {
+                replace(post.postId(), current -> null);
+            } else {
+                replace(post.postId(), current -> current.toBuilder()
+                        .moderationStatus(post.status())
+                        .moderationScore(post.score())
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * @param fetch rows wanted, including the look-ahead row used to detect a next page
+     * @return the rows after the cursor, or empty when the cache cannot answer on its own
+     */
+    public Optional<List<PostResponse>> page(PageCursor after, int fetch) {
+        if (!warmed) {
+            return Optional.empty();
+        }
+        NavigableMap<PageCursor, PostResponse> next = after == null ? posts : posts.tailMap(after, false);
+        List<PostResponse> page = new ArrayList<>(Math.min(fetch, capacity));
+        for (PostResponse post : next.values()) {
+            if (page.size() == fetch) {
+                break;
+            }
+            page.add(post);
+        }
+        if (page.size() < fetch && !holdsEverything) {
+            return Optional.empty();
+        }
+        return Optional.of(page);
+    }
+
+    // Swaps the cached snapshot of a post for update(snapshot), or a null to drop it
+    private void replace(UUID postId, UnaryOperator<PostResponse> update) {
+        PageCursor key = keys.get(postId);
+        if (key == null) {
+            return;
+        }
+        while (true) {
+            PostResponse current = posts.get(key);
+            if (current == null) {
+                return; // evicted meanwhile
+            }
+            PostResponse updated = update.apply(current);
+            if (updated == null) {
+                if (posts.remove(key, current)) {
+                    keys.remove(postId, key);
+                    size.decrementAndGet();
+                    return;
+                }
+            } else if (posts.replace(key, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // Adds the post and, past capacity, drops the oldest one
+    private void insert(PostResponse post) {
+        PageCursor key = new PageCursor(post.getCreatedAt(), post.getId());
+        if (posts.put(key, post) != null) {
+            return; // already cached, now with this snapshot
+        }
+        keys.put(post.getId(), key);
+        if (size.incrementAndGet() > capacity) {
+            Map.Entry<PageCursor, PostResponse> oldest = posts.pollLastEntry();
+            if (oldest != null) {
+                keys.remove(oldest.getValue().getId(), oldest.getKey());
+                size.decrementAndGet();
+                holdsEverything = false;
+            }
+        }
+    }
+
+    private static Integer plus(Integer value, int delta) {
+        return (value == null ? 0 : value) + delta;
+    }
+}
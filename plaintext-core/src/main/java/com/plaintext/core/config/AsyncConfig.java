@@ -0,0 +1,106 @@
+package com.plaintext.core.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionHandler;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String TIMELINE_EXECUTOR = "timelineExecutor";
+    public static final String RANKING_POOL = "rankingPool";
+    public static final String RANKING_FETCH_EXECUTOR = "rankingFetchExecutor";
+    public static final String SEARCH_INDEX_EXECUTOR = "searchIndexExecutor";
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+    /**
+     * Follower fan-out runs here so createPost returns as soon as the post commits.
+     * When the queue is full the fan-out is dropped and counted, never run on the request
+     * thread; TimelineService's catch-up redoes it within {@code catch-up-interval-ms}.
+     */
+    @Bean(name = TIMELINE_EXECUTOR)
+    public ThreadPoolTaskExecutor timelineExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("timeline-");
+        executor.setRejectedExecutionHandler(dropAndCount(meterRegistry, "plaintext.timeline.fanouts.rejected",
+                "Fan-outs dropped because the timeline queue was full, until the catch-up redoes them"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * New posts are added to the search index here, off the thread that committed them, so a
+     * request never waits for the index's monitor, which a compaction holds for its whole run.
+     * One thread is enough: additions are serialized by the index anyway. Overflow is dropped
+     * and counted as for fan-out, and SearchIndex's catch-up adds those posts later.
+     */
+    @Bean(name = SEARCH_INDEX_EXECUTOR)
+    public ThreadPoolTaskExecutor searchIndexExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("search-index-");
+        executor.setRejectedExecutionHandler(dropAndCount(meterRegistry, "plaintext.search.additions.rejected",
+                "Posts dropped because the search indexing queue was full, until the catch-up adds them"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * The NDJSON exports run here, and only they: PostController hands each one over in a
+     * WebAsyncTask. Each holds a database connection until it finishes, so the pool is kept
+     * well below the connection pool size; exports beyond it wait in the queue rather than
+     * starving regular requests of connections.
+     */
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor(@Value("${plaintext.export.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("export-");
+        return executor;
+    }
+
+    /**
+     * Ranked timeline scoring is pure CPU, so it gets a fork-join pool sized to the cores
+     * rather than threads per request. Callers stop waiting when their latency budget runs out.
+     */
+    @Bean(name = RANKING_POOL, destroyMethod = "shutdown")
+    public ForkJoinPool rankingPool(@Value("${plaintext.ranking.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Ranked timeline queries run here so the request thread can stop waiting for them at its
+     * deadline. They block on JDBC, hence virtual threads. CandidateFetcher caps how many run at
+     * once and has the database cancel an abandoned one at its request's deadline, so they
+     * cannot pile up holding connections.
+     */
+    @Bean(name = RANKING_FETCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService rankingFetchExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ranking-fetch-", 0).factory());
+    }
+
+    // Rejected tasks are dropped rather than run by the submitting request thread
+    static RejectedExecutionHandler dropAndCount(MeterRegistry meterRegistry, String name, String description) {
+        Counter rejected = Counter.builder(name).description(description).register(meterRegistry);
+        return (task, executor) -> rejected.increment();
+    }
+}
@@ -3,6 +3,7 @@ package com.plaintext.core.config;
 import com.plaintext.common.security.CommonAuthEntryPoint;
 import com.plaintext.core.security.AuthTokenFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -37,6 +38,9 @@ public class CoreSecurityConfig {
                 // 4. Route Protection
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/error").permitAll()
+                        // Health checks and the metrics scrape, open on management.server.port only;
+                        // on the public port these paths need a token like everything else
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         // All other API requests require a valid JWT
                         .anyRequest().authenticated())
                 // 5. Exception Handling matches Auth Service
@@ -0,0 +1,24 @@
+package com.plaintext.core.config;
+
+import com.plaintext.core.sql.JdbcTimingListener;
+import com.plaintext.core.sql.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlAccountingConfig {
+
+    /**
+     * Hooks per-request SQL accounting into every session. Both hooks are no-ops on
+     * threads without a {@link com.plaintext.core.sql.SqlStatistics} scope.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlAccountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+        };
+    }
+}
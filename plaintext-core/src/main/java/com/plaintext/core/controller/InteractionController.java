@@ -1,15 +1,19 @@
 package com.plaintext.core.controller;
 
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ContentVersions;
 import com.plaintext.core.dto.CommentRequest;
 import com.plaintext.core.dto.CommentResponse;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.LikeResponse;
 import com.plaintext.core.service.InteractionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,13 +23,13 @@ import java.util.UUID;
 public class InteractionController {
 
     private final InteractionService interactionService;
+    private final ContentVersions contentVersions;
 
     // --- LIKES ---
 
     @PostMapping("/posts/{postId}/like")
-    public ResponseEntity<?> toggleLike(@PathVariable UUID postId, Authentication auth) {
-        interactionService.toggleLike(auth.getName(), postId);
-        return ResponseEntity.ok("Like toggled");
+    public ResponseEntity<LikeResponse> toggleLike(@PathVariable UUID postId, @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(interactionService.toggleLike(user, postId));
     }
 
     // --- COMMENTS ---
@@ -34,26 +38,34 @@ public class InteractionController {
     public ResponseEntity<CommentResponse> addComment(
             @PathVariable UUID postId,
             @Valid @RequestBody CommentRequest request,
-            Authentication auth) {
-        return ResponseEntity.ok(interactionService.addComment(auth.getName(), postId, request));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(interactionService.addComment(user, postId, request));
     }
 
     @GetMapping("/posts/{postId}/comments")
-    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable UUID postId) {
-        return ResponseEntity.ok(interactionService.getComments(postId));
+    public ResponseEntity<CursorPage<CommentResponse>> getComments(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        String etag = contentVersions.commentsTag(postId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return PostController.revalidated(etag, interactionService.getComments(postId, cursor, limit));
     }
 
     // --- FOLLOWS ---
 
     @PostMapping("/users/{username}/follow")
-    public ResponseEntity<?> followUser(@PathVariable String username, Authentication auth) {
-        interactionService.followUser(auth.getName(), username);
+    public ResponseEntity<?> followUser(@PathVariable String username, @AuthenticationPrincipal AuthenticatedUser user) {
+        interactionService.followUser(user, username);
         return ResponseEntity.ok("Followed " + username);
     }
 
     @DeleteMapping("/users/{username}/follow")
-    public ResponseEntity<?> unfollowUser(@PathVariable String username, Authentication auth) {
-        interactionService.unfollowUser(auth.getName(), username);
+    public ResponseEntity<?> unfollowUser(@PathVariable String username, @AuthenticationPrincipal AuthenticatedUser user) {
+        interactionService.unfollowUser(user, username);
         return ResponseEntity.ok("Unfollowed " + username);
     }
 }
\ No newline at end of file
@@ -1,40 +1,116 @@
 package com.plaintext.core.controller;
 
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ContentVersions;
+import com.plaintext.core.config.AsyncConfig;
+import com.plaintext.core.dto.CursorPage;
 import com.plaintext.core.dto.PostRequest;
 import com.plaintext.core.dto.PostResponse;
 import com.plaintext.core.service.PostService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
-@RequiredArgsConstructor
 @RequestMapping("/api")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class PostController {
     private final PostService postService;
+    private final ContentVersions contentVersions;
+    private final AsyncTaskExecutor exportExecutor;
+    private final Duration exportTimeout;
+
+    public PostController(PostService postService,
+                          ContentVersions contentVersions,
+                          @Qualifier(AsyncConfig.EXPORT_EXECUTOR) AsyncTaskExecutor exportExecutor,
+                          @Value("${plaintext.export.timeout:1h}") Duration exportTimeout) {
+        this.postService = postService;
+        this.contentVersions = contentVersions;
+        this.exportExecutor = exportExecutor;
+        this.exportTimeout = exportTimeout;
+    }
 
     @PostMapping("/posts")
     public ResponseEntity<PostResponse> createPost(
             @Valid @RequestBody PostRequest request,
-            Authentication authentication
+            @AuthenticationPrincipal AuthenticatedUser user
             ) {
-        String username = authentication.getName();
-        PostResponse response = postService.createPost(username, request);
+        PostResponse response = postService.createPost(user, request);
         return ResponseEntity.ok(response);
     }
 
+    // Polled endpoints answer If-None-Match from ContentVersions before touching the service.
+    // The tag is read before the data; see ContentVersions for why that order matters.
     @GetMapping("/feed")
-    public ResponseEntity<List<PostResponse>> getGlobalFeed() {
-        return ResponseEntity.ok(postService.getExploreFeed());
+    public ResponseEntity<CursorPage<PostResponse>> getGlobalFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        String etag = contentVersions.feedTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return revalidated(etag, postService.getExploreFeed(cursor, limit));
+    }
+
+    @GetMapping("/feed/trending")
+    public ResponseEntity<List<PostResponse>> getTrendingFeed(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.getTrendingFeed(limit));
     }
 
     @GetMapping("/posts/user/{username}")
-    public ResponseEntity<List<PostResponse>> getUserPosts(@PathVariable String username) {
-        return ResponseEntity.ok(postService.getUserPosts(username));
+    public ResponseEntity<CursorPage<PostResponse>> getUserPosts(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        String etag = contentVersions.authorTag(username);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return revalidated(etag, postService.getUserPosts(username, cursor, limit));
+    }
+
+    // Every post of the user as NDJSON, one object per line, written on the export executor
+    // once the request thread has been released. The executor and the long timeout apply to
+    // this endpoint only. Admission (404, 429) is decided before anything is written.
+    @GetMapping(value = "/posts/user/{username}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportUserPosts(
+            @PathVariable String username,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            HttpServletResponse response) {
+        RateLimiter.Slot slot = postService.admitExport(user, username);
+        WebAsyncTask<Void> export = new WebAsyncTask<>(exportTimeout.toMillis(), exportExecutor, () -> {
+            try (slot) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(username + "-posts.ndjson").build().toString());
+                postService.exportUserPosts(username, response.getOutputStream());
+                return null;
+            }
+        });
+        // Also frees the slot of an export the executor rejected, which never runs
+        export.onCompletion(slot::close);
+        return export;
+    }
+
+    // no-cache rather than the default no-store, so clients keep the body and send If-None-Match
+    static <T> ResponseEntity<T> revalidated(String etag, T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
     }
 }
@@ -0,0 +1,24 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+    private final SearchService searchService;
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<PostResponse>> search(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(q, cursor, limit));
+    }
+}
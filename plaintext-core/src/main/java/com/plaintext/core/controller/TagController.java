@@ -0,0 +1,40 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.dto.TagCountResponse;
+import com.plaintext.core.service.TagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TagController {
+    private final TagService tagService;
+
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountResponse>> getTopTags(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.getTopTags(limit));
+    }
+
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<CursorPage<PostResponse>> getTaggedPosts(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tagService.getTaggedPosts(tag, cursor, limit));
+    }
+
+    @GetMapping("/users/{username}/mentions")
+    public ResponseEntity<CursorPage<PostResponse>> getMentions(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tagService.getMentions(username, cursor, limit));
+    }
+}
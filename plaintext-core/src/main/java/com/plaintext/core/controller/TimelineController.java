@@ -0,0 +1,36 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.common.exception.BadRequestException;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.service.RankedFeedService;
+import com.plaintext.core.service.TimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TimelineController {
+    private static final String LATEST = "latest";
+
+    private final TimelineService timelineService;
+    private final RankedFeedService rankedFeedService;
+
+    @GetMapping("/timeline")
+    public ResponseEntity<CursorPage<PostResponse>> getHomeTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = LATEST) String mode,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return switch (mode) {
+            case LATEST -> ResponseEntity.ok(timelineService.getTimeline(user.id(), cursor, limit));
+            case RankedFeedService.RANKED -> ResponseEntity.ok(rankedFeedService.getRankedTimeline(user, limit));
+            default -> throw new BadRequestException("Unknown timeline mode: " + mode);
+        };
+    }
+}
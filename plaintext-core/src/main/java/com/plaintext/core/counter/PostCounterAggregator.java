@@ -0,0 +1,152 @@
+package com.plaintext.core.counter;
+
+import com.plaintext.core.event.PostCountersFlushedEvent;
+import com.plaintext.core.event.PostEngagementEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind aggregation of posts.comments_count. likes_count does not go through here:
+ * the atomic toggle statement in PostLikeRepository maintains it, so a toggle can return
+ * the exact new count.
+ *
+ * Comments add to per-post LongAdders (striped, so a viral post does not make
+ * threads contend) and a scheduled flush applies the net deltas in one batched
+ * UPDATE. The persisted counters therefore lag by at most one flush interval.
+ * Deltas still pending when the process is killed are lost; a clean shutdown flushes.
+ * Each successful flush publishes a PostCountersFlushedEvent for the ETag versions.
+ */
+@Slf4j
+@Component
+public class PostCounterAggregator {
+    private static final String FLUSH_SQL =
+            "UPDATE posts SET comments_count = comments_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+
+    private final Map<UUID, Deltas> pending = new ConcurrentHashMap<>();
+    // Entries evicted by the previous flush, drained once more to catch late writers
+    private List<Deltas> retired = List.of();
+
+    public PostCounterAggregator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.flushTimer = Timer.builder("plaintext.counters.flush").register(meterRegistry);
+        this.flushedRows = Counter.builder("plaintext.counters.flushed.rows").register(meterRegistry);
+        Gauge.builder("plaintext.counters.tracked.posts", pending, Map::size)
+                .description("Posts with a comment counter entry, including ones idle since the last flush")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onEngagement(PostEngagementEvent event) {
+        if (event.commentsDelta() != 0) {
+            record(event.postId(), event.commentsDelta());
+        }
+    }
+
+    public void record(UUID postId, long commentsDelta) {
+        while (true) {
+            Deltas deltas = pending.computeIfAbsent(postId, Deltas::new);
+            deltas.comments.add(commentsDelta);
+            if (!deltas.retired) {
+                return;
+            }
+            // Raced with eviction: the flusher may or may not see this add, so take it
+            // back (a later drain picks up the net zero) and retry on a live entry.
+            deltas.comments.add(-commentsDelta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.counters.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        // Sorted so concurrent flushers (other instances) lock rows in the same order
+        Map<UUID, Long> totals = new TreeMap<>();
+        retired.forEach(deltas -> deltas.drainInto(totals));
+
+        List<Deltas> evicted = new ArrayList<>();
+        for (Deltas deltas : pending.values()) {
+            if (!deltas.drainInto(totals)) {
+                // Idle for a whole interval: evict so the map only holds active posts
+                deltas.retired = true;
+                pending.remove(deltas.postId, deltas);
+                deltas.drainInto(totals);
+                evicted.add(deltas);
+            }
+        }
+        retired = evicted;
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(totals.size());
+        totals.forEach((postId, comments) -> batch.add(new Object[] { comments, postId }));
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            flushedRows.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Counter flush failed, keeping {} deltas for the next attempt", batch.size(), e);
+            totals.forEach(this::record);
+            return;
+        }
+        eventPublisher.publishEvent(new PostCountersFlushedEvent(totals.keySet()));
+    }
+
+    public int trackedPosts() {
+        return pending.size();
+    }
+
+    private static final class Deltas {
+        final UUID postId;
+        final LongAdder comments = new LongAdder();
+        volatile boolean retired;
+
+        Deltas(UUID postId) {
+            this.postId = postId;
+        }
+
+        /**
+         * @return false if there was nothing to drain
+         */
+        boolean drainInto(Map<UUID, Long> totals) {
+            // sumThenReset swaps each cell to zero atomically, so concurrent adds land
+            // either in this drain or the next one, never in neither
+            long commentsDelta = comments.sumThenReset();
+            if (commentsDelta == 0) {
+                return false;
+            }
+            totals.merge(postId, commentsDelta, Long::sum);
+            return true;
+        }
+    }
+}
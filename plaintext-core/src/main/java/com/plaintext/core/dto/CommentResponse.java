@@ -1,5 +1,6 @@
 package com.plaintext.core.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.util.UUID;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class CommentResponse {
     private UUID id;
     private String text;
@@ -0,0 +1,16 @@
+package com.plaintext.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikeResponse {
+    private UUID postId;
+    private boolean liked;
+    private Integer likesCount;
+}
@@ -1,18 +1,27 @@
 package com.plaintext.core.dto;
 
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.core.util.PageCursor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class PostResponse {
+    // Same order as the (created_at DESC, id DESC) keyset queries
+    public static final Comparator<PostResponse> NEWEST_FIRST = Comparator
+            .comparing(PostResponse::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(PostResponse::getId, (a, b) -> PageCursor.compareIds(b, a));
+
     private UUID id;
     private String content;
     private String imageUrl;
@@ -21,8 +30,26 @@ public class PostResponse {
     private Integer commentsCount;
     private LocalDateTime createdAt;
     private Integer moderationScore;
-    private String moderationStatus;
+    private ModerationStatus moderationStatus;
 
     @Builder.Default
     private boolean isLiked = false;
+
+    /**
+     * Maps a freshly written post. Only used on the write path; reads go through the
+     * PostRepository projections instead.
+     */
+    public static PostResponse from(Post post, String username) {
+        return PostResponse.builder()
+                .id(post.getId())
+                .username(username)
+                .content(post.getContent())
+                .imageUrl(post.getImageUrl())
+                .likesCount(post.getLikesCount())
+                .commentsCount(post.getCommentsCount())
+                .createdAt(post.getCreatedAt())
+                .moderationScore(post.getModerationScore())
+                .moderationStatus(post.getModerationStatus())
+                .build();
+    }
 }
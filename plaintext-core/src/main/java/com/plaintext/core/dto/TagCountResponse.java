@@ -0,0 +1,13 @@
+package com.plaintext.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TagCountResponse {
+    private String tag; // without the #
+    private long count;
+}
@@ -0,0 +1,11 @@
+package com.plaintext.core.event;
+
+import java.util.UUID;
+
+/**
+ * Published by CelebrityRegistry when an author drops back under the celebrity threshold.
+ * Their posts were pulled at read time until now and are in no follower's materialized
+ * timeline, so TimelineService pushes the newest of them to every follower.
+ */
+public record CelebrityDemotedEvent(UUID authorId) {
+}
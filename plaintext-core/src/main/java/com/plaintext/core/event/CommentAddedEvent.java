@@ -0,0 +1,12 @@
+package com.plaintext.core.event;
+
+import com.plaintext.core.dto.CommentResponse;
+
+import java.util.UUID;
+
+/**
+ * Published by InteractionService alongside the PostEngagementEvent for a new comment,
+ * carrying the comment itself for caches that hold comment pages.
+ */
+public record CommentAddedEvent(UUID postId, CommentResponse comment) {
+}
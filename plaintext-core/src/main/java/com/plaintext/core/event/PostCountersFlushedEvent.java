@@ -0,0 +1,11 @@
+package com.plaintext.core.event;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Published by PostCounterAggregator after its deltas reached the posts table,
+ * i.e. once the new counters are visible to readers.
+ */
+public record PostCountersFlushedEvent(Collection<UUID> postIds) {
+}
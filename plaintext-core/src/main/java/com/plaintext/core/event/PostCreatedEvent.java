@@ -0,0 +1,25 @@
+package com.plaintext.core.event;
+
+import com.plaintext.core.dto.PostResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by PostService inside the creating transaction.
+ * Listeners that must only see committed posts use AFTER_COMMIT.
+ *
+ * @param tags the post's hashtags and mentions as TagExtractor found them, so listeners need
+ *             not parse the content again
+ */
+public record PostCreatedEvent(UUID authorId, PostResponse post, List<String> tags) {
+
+    public UUID postId() {
+        return post.getId();
+    }
+
+    public LocalDateTime createdAt() {
+        return post.getCreatedAt();
+    }
+}
@@ -0,0 +1,10 @@
+package com.plaintext.core.event;
+
+import java.util.UUID;
+
+/**
+ * Published by InteractionService when a like or comment changes a post's counters.
+ * The author's username is null when the publisher does not know it without a query.
+ */
+public record PostEngagementEvent(UUID postId, int likesDelta, int commentsDelta, String authorUsername) {
+}
@@ -0,0 +1,16 @@
+package com.plaintext.core.event;
+
+import com.plaintext.common.enums.ModerationStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by ModerationResultPoller for verdicts plaintext-moderation has committed
+ * since the previous poll. Each post is reported once.
+ */
+public record PostsModeratedEvent(List<ModeratedPost> posts) {
+
+    public record ModeratedPost(UUID postId, String authorUsername, ModerationStatus status, int score) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.plaintext.CommentAdd")
+@Label("Comment Add")
+@Category({"Plaintext", "Interaction"})
+@Enabled(false)
+@StackTrace(false)
+public class CommentAddEvent extends OutcomeEvent {
+
+    @Label("Post ID")
+    public String postId;
+
+    @Label("User ID")
+    public String userId;
+
+    @Label("Comment ID")
+    public String commentId;
+
+    @Label("Length")
+    public int length;
+}
@@ -0,0 +1,24 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.plaintext.Export")
+@Label("Post Export")
+@Category({"Plaintext", "Export"})
+@Description("Every post of a user streamed as NDJSON")
+@Enabled(false)
+@StackTrace(false)
+public class ExportEvent extends OutcomeEvent {
+
+    @Label("Username")
+    public String username;
+
+    @Label("Rows")
+    @Description("Posts written before the export ended")
+    public long rows;
+}
@@ -0,0 +1,48 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Building one page of a feed. Disabled unless a recording enables it, e.g. with the bundled jfr/plaintext.jfc.
+ */
+@Name("com.plaintext.FeedAssembly")
+@Label("Feed Assembly")
+@Category({"Plaintext", "Feed"})
+@Description("One page of the explore feed, a user's posts or a home timeline, chronological or ranked")
+@Enabled(false)
+@StackTrace(false)
+public class FeedAssemblyEvent extends OutcomeEvent {
+    public static final String EXPLORE = "explore";
+    public static final String USER = "user";
+    public static final String TIMELINE = "timeline";
+    public static final String RANKED = "ranked";
+
+    @Label("Feed")
+    @Description("explore, user, timeline or ranked")
+    public String feed;
+
+    @Label("Subject")
+    @Description("Username for user feeds, viewer ID for timelines")
+    public String subject;
+
+    @Label("Paged")
+    @Description("Whether a cursor was passed, i.e. this is not the first page")
+    public boolean paged;
+
+    @Label("Source")
+    @Description("cache or database; for ranked timelines, ranked or chronological when the latency budget ran out")
+    public String source;
+
+    @Label("Pulled Authors")
+    @Description("Pull-model authors merged in at read time")
+    public int pulledAuthors;
+
+    @Label("Rows")
+    @Description("Posts read before trimming to the page size")
+    public int rows;
+}
@@ -0,0 +1,34 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.plaintext.Follow")
+@Label("Follow")
+@Category({"Plaintext", "Interaction"})
+@Enabled(false)
+@StackTrace(false)
+public class FollowEvent extends OutcomeEvent {
+
+    @Label("Action")
+    @Description("follow or unfollow")
+    public String action;
+
+    @Label("Follower ID")
+    public String followerId;
+
+    @Label("Following ID")
+    public String followingId;
+
+    @Label("Changed")
+    @Description("False when already following, or not following on unfollow")
+    public boolean changed;
+
+    @Label("Timeline Rows")
+    @Description("Timeline entries backfilled or pruned")
+    public int timelineRows;
+}
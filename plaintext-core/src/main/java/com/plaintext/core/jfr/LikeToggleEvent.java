@@ -0,0 +1,30 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.plaintext.LikeToggle")
+@Label("Like Toggle")
+@Category({"Plaintext", "Interaction"})
+@Enabled(false)
+@StackTrace(false)
+public class LikeToggleEvent extends OutcomeEvent {
+
+    @Label("Post ID")
+    public String postId;
+
+    @Label("User ID")
+    public String userId;
+
+    @Label("Liked")
+    public boolean liked;
+
+    @Label("Rows Changed")
+    public int rows;
+
+    @Label("Likes Count")
+    public long likesCount;
+}
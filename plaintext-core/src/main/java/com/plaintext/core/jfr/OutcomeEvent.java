@@ -0,0 +1,54 @@
+package com.plaintext.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * An event timing one service call, recorded whether the call returns or throws. The call sets
+ * the subclass's fields as it learns them; {@link #time} begins the event, fills in the outcome
+ * and commits it.
+ */
+public abstract class OutcomeEvent extends Event {
+    public static final String OK = "ok";
+
+    @Label("Outcome")
+    @Description("ok, or the simple class name of the exception the call ended with")
+    public String outcome;
+
+    @FunctionalInterface
+    public interface Call<T, X extends Throwable> {
+        T call() throws X;
+    }
+
+    @FunctionalInterface
+    public interface Action<X extends Throwable> {
+        void run() throws X;
+    }
+
+    /**
+     * @return what {@code call} returned, after committing this event if it is recorded
+     */
+    public final <T, X extends Throwable> T time(Call<T, X> call) throws X {
+        begin();
+        Throwable failure = null;
+        try {
+            return call.call();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (shouldCommit()) {
+                outcome = failure == null ? OK : failure.getClass().getSimpleName();
+                commit();
+            }
+        }
+    }
+
+    public final <X extends Throwable> void time(Action<X> action) throws X {
+        time(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.plaintext.core.moderation;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.event.PostsModeratedEvent.ModeratedPost;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Follows the verdicts plaintext-moderation writes to posts.moderated_at, so this instance's
+ * caches and ETags catch up with them: rejected posts leave the explore feed buffer, approved
+ * ones get their new status and score.
+ *
+ * moderated_at is the database clock when the verdict is written, just before the moderating
+ * transaction commits, so a verdict may still become visible after a later one. Each poll
+ * therefore re-reads an overlap window behind the newest verdict seen and skips the posts it
+ * already reported.
+ */
+@Slf4j
+@Component
+public class ModerationResultPoller {
+    static final Duration OVERLAP = Duration.ofSeconds(10);
+    private static final int PAGE_SIZE = 1000;
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    // Keyset on (moderated_at, id), served by idx_posts_moderated_at
+    private static final String POLL_SQL = """
+            SELECT p.id, u.username, p.moderation_status, p.moderation_score, p.moderated_at
+              FROM posts p JOIN users u ON u.id = p.user_id
+             WHERE p.moderated_at > ? OR (p.moderated_at = ? AND p.id > ?)
+             ORDER BY p.moderated_at, p.id
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private LocalDateTime newest;
+    // Posts reported within OVERLAP of the newest verdict, by moderated_at
+    private final Map<UUID, LocalDateTime> reported = new HashMap<>();
+
+    public ModerationResultPoller(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.moderation.poll-interval-ms:1000}")
+    public void scheduledPoll() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Polling moderation results failed, retrying next interval", e);
+        }
+    }
+
+    /**
+     * @return the number of newly reported posts
+     */
+    public synchronized int poll() {
+        if (newest == null) {
+            // Older verdicts were already in the caches' warm-up reads; the overlap window
+            // covers those committed between warm-up and this first poll
+            newest = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        }
+        List<ModeratedPost> fresh = new ArrayList<>();
+        LocalDateTime afterTime = newest.minus(OVERLAP);
+        UUID afterId = MIN_UUID;
+        while (true) {
+            List<Row> page = jdbcTemplate.query(POLL_SQL, (rs, i) -> new Row(
+                            new ModeratedPost(rs.getObject(1, UUID.class), rs.getString(2),
+                                    ModerationStatus.valueOf(rs.getString(3)), rs.getInt(4)),
+                            rs.getTimestamp(5).toLocalDateTime()),
+                    Timestamp.valueOf(afterTime), Timestamp.valueOf(afterTime), afterId, PAGE_SIZE);
+            for (Row row : page) {
+                if (reported.putIfAbsent(row.post().postId(), row.moderatedAt()) == null) {
+                    fresh.add(row.post());
+                }
+                if (row.moderatedAt().isAfter(newest)) {
+                    newest = row.moderatedAt();
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            Row last = page.get(page.size() - 1);
+            afterTime = last.moderatedAt();
+            afterId = last.post().postId();
+        }
+        LocalDateTime forgetBefore = newest.minus(OVERLAP);
+        reported.values().removeIf(moderatedAt -> moderatedAt.isBefore(forgetBefore));
+
+        if (!fresh.isEmpty()) {
+            eventPublisher.publishEvent(new PostsModeratedEvent(fresh));
+        }
+        return fresh.size();
+    }
+
+    private record Row(ModeratedPost post, LocalDateTime moderatedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.plaintext.core.ranking;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What one viewer is known to care about, by author username: the authors they follow, and
+ * their recent interactions with each author's posts (likes, plus comments weighted by
+ * {@code plaintext.ranking.comment-weight}).
+ */
+public record Affinity(Set<String> followed, Map<String, Double> interactions) {
+
+    public static final Affinity NONE = new Affinity(Set.of(), Map.of());
+
+    public boolean follows(String username) {
+        return followed.contains(username);
+    }
+
+    public double interactionsWith(String username) {
+        return interactions.getOrDefault(username, 0.0);
+    }
+}
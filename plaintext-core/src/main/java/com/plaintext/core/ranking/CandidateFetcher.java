@@ -0,0 +1,113 @@
+package com.plaintext.core.ranking;
+
+import com.plaintext.core.config.AsyncConfig;
+import com.plaintext.core.sql.StatementTimeout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the ranked timeline's candidate queries on the fetch executor, so a request can stop
+ * waiting for them at its deadline without leaving them to drain the connection pool.
+ *
+ * Each query runs in a read-only transaction whose statement timeout is the budget left when
+ * it starts, so the database cancels a query its request has given up on at the same deadline.
+ * At most {@code max-fetches} queries run at once across all requests, abandoned ones included
+ * until they end; when none is free the source is skipped, as if it had missed the deadline.
+ */
+@Component
+public class CandidateFetcher {
+    private final ExecutorService executor;
+    private final TransactionTemplate transaction;
+    private final StatementTimeout statementTimeout;
+    private final Semaphore permits;
+    private final int maxFetches;
+    private final Counter skipped;
+
+    public CandidateFetcher(@Qualifier(AsyncConfig.RANKING_FETCH_EXECUTOR) ExecutorService executor,
+                            PlatformTransactionManager transactionManager,
+                            StatementTimeout statementTimeout,
+                            MeterRegistry meterRegistry,
+                            @Value("${plaintext.ranking.max-fetches:4}") int maxFetches) {
+        this.executor = executor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setReadOnly(true);
+        this.statementTimeout = statementTimeout;
+        this.permits = new Semaphore(maxFetches);
+        this.maxFetches = maxFetches;
+        this.skipped = Counter.builder("plaintext.ranking.fetches.skipped")
+                .description("Ranked timeline sources skipped because max-fetches queries were already running")
+                .register(meterRegistry);
+        Gauge.builder("plaintext.ranking.fetches.running", this, CandidateFetcher::running)
+                .description("Ranked timeline candidate queries running, including those no request waits for")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the query and waits for it until the deadline.
+     *
+     * @return its result, or empty when the deadline passed first or no query slot was free
+     */
+    public <T> Optional<T> fetch(Supplier<T> query, long deadline) {
+        if (expired(deadline)) {
+            return Optional.empty();
+        }
+        if (!permits.tryAcquire()) {
+            skipped.increment();
+            return Optional.empty();
+        }
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                try {
+                    return transaction.execute(status -> {
+                        statementTimeout.apply(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                        return query.get();
+                    });
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        // Not cancelled when abandoned: the statement timeout ends the query on the server, while
+        // interrupting a virtual thread blocked on its socket would close the pooled connection
+        try {
+            return Optional.ofNullable(result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Reading ranked timeline candidates failed", e.getCause());
+        }
+    }
+
+    int running() {
+        return maxFetches - permits.availablePermits();
+    }
+
+    private static boolean expired(long deadline) {
+        return deadline - System.nanoTime() <= 0;
+    }
+}
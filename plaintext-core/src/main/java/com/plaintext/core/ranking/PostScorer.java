@@ -0,0 +1,51 @@
+package com.plaintext.core.ranking;
+
+import com.plaintext.core.dto.PostResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Scores a candidate of a viewer's ranked timeline as recency × engagement × affinity.
+ *
+ * Recency halves every {@code recency-half-life}. Engagement and affinity grow with the log
+ * of their counts, so a post with ten times the likes, or an author the viewer interacted
+ * with ten times as often, ranks higher without burying everything else. Following the
+ * author multiplies affinity by a fixed amount. Stateless, so scoring can run on any thread.
+ */
+@Component
+public class PostScorer {
+    private final double decayPerSecond;
+    private final double commentWeight;
+    private final double followWeight;
+    private final double interactionWeight;
+
+    public PostScorer(@Value("${plaintext.ranking.recency-half-life:12h}") Duration recencyHalfLife,
+                      @Value("${plaintext.ranking.comment-weight:3.0}") double commentWeight,
+                      @Value("${plaintext.ranking.follow-weight:1.0}") double followWeight,
+                      @Value("${plaintext.ranking.interaction-weight:0.5}") double interactionWeight) {
+        this.decayPerSecond = Math.log(2) / recencyHalfLife.toSeconds();
+        this.commentWeight = commentWeight;
+        this.followWeight = followWeight;
+        this.interactionWeight = interactionWeight;
+    }
+
+    public double score(PostResponse post, Affinity affinity, LocalDateTime now) {
+        double age = Math.max(0, Duration.between(post.getCreatedAt(), now).toMillis() / 1000.0);
+        double recency = Math.exp(-decayPerSecond * age);
+        double engagement = 1 + Math.log1p(count(post.getLikesCount()) + commentWeight * count(post.getCommentsCount()));
+        double author = 1 + interactionWeight * Math.log1p(affinity.interactionsWith(post.getUsername()))
+                + (affinity.follows(post.getUsername()) ? followWeight : 0);
+        return recency * engagement * author;
+    }
+
+    public double commentWeight() {
+        return commentWeight;
+    }
+
+    private static int count(Integer value) {
+        return value == null ? 0 : Math.max(0, value);
+    }
+}
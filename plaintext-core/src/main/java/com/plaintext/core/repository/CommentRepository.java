@@ -1,13 +1,42 @@
 package com.plaintext.core.repository;
 
 import com.plaintext.common.model.Comment;
+import com.plaintext.core.dto.CommentResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
-    List<Comment> findByPostIdOrderByCreatedAtAsc(UUID postId);
+
+    String COMMENT_RESPONSE = "new com.plaintext.core.dto.CommentResponse(c.id, c.content, u.username, c.createdAt)";
+
+    // Joined DTO projections, oldest first: the author's username comes back in the same row
+    @Query("SELECT " + COMMENT_RESPONSE + """
+             FROM Comment c JOIN c.user u
+            WHERE c.post.id = :postId
+            ORDER BY c.createdAt ASC, c.id ASC
+            """)
+    List<CommentResponse> findPageByPostId(UUID postId, Limit limit);
+
+    @Query("SELECT " + COMMENT_RESPONSE + """
+             FROM Comment c JOIN c.user u
+            WHERE c.post.id = :postId
+              AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id))
+            ORDER BY c.createdAt ASC, c.id ASC
+            """)
+    List<CommentResponse> findPageByPostIdAfter(UUID postId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Author of each post the user commented on, newest comment first: the ranked feed's affinity signal
+    @Query("""
+            SELECT u.username FROM Comment c JOIN c.post p JOIN p.user u
+            WHERE c.user.id = :userId
+            ORDER BY c.createdAt DESC
+            """)
+    List<String> findCommentedAuthors(UUID userId, Limit limit);
 }
@@ -3,16 +3,26 @@ package com.plaintext.core.repository;
 import com.plaintext.common.model.Follow;
 import com.plaintext.common.model.FollowId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface FollowRepository extends JpaRepository<Follow, FollowId> {
     boolean existsByFollowerIdAndFollowingId(UUID followerId, UUID followingId);
-    void deleteByFollowerIdAndFollowingId(UUID followerId, UUID followingId);
+    long deleteByFollowerIdAndFollowingId(UUID followerId, UUID followingId);
 
     // Count for profile stats
     long countByFollowingId(UUID userId); // How many followers I have
     long countByFollowerId(UUID userId); // How many people I follow
+
+    // Hybrid timeline: authors whose follower count makes fan-out-on-write too expensive
+    @Query("SELECT f.following.id FROM Follow f GROUP BY f.following.id HAVING COUNT(f) >= :threshold")
+    List<UUID> findFollowingIdsWithAtLeast(long threshold);
+
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.following.id IN :candidates")
+    List<UUID> findFollowingIdsAmong(UUID followerId, Collection<UUID> candidates);
 }
\ No newline at end of file
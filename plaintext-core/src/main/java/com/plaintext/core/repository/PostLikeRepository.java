@@ -2,14 +2,25 @@ package com.plaintext.core.repository;
 
 import com.plaintext.common.model.PostLike;
 import com.plaintext.common.model.PostLikeId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId> {
+public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId>, PostLikeToggleRepository {
     boolean existsByUserIdAndPostId(UUID userId, UUID postId);
 
     void deleteByUserIdAndPostId(UUID userId, UUID postId);
+
+    // Author of each post the user liked, newest like first: the ranked feed's affinity signal
+    @Query("""
+            SELECT u.username FROM PostLike l JOIN l.post p JOIN p.user u
+            WHERE l.user.id = :userId
+            ORDER BY l.createdAt DESC
+            """)
+    List<String> findLikedAuthors(UUID userId, Limit limit);
 }
@@ -0,0 +1,24 @@
+package com.plaintext.core.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The atomic like toggle, kept out of the derived queries of PostLikeRepository because it
+ * both modifies rows and returns them.
+ */
+public interface PostLikeToggleRepository {
+
+    /**
+     * Likes the post if the user has not liked it yet, otherwise removes the like,
+     * and moves posts.likes_count by the same amount, all in one statement.
+     * Empty when the post does not exist.
+     */
+    Optional<LikeToggle> toggle(UUID userId, UUID postId);
+
+    /**
+     * @param delta +1, -1, or 0 when a concurrent toggle by the same user won the race
+     */
+    record LikeToggle(boolean liked, int likesCount, int delta, String authorUsername) {
+    }
+}
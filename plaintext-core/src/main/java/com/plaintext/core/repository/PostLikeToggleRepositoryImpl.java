@@ -0,0 +1,59 @@
+package com.plaintext.core.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs the toggle as a native query and then does what @Modifying(flushAutomatically = true,
+ * clearAutomatically = true) would, which Spring Data only allows on queries returning an
+ * update count: pending changes are flushed before the statement, and the persistence context
+ * is cleared after it, so a Post or PostLike loaded earlier in the transaction is not read stale.
+ */
+class PostLikeToggleRepositoryImpl implements PostLikeToggleRepository {
+    private static final String TOGGLE_SQL = """
+            WITH removed AS (
+                DELETE FROM post_likes WHERE user_id = :userId AND post_id = :postId
+                RETURNING post_id
+            ), added AS (
+                INSERT INTO post_likes (user_id, post_id, created_at)
+                SELECT :userId, :postId, now()
+                WHERE NOT EXISTS (SELECT 1 FROM removed)
+                  AND EXISTS (SELECT 1 FROM posts WHERE id = :postId)
+                ON CONFLICT DO NOTHING
+                RETURNING post_id
+            )
+            UPDATE posts
+            SET likes_count = COALESCE(likes_count, 0) + (SELECT count(*) FROM added) - (SELECT count(*) FROM removed)
+            WHERE id = :postId
+            RETURNING EXISTS (SELECT 1 FROM added) AS "liked",
+                      likes_count AS "likesCount",
+                      (SELECT count(*) FROM added) - (SELECT count(*) FROM removed) AS "delta",
+                      (SELECT username FROM users WHERE id = posts.user_id) AS "authorUsername"
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<LikeToggle> toggle(UUID userId, UUID postId) {
+        entityManager.flush();
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery(TOGGLE_SQL, Tuple.class)
+                .setParameter("userId", userId)
+                .setParameter("postId", postId)
+                .getResultList();
+        entityManager.clear();
+        return rows.stream().findFirst().map(row -> new LikeToggle(
+                row.get("liked", Boolean.class),
+                ((Number) row.get("likesCount")).intValue(),
+                ((Number) row.get("delta")).intValue(),
+                row.get("authorUsername", String.class)));
+    }
+}
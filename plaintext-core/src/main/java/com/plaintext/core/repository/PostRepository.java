@@ -1,16 +1,131 @@
 package com.plaintext.core.repository;
 
 import com.plaintext.common.model.Post;
-import com.plaintext.common.model.User;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.search.SearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
-    List<Post> findAllByOrderByCreatedAtDesc();
-    List<Post> findByUserUsernameOrderByCreatedAtDesc(String username);
-    Post findTopByUserOrderByCreatedAtDesc(User user);
+    // Rows per round trip when streaming; also the most a stream holds in memory at once
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Read-path projection: one joined SELECT straight into the DTO, so the author
+    // is never lazily loaded and nothing is attached to the persistence context.
+    String POST_RESPONSE = """
+            new com.plaintext.core.dto.PostResponse(
+                p.id, p.content, p.imageUrl, u.username, p.likesCount, p.commentsCount,
+                p.createdAt, p.moderationScore, p.moderationStatus, false)
+            """;
+
+    // Keyset pagination on (created_at, id): the id breaks ties between posts
+    // created in the same instant, so pages never skip or repeat rows.
+    // Every read skips the hidden statuses (REJECTED); PENDING posts are shown until moderation
+    // decides. The statuses are bound as a parameter from ModerationStatus.HIDDEN.
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatest(Limit limit);
+
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+              AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatestBefore(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE u.username = :username AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatestByUsername(String username, Limit limit);
+
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE u.username = :username AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatestByUsernameBefore(String username, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Hydrates a page of search hits; the caller restores the ranking order
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE p.id IN :ids AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            """)
+    List<PostResponse> findResponsesByIds(Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT u.username FROM Post p JOIN p.user u WHERE p.id IN :postIds")
+    List<String> findAuthorUsernames(Collection<UUID> postIds);
+
+    // Forward-only cursor over every post of a user, newest first. Must be consumed inside a
+    // transaction: PostgreSQL only honours the fetch size with autocommit off, and reads the
+    // whole result into memory otherwise.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE u.username = :username AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    Stream<PostResponse> streamByUsername(String username);
+
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE u.id = :authorId AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatestByAuthor(UUID authorId, Limit limit);
+
+    @Query("SELECT " + POST_RESPONSE + """
+             FROM Post p JOIN p.user u
+            WHERE u.id = :authorId AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostResponse> findLatestByAuthorBefore(UUID authorId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Every visible post for the search index, in no particular order so the scan needs no
+    // sort. Same transaction requirement as streamByUsername.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.plaintext.core.search.SearchDocument(p.id, p.content, p.createdAt)
+              FROM Post p
+             WHERE p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            """)
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Visible posts created in [from, to), for the search index's catch-up
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.plaintext.core.search.SearchDocument(p.id, p.content, p.createdAt)
+              FROM Post p
+             WHERE p.createdAt >= :from AND p.createdAt < :to
+               AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            """)
+    Stream<SearchDocument> streamSearchDocumentsCreatedBetween(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,37 @@
+package com.plaintext.core.repository;
+
+import com.plaintext.common.model.PostTag;
+import com.plaintext.common.model.PostTagId;
+import com.plaintext.core.dto.PostResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PostTagRepository extends JpaRepository<PostTag, PostTagId> {
+
+    // Walks idx_post_tags_tag_created_at_post backwards from the cursor and looks up each
+    // post by primary key until the page is full, so a page costs the same for a tag used
+    // ten times or ten million.
+    @Query("SELECT " + PostRepository.POST_RESPONSE + """
+             FROM PostTag t JOIN Post p ON p.id = t.postId JOIN p.user u
+            WHERE t.tag = :tag AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY t.createdAt DESC, t.postId DESC
+            """)
+    List<PostResponse> findPage(String tag, Limit limit);
+
+    // The redundant createdAt <= bound is what the index can seek to; Postgres only applies
+    // the OR as a filter, which on its own would scan every newer entry of the tag first.
+    @Query("SELECT " + PostRepository.POST_RESPONSE + """
+             FROM PostTag t JOIN Post p ON p.id = t.postId JOIN p.user u
+            WHERE t.tag = :tag AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN} AND t.createdAt <= :createdAt
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.postId < :postId))
+            ORDER BY t.createdAt DESC, t.postId DESC
+            """)
+    List<PostResponse> findPageBefore(String tag, LocalDateTime createdAt, UUID postId, Limit limit);
+}
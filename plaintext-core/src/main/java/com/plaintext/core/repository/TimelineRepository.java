@@ -0,0 +1,100 @@
+package com.plaintext.core.repository;
+
+import com.plaintext.common.model.TimelineEntry;
+import com.plaintext.common.model.TimelineEntryId;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.service.MissedFanOut;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    // Push a new post into the author's own timeline and every follower's, in one statement.
+    // The casts are needed because Postgres types untyped parameters in a UNION as text,
+    // and H2 (the test database, in PostgreSQL mode) cannot type them at all.
+    @Modifying
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, post_id, author_id, created_at)
+            SELECT f.follower_id, CAST(:postId AS uuid), CAST(:authorId AS uuid), CAST(:createdAt AS timestamp)
+            FROM follows f
+            WHERE f.following_id = :authorId
+            UNION ALL
+            SELECT CAST(:authorId AS uuid), CAST(:postId AS uuid), CAST(:authorId AS uuid), CAST(:createdAt AS timestamp)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int fanOut(UUID postId, UUID authorId, LocalDateTime createdAt);
+
+    // Pull-model authors only get the post in their own timeline
+    @Modifying
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, post_id, author_id, created_at)
+            VALUES (:authorId, :postId, :authorId, :createdAt)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertOwn(UUID postId, UUID authorId, LocalDateTime createdAt);
+
+    // Copy the newest posts of a freshly followed author into the follower's timeline
+    @Modifying
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, post_id, author_id, created_at)
+            SELECT :userId, p.id, p.user_id, p.created_at FROM posts p
+            WHERE p.user_id = :authorId
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int backfill(UUID userId, UUID authorId, int limit);
+
+    // Push the newest posts of an author who stopped being pulled into every follower's timeline
+    @Modifying
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, post_id, author_id, created_at)
+            SELECT f.follower_id, p.id, p.user_id, p.created_at
+            FROM follows f
+            CROSS JOIN (SELECT id, user_id, created_at FROM posts
+                        WHERE user_id = :authorId
+                        ORDER BY created_at DESC, id DESC
+                        LIMIT :limit) p
+            WHERE f.following_id = :authorId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int backfillFollowers(UUID authorId, int limit);
+
+    // Posts created in [from, to) that are missing from their author's own timeline: fanOut and
+    // insertOwn write that row, so their fan-out never ran
+    @Query("""
+            SELECT new com.plaintext.core.service.MissedFanOut(p.id, p.user.id, p.createdAt)
+              FROM Post p
+             WHERE p.createdAt >= :from AND p.createdAt < :to
+               AND NOT EXISTS (SELECT 1 FROM TimelineEntry t WHERE t.userId = p.user.id AND t.postId = p.id)
+             ORDER BY p.createdAt
+            """)
+    List<MissedFanOut> findMissedFanOuts(LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int prune(UUID userId, UUID authorId);
+
+    @Query("SELECT " + PostRepository.POST_RESPONSE + """
+             FROM TimelineEntry t JOIN Post p ON p.id = t.postId JOIN p.user u
+            WHERE t.userId = :userId AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+            ORDER BY t.createdAt DESC, t.postId DESC
+            """)
+    List<PostResponse> findPage(UUID userId, Limit limit);
+
+    @Query("SELECT " + PostRepository.POST_RESPONSE + """
+             FROM TimelineEntry t JOIN Post p ON p.id = t.postId JOIN p.user u
+            WHERE t.userId = :userId AND p.moderationStatus NOT IN :#{T(com.plaintext.common.enums.ModerationStatus).HIDDEN}
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.postId < :postId))
+            ORDER BY t.createdAt DESC, t.postId DESC
+            """)
+    List<PostResponse> findPageBefore(UUID userId, LocalDateTime createdAt, UUID postId, Limit limit);
+}
@@ -0,0 +1,152 @@
+package com.plaintext.core.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * Per-document columns of the search index, addressed by doc number: the post id, its creation
+ * time and its length in tokens. Doc numbers are handed out in insertion order; removed posts keep
+ * their number and are flagged, so removing never rewrites posting lists. {@link #compact} drops
+ * them once enough have piled up, renumbering the rest in their original order.
+ *
+ * Ids are held as two long columns and looked up through an open-addressing table of doc
+ * numbers, which keeps a million posts to roughly 40 MB instead of a map of boxed UUIDs.
+ * Not thread-safe: SearchIndex serializes writers against readers.
+ */
+final class DocumentStore {
+    private static final int EMPTY = -1;
+
+    private long[] idHigh = new long[1024];
+    private long[] idLow = new long[1024];
+    private long[] createdAt = new long[1024]; // epoch seconds
+    private int[] lengths = new int[1024];
+    private final BitSet removed = new BitSet();
+    private int size;
+    private int live;
+    private long totalLength;
+
+    private int[] table = emptyTable(2048);
+
+    /** Appends a document and returns its doc number. The id must not be present yet. */
+    int add(UUID id, long createdAtSeconds, int length) {
+        if (size == idHigh.length) {
+            int grown = size * 2;
+            idHigh = Arrays.copyOf(idHigh, grown);
+            idLow = Arrays.copyOf(idLow, grown);
+            createdAt = Arrays.copyOf(createdAt, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+        int doc = size++;
+        idHigh[doc] = id.getMostSignificantBits();
+        idLow[doc] = id.getLeastSignificantBits();
+        createdAt[doc] = createdAtSeconds;
+        lengths[doc] = length;
+        live++;
+        totalLength += length;
+        // Kept at most half full so probe chains stay short
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(doc);
+        }
+        return doc;
+    }
+
+    /** @return the doc number of the post, or -1 if it was never added */
+    int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int mask = table.length - 1;
+        for (int slot = hash(high, low) & mask; ; slot = (slot + 1) & mask) {
+            int doc = table[slot];
+            if (doc == EMPTY || (idHigh[doc] == high && idLow[doc] == low)) {
+                return doc;
+            }
+        }
+    }
+
+    /** Flags the doc so searches skip it; its postings stay in place. */
+    void remove(int doc) {
+        if (!removed.get(doc)) {
+            removed.set(doc);
+            live--;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    boolean isRemoved(int doc) {
+        return removed.get(doc);
+    }
+
+    UUID id(int doc) {
+        return new UUID(idHigh[doc], idLow[doc]);
+    }
+
+    long createdAt(int doc) {
+        return createdAt[doc];
+    }
+
+    int length(int doc) {
+        return lengths[doc];
+    }
+
+    /** Docs ever added, including removed ones; the next doc number. */
+    int size() {
+        return size;
+    }
+
+    /** Docs removed but still taking up their number, until the next compaction. */
+    int removed() {
+        return size - live;
+    }
+
+    /** Docs not removed, the N in BM25's idf. */
+    int live() {
+        return live;
+    }
+
+    double averageLength() {
+        return live == 0 ? 0 : (double) totalLength / live;
+    }
+
+    /**
+     * A copy without the removed docs. Fills {@code docs}, sized to {@link #size()}, with the
+     * new number of every doc, or -1 for removed ones.
+     */
+    DocumentStore compact(int[] docs) {
+        DocumentStore compacted = new DocumentStore();
+        for (int doc = 0; doc < size; doc++) {
+            docs[doc] = removed.get(doc) ? -1 : compacted.add(id(doc), createdAt[doc], lengths[doc]);
+        }
+        return compacted;
+    }
+
+    private void rehash(int capacity) {
+        table = emptyTable(capacity);
+        for (int doc = 0; doc < size; doc++) {
+            insert(doc);
+        }
+    }
+
+    private void insert(int doc) {
+        int mask = table.length - 1;
+        int slot = hash(idHigh[doc], idLow[doc]) & mask;
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = doc;
+    }
+
+    // Random UUIDs are already well mixed; the multiply spreads the bits of any that are not
+    private static int hash(long high, long low) {
+        long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int[] emptyTable(int capacity) {
+        int[] empty = new int[capacity];
+        Arrays.fill(empty, EMPTY);
+        return empty;
+    }
+}
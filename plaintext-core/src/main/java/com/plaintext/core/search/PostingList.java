@@ -0,0 +1,182 @@
+package com.plaintext.core.search;
+
+import java.util.Arrays;
+
+/**
+ * Documents containing one term, in ascending doc order, with the term's frequency in each.
+ *
+ * Postings are packed into a byte array as varint pairs (doc gap, frequency), so a posting
+ * for a common word usually takes two bytes. Every {@link #SKIP_INTERVAL} postings a skip entry
+ * records the byte offset of the next block and the doc just before it, which lets
+ * {@link Cursor#advance(int)} jump over whole blocks while intersecting with a rarer term.
+ *
+ * Appends only; docs must be added in increasing order, and removed docs are only dropped by
+ * rewriting the list with {@link #compact}. Not thread-safe: SearchIndex serializes writers
+ * against readers.
+ */
+final class PostingList {
+    static final int SKIP_INTERVAL = 64;
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+    private static final int[] NO_SKIPS = new int[0];
+
+    private byte[] bytes = new byte[8];
+    private int size;
+    private int count;
+    private int lastDoc = -1;
+    // Entry i covers block i + 1: the doc preceding it and the offset of its first posting
+    private int[] skipDocs = NO_SKIPS;
+    private int[] skipOffsets = NO_SKIPS;
+    private int skips;
+
+    void add(int doc, int frequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc " + doc + " is not after " + lastDoc);
+        }
+        if (count > 0 && count % SKIP_INTERVAL == 0) {
+            if (skips == skipDocs.length) {
+                int grown = Math.max(4, skips * 2);
+                skipDocs = Arrays.copyOf(skipDocs, grown);
+                skipOffsets = Arrays.copyOf(skipOffsets, grown);
+            }
+            skipDocs[skips] = lastDoc;
+            skipOffsets[skips] = size;
+            skips++;
+        }
+        // Ten bytes is the worst case for two ints
+        if (size + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 10));
+        }
+        writeVarint(doc - lastDoc);
+        writeVarint(frequency);
+        lastDoc = doc;
+        count++;
+    }
+
+    /** Number of documents containing the term. */
+    int documentFrequency() {
+        return count;
+    }
+
+    Cursor cursor() {
+        return new Cursor(this);
+    }
+
+    /**
+     * A copy holding only the postings of docs still present, renumbered through {@code docs}:
+     * the new number of each old doc, or -1 for a removed one. Renumbering must keep doc order.
+     */
+    PostingList compact(int[] docs) {
+        PostingList compacted = new PostingList();
+        Cursor cursor = cursor();
+        for (int doc = cursor.next(); doc != NO_MORE_DOCS; doc = cursor.next()) {
+            if (docs[doc] >= 0) {
+                compacted.add(docs[doc], cursor.frequency());
+            }
+        }
+        return compacted;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator over the postings present when it was created; later appends are
+     * not seen. Starts before the first posting.
+     */
+    static final class Cursor {
+        private final byte[] bytes;
+        private final int count;
+        private final int[] skipDocs;
+        private final int[] skipOffsets;
+        private final int skips;
+
+        private int offset;
+        private int read;
+        private int doc = -1;
+        private int frequency;
+
+        private Cursor(PostingList list) {
+            this.bytes = list.bytes;
+            this.count = list.count;
+            this.skipDocs = list.skipDocs;
+            this.skipOffsets = list.skipOffsets;
+            this.skips = list.skips;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        int documentFrequency() {
+            return count;
+        }
+
+        /** Moves to the next posting; returns its doc, or {@link #NO_MORE_DOCS}. */
+        int next() {
+            if (read == count) {
+                return doc = NO_MORE_DOCS;
+            }
+            doc += readVarint();
+            frequency = readVarint();
+            read++;
+            return doc;
+        }
+
+        /**
+         * Moves to the first posting at or after {@code target}, skipping whole blocks whose
+         * docs all precede it. Returns that doc, or {@link #NO_MORE_DOCS}.
+         */
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            // The first skip entry at or after target, among those for blocks after the current
+            // one: gallop ahead in growing steps, then binary search the last step
+            int low = read / SKIP_INTERVAL;
+            int block = low;
+            int step = 1;
+            while (low + step - 1 < skips && skipDocs[low + step - 1] < target) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step - 1, skips);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (skipDocs[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low > block) {
+                offset = skipOffsets[low - 1];
+                doc = skipDocs[low - 1];
+                read = low * SKIP_INTERVAL;
+            }
+            while (doc < target) {
+                next();
+            }
+            return doc;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[offset++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.plaintext.core.search;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** The columns of a post the search index is built from. */
+public record SearchDocument(UUID id, String content, LocalDateTime createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.plaintext.core.search;
+
+import java.util.UUID;
+
+/** A ranked match: the post and the score it was ordered by. */
+public record SearchHit(UUID postId, double score) {
+}
@@ -0,0 +1,433 @@
+package com.plaintext.core.search;
+
+import com.plaintext.common.moderation.TermMatcher;
+import com.plaintext.core.config.AsyncConfig;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.util.PageCursor;
+import com.plaintext.core.util.SearchCursor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over post content, answering searches without the database.
+ *
+ * Every query term must match. Terms are intersected rarest first, with the others skipping
+ * ahead through their posting lists, and matches are ranked by BM25 times a recency boost
+ * that halves every {@code recency-half-life}. New posts are added on the indexing thread once
+ * they commit, rejected ones are dropped when their verdict arrives, and the whole index is
+ * streamed back from the database after a restart; searches answer from whatever has been
+ * loaded so far. Posts the indexing thread never got, because its queue was full, are added by
+ * a periodic catch-up.
+ *
+ * Writers are serialized on the index's monitor and take the write lock only while they change
+ * it; queries over even the most common terms hold the read lock for milliseconds. Removed posts
+ * stay in the posting lists as tombstones until they are a fifth of all docs; the lists are then
+ * rewritten without them while searches go on, and swapped in under the write lock.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+    public static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_TERM_LENGTH = 64;
+    // The usual BM25 constants: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double COMPACT_RATIO = 0.2;
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double recencyWeight;
+    private final double decayPerSecond;
+    private final Duration catchUpInterval;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Replaced whole by compaction, under the write lock
+    private Map<String, PostingList> postings = new HashMap<>();
+    private DocumentStore documents = new DocumentStore();
+    // Posts created before this are indexed by the startup load or a catch-up
+    private LocalDateTime caughtUpTo = LocalDateTime.now();
+
+    public SearchIndex(PostRepository postRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${plaintext.search.recency-weight:1.0}") double recencyWeight,
+                       @Value("${plaintext.search.recency-half-life:7d}") Duration recencyHalfLife,
+                       @Value("${plaintext.search.catch-up-interval-ms:60000}") long catchUpIntervalMs) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.recencyWeight = recencyWeight;
+        this.decayPerSecond = Math.log(2) / recencyHalfLife.toSeconds();
+        this.catchUpInterval = Duration.ofMillis(catchUpIntervalMs);
+
+        Gauge.builder("plaintext.search.documents", () -> read(() -> documents.live()))
+                .description("Posts in the search index")
+                .register(meterRegistry);
+        Gauge.builder("plaintext.search.removed", () -> read(() -> documents.removed()))
+                .description("Removed posts still in the search index until its next compaction")
+                .register(meterRegistry);
+        Gauge.builder("plaintext.search.terms", () -> read(() -> postings.size()))
+                .description("Distinct terms in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the index off the startup path: the web server starts serving at once and searches
+     * see a growing index until the load completes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofPlatform().name("search-index-load").daemon().start(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.error("Loading the search index failed; only posts created since startup are searchable", e);
+            }
+        });
+    }
+
+    /**
+     * Streams every visible post from the database into the index, skipping those already in
+     * it, so running it again or alongside new posts is harmless. Holds one connection until done.
+     *
+     * @return the number of posts added
+     */
+    public int load() {
+        long started = System.nanoTime();
+        Integer added = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<SearchDocument> rows = postRepository.streamSearchDocuments()) {
+                for (SearchDocument row : (Iterable<SearchDocument>) rows::iterator) {
+                    if (add(row.id(), row.content(), row.createdAt())) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        log.info("Search index loaded {} posts in {} ms", added,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return added;
+    }
+
+    @Async(AsyncConfig.SEARCH_INDEX_EXECUTOR)
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        add(event.postId(), event.post().getContent(), event.createdAt());
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.search.catch-up-interval-ms:60000}",
+            initialDelayString = "${plaintext.search.catch-up-interval-ms:60000}")
+    public void scheduledCatchUp() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            log.warn("Search index catch-up failed, retrying next interval", e);
+        }
+    }
+
+    /**
+     * Adds the visible posts created since the last run that are not indexed: those the indexing
+     * executor dropped because its queue was full. Posts younger than one interval are left to
+     * the addition that may still be queued for them.
+     *
+     * @return the number of posts added
+     */
+    public int catchUp() {
+        LocalDateTime from = caughtUpTo;
+        LocalDateTime to = LocalDateTime.now().minus(catchUpInterval);
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+        Integer added = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<SearchDocument> rows = postRepository.streamSearchDocumentsCreatedBetween(from, to)) {
+                for (SearchDocument row : (Iterable<SearchDocument>) rows::iterator) {
+                    if (add(row.id(), row.content(), row.createdAt())) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        caughtUpTo = to;
+        if (added > 0) {
+            log.warn("Search index caught up on {} posts its indexing thread never got", added);
+        }
+        return added;
+    }
+
+    /**
+     * A verdict racing the startup load can leave a rejected post indexed; it is still never
+     * shown, because hydration filters rejected posts out as every other read does.
+     */
+    @EventListener
+    public synchronized void onModerated(PostsModeratedEvent event) {
+        for (PostsModeratedEvent.ModeratedPost post : event.posts()) {
+            if (post.status().isHidden()) {
+                remove(post.postId());
+            }
+        }
+        if (documents.removed() > documents.size() * COMPACT_RATIO) {
+            compact();
+        }
+    }
+
+    /**
+     * @return false if the post was already indexed
+     */
+    public synchronized boolean add(UUID postId, String content, LocalDateTime createdAt) {
+        // Only writers change the documents, and they hold the monitor
+        if (documents.find(postId) >= 0) {
+            return false;
+        }
+        List<String> tokens = tokenize(content);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            int doc = documents.add(postId, epochSeconds(createdAt), tokens.size());
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new PostingList()).add(doc, term.getValue());
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(UUID postId) {
+        lock.writeLock().lock();
+        try {
+            int doc = documents.find(postId);
+            if (doc >= 0) {
+                documents.remove(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the posting lists and the document store without the removed docs. Other writers
+     * wait on the monitor meanwhile, so the current ones are read without the lock, alongside
+     * searches; only the swap takes the write lock.
+     */
+    synchronized void compact() {
+        long started = System.nanoTime();
+        int[] renumbered = new int[documents.size()];
+        DocumentStore compactedDocuments = documents.compact(renumbered);
+        Map<String, PostingList> compactedPostings = new HashMap<>();
+        for (Map.Entry<String, PostingList> term : postings.entrySet()) {
+            PostingList list = term.getValue().compact(renumbered);
+            if (list.documentFrequency() > 0) {
+                compactedPostings.put(term.getKey(), list);
+            }
+        }
+        int dropped = documents.removed();
+        lock.writeLock().lock();
+        try {
+            documents = compactedDocuments;
+            postings = compactedPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Compacted the search index: dropped {} removed posts in {} ms", dropped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * The statistics a new search for {@code terms} is scored with; later pages reuse them
+     * through the cursor.
+     */
+    public SearchStatistics statistics(List<String> terms) {
+        lock.readLock().lock();
+        try {
+            List<Integer> frequencies = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                frequencies.add(list == null ? 0 : list.documentFrequency());
+            }
+            return new SearchStatistics(documents.live(), documents.averageLength(), frequencies);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for all of {@code terms}, best first.
+     *
+     * @param statistics what BM25 scores against, from {@link #statistics} for the first page
+     *                   and from the cursor for the others
+     * @param asOf       epoch seconds the recency boost is computed at, see {@link #epochSeconds}
+     * @param after      position of the previous page, or null for the first
+     * @param fetch      hits wanted, including the look-ahead one used to detect a next page
+     */
+    public List<SearchHit> search(List<String> terms, SearchStatistics statistics, long asOf,
+                                  SearchCursor after, int fetch) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Integer[] order = new Integer[terms.size()];
+            PostingList[] lists = new PostingList[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+                order[i] = i;
+            }
+            // Rarest first: it leads, and the others only ever advance to its docs
+            Arrays.sort(order, Comparator.comparingInt(i -> lists[i].documentFrequency()));
+            PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = lists[order[i]].cursor();
+                double df = statistics.documentFrequencies().get(order[i]);
+                idf[i] = Math.log(1 + (statistics.documents() - df + 0.5) / (df + 0.5));
+            }
+            double averageLength = statistics.averageLength();
+
+            Comparator<Candidate> bestFirst = bestFirst();
+            PriorityQueue<Candidate> top = new PriorityQueue<>(fetch + 1, bestFirst.reversed());
+            PostingList.Cursor lead = cursors[0];
+            int doc = lead.next();
+            candidates:
+            while (doc != PostingList.NO_MORE_DOCS) {
+                for (int i = 1; i < cursors.length; i++) {
+                    int other = cursors[i].advance(doc);
+                    if (other != doc) {
+                        doc = lead.advance(other);
+                        continue candidates;
+                    }
+                }
+                if (!documents.isRemoved(doc)) {
+                    double score = score(doc, cursors, idf, averageLength, asOf);
+                    // Scores decide almost every comparison; ids are only built on ties
+                    boolean onPage = after == null || score < after.score()
+                            || (score == after.score() && after.isFollowedBy(score, documents.id(doc)));
+                    Candidate worst = top.size() < fetch ? null : top.peek();
+                    if (onPage && (worst == null || score >= worst.score())) {
+                        Candidate candidate = new Candidate(doc, score);
+                        if (worst == null) {
+                            top.add(candidate);
+                        } else if (bestFirst.compare(candidate, worst) < 0) {
+                            top.poll();
+                            top.add(candidate);
+                        }
+                    }
+                }
+                doc = lead.next();
+            }
+
+            List<Candidate> ranked = new ArrayList<>(top);
+            ranked.sort(bestFirst);
+            List<SearchHit> hits = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                hits.add(new SearchHit(documents.id(candidate.doc()), candidate.score()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The distinct terms of a query, in the order typed. Words too long to be indexed are dropped,
+     * so they never match.
+     */
+    public static List<String> queryTerms(String query) {
+        return List.copyOf(new LinkedHashSet<>(tokenize(query)));
+    }
+
+    /**
+     * Lower-cased, accent-folded runs of letters and digits, repeats included. Uses the same
+     * folding as the banned-term scanner, so "Café" and "cafe" are one term.
+     */
+    static List<String> tokenize(String text) {
+        String folded = TermMatcher.fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    tokens.add(folded.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** The clock recency is measured in: post timestamps are local date-times, compared as UTC. */
+    public static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private double score(int doc, PostingList.Cursor[] cursors, double[] idf, double averageLength, long asOf) {
+        double lengthNorm = K1 * (1 - B + B * documents.length(doc) / averageLength);
+        double score = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            int frequency = cursors[i].frequency();
+            score += idf[i] * frequency * (K1 + 1) / (frequency + lengthNorm);
+        }
+        long age = Math.max(0, asOf - documents.createdAt(doc));
+        return score * (1 + recencyWeight * Math.exp(-decayPerSecond * age));
+    }
+
+    // Score descending, then id descending like every other listing
+    private Comparator<Candidate> bestFirst() {
+        return (a, b) -> {
+            int byScore = Double.compare(b.score(), a.score());
+            return byScore != 0 ? byScore : PageCursor.compareIds(documents.id(b.doc()), documents.id(a.doc()));
+        };
+    }
+
+    private <T> T read(Supplier<T> value) {
+        lock.readLock().lock();
+        try {
+            return value.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Candidate(int doc, double score) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.plaintext.core.search;
+
+import java.util.List;
+
+/**
+ * The collection statistics BM25 scores a query against: live documents, their average length
+ * and how many contain each query term, in query order. Taken once per search and carried in
+ * its cursor, so every page of the results is scored alike while the index keeps changing.
+ */
+public record SearchStatistics(int documents, double averageLength, List<Integer> documentFrequencies) {
+
+    public SearchStatistics {
+        documentFrequencies = List.copyOf(documentFrequencies);
+    }
+}
@@ -1,5 +1,8 @@
 package com.plaintext.core.security;
 
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.common.security.JwtVerifier;
+import com.plaintext.core.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,21 +16,24 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
-    private final CoreJwtUtils jwtUtils;
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
+    private final JwtVerifier jwtVerifier;
+    private final UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if(null!=jwt && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            AuthenticatedUser principal = jwt == null ? null : jwtVerifier.verify(jwt).map(this::resolveLegacy).orElse(null);
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+                authenticationToken.setDetails(DETAILS_SOURCE.buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         } catch (Exception e) {
@@ -36,6 +42,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Tokens issued before the id/role claims existed: look the user up once per request
+    // until they expire. Returns null if the user no longer exists.
+    private AuthenticatedUser resolveLegacy(AuthenticatedUser principal) {
+        if (principal.id() != null && principal.role() != null) {
+            return principal;
+        }
+        return userRepository.findByUsername(principal.username())
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole()))
+                .orElse(null);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if(StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
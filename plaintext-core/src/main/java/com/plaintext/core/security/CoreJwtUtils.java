@@ -1,40 +0,0 @@
-package com.plaintext.core.security;
-
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import javax.crypto.SecretKey;
-
-@Component
-public class CoreJwtUtils {
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser().verifyWith(key()).build().parse(authToken);
-            return true;
-        } catch (JwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
-        }
-        return false;
-    }
-}
\ No newline at end of file
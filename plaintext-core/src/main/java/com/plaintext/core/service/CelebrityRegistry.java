@@ -0,0 +1,94 @@
+package com.plaintext.core.service;
+
+import com.plaintext.core.event.CelebrityDemotedEvent;
+import com.plaintext.core.repository.FollowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks which authors have too many followers to fan out on write.
+ * Their posts are pulled and merged into followers' timelines at read time instead.
+ * An author dropping back under the threshold is announced with a CelebrityDemotedEvent,
+ * so their posts from the pull period get pushed after all.
+ */
+@Component
+@RequiredArgsConstructor
+public class CelebrityRegistry {
+    private final FollowRepository followRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${plaintext.timeline.celebrity-threshold:10000}")
+    private long threshold;
+
+    @Value("${plaintext.timeline.follower-count-ttl-ms:300000}")
+    private long followerCountTtlMs;
+
+    private final Set<UUID> celebrities = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, CachedCount> followerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Full resync from the follow graph. Runs at startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${plaintext.timeline.celebrity-refresh-ms:300000}")
+    public void refresh() {
+        Set<UUID> current = Set.copyOf(followRepository.findFollowingIdsWithAtLeast(threshold));
+        Set<UUID> demoted = new HashSet<>(celebrities);
+        demoted.removeAll(current);
+        celebrities.addAll(current);
+        followerCounts.clear();
+        for (UUID authorId : demoted) {
+            demote(authorId);
+        }
+    }
+
+    /**
+     * Write-path check, used once per created post.
+     */
+    public boolean isCelebrity(UUID authorId) {
+        long now = System.nanoTime();
+        CachedCount cached = followerCounts.get(authorId);
+        if (cached == null || cached.expiresAt - now < 0) {
+            cached = new CachedCount(followRepository.countByFollowingId(authorId),
+                    now + TimeUnit.MILLISECONDS.toNanos(followerCountTtlMs));
+            followerCounts.put(authorId, cached);
+        }
+        boolean celebrity = cached.count >= threshold;
+        if (celebrity) {
+            celebrities.add(authorId);
+        } else {
+            demote(authorId);
+        }
+        return celebrity;
+    }
+
+    /**
+     * Read-path lookup: the pull-model authors this viewer follows.
+     */
+    public List<UUID> followedBy(UUID viewerId) {
+        if (celebrities.isEmpty()) {
+            return List.of();
+        }
+        return followRepository.findFollowingIdsAmong(viewerId, Set.copyOf(celebrities));
+    }
+
+    // Only the caller that actually removes the author publishes, so each demotion is announced once
+    private void demote(UUID authorId) {
+        if (celebrities.remove(authorId)) {
+            eventPublisher.publishEvent(new CelebrityDemotedEvent(authorId));
+        }
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.plaintext.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engagement counters. Only actual state changes are counted: re-liking a liked post
+ * or re-following an account is not.
+ */
+@Component
+public class InteractionMetrics {
+    private final Counter likes;
+    private final Counter unlikes;
+    private final Counter comments;
+    private final Counter follows;
+    private final Counter unfollows;
+
+    public InteractionMetrics(MeterRegistry meterRegistry) {
+        this.likes = Counter.builder("plaintext.likes").tag("action", "like").register(meterRegistry);
+        this.unlikes = Counter.builder("plaintext.likes").tag("action", "unlike").register(meterRegistry);
+        this.comments = Counter.builder("plaintext.comments.added").register(meterRegistry);
+        this.follows = Counter.builder("plaintext.follows").tag("action", "follow").register(meterRegistry);
+        this.unfollows = Counter.builder("plaintext.follows").tag("action", "unfollow").register(meterRegistry);
+    }
+
+    void likeToggled(int delta) {
+        if (delta > 0) {
+            likes.increment();
+        } else if (delta < 0) {
+            unlikes.increment();
+        }
+    }
+
+    void commentAdded() {
+        comments.increment();
+    }
+
+    void followed() {
+        follows.increment();
+    }
+
+    void unfollowed() {
+        unfollows.increment();
+    }
+}
@@ -1,113 +1,165 @@
 package com.plaintext.core.service;
 
+import com.plaintext.common.exception.BadRequestException;
+import com.plaintext.common.exception.ResourceNotFoundException;
 import com.plaintext.common.model.*;
+import com.plaintext.common.ratelimit.RateLimitAction;
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.CommentPageCache;
 import com.plaintext.core.dto.CommentRequest;
 import com.plaintext.core.dto.CommentResponse;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.LikeResponse;
+import com.plaintext.core.event.CommentAddedEvent;
+import com.plaintext.core.event.PostEngagementEvent;
+import com.plaintext.core.jfr.CommentAddEvent;
+import com.plaintext.core.jfr.FollowEvent;
+import com.plaintext.core.jfr.LikeToggleEvent;
 import com.plaintext.core.repository.*;
+import com.plaintext.core.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
 public class InteractionService {
     private final PostLikeRepository postLikeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final FollowRepository followRepository;
+    private final TimelineService timelineService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RateLimiter rateLimiter;
+    private final CommentPageCache commentPageCache;
+    private final InteractionMetrics metrics;
 
     @Transactional
-    public void toggleLike(String username, UUID postId) {
-        User user = getUser(username);
-        Post post = getPost(postId);
-        if(postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId())) {
-            // unlike
-            postLikeRepository.deleteByUserIdAndPostId(user.getId(), post.getId());
-            post.setLikesCount(post.getLikesCount() - 1);
-        } else {
-            // like
-            PostLike like = PostLike.builder().user(user).post(post).build();
-            postLikeRepository.save(like);
-            post.setLikesCount(post.getLikesCount() + 1);
-        }
-        postRepository.save(post);
+    public LikeResponse toggleLike(AuthenticatedUser user, UUID postId) {
+        LikeToggleEvent event = new LikeToggleEvent();
+        event.postId = postId.toString();
+        event.userId = String.valueOf(user.id());
+        return event.time(() -> {
+            rateLimiter.check(RateLimitAction.LIKE, user.username());
+            PostLikeRepository.LikeToggle result = postLikeRepository.toggle(user.id(), postId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Post not found."));
+            event.liked = result.liked();
+            event.rows = Math.abs(result.delta());
+            event.likesCount = result.likesCount();
+            if (result.delta() != 0) {
+                eventPublisher.publishEvent(new PostEngagementEvent(postId, result.delta(), 0, result.authorUsername()));
+            }
+            metrics.likeToggled(result.delta());
+            return new LikeResponse(postId, result.liked(), result.likesCount());
+        });
     }
 
     @Transactional
-    public CommentResponse addComment(String username, UUID postId, CommentRequest request) {
-        User user = getUser(username);
-        Post post = getPost(postId);
-
-        Comment comment = Comment.builder()
-                .user(user)
-                .post(post)
-                .content(request.getText())
-                .build();
-
-        Comment saved = commentRepository.saveAndFlush(comment);
-
-        // Update post counter
-        post.setCommentsCount(post.getCommentsCount() + 1);
-        postRepository.save(post);
-
-        LocalDateTime responseTime = saved.getCreatedAt() != null ? saved.getCreatedAt() : LocalDateTime.now();
-
-
-        return CommentResponse.builder()
-                .id(saved.getId())
-                .text(saved.getContent())
-                .username(user.getUsername())
-                .createdAt(responseTime)
-                .build();
+    public CommentResponse addComment(AuthenticatedUser user, UUID postId, CommentRequest request) {
+        CommentAddEvent event = new CommentAddEvent();
+        event.postId = postId.toString();
+        event.userId = String.valueOf(user.id());
+        event.length = request.getText().length();
+        return event.time(() -> {
+            rateLimiter.check(RateLimitAction.COMMENT, user.username());
+            // An index-only lookup; any constraint violation from the insert below is then a real error
+            if (!postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post not found.");
+            }
+
+            // References only: neither the users nor the posts row is loaded to insert a comment
+            Comment comment = Comment.builder()
+                    .user(userRepository.getReferenceById(user.id()))
+                    .post(postRepository.getReferenceById(postId))
+                    .content(request.getText())
+                    .build();
+            Comment saved = commentRepository.saveAndFlush(comment);
+            event.commentId = String.valueOf(saved.getId());
+
+            LocalDateTime responseTime = saved.getCreatedAt() != null ? saved.getCreatedAt() : LocalDateTime.now();
+
+            CommentResponse response = CommentResponse.builder()
+                    .id(saved.getId())
+                    .text(saved.getContent())
+                    .username(user.username())
+                    .createdAt(responseTime)
+                    .build();
+
+            // comments_count is applied by PostCounterAggregator after commit
+            eventPublisher.publishEvent(new PostEngagementEvent(postId, 0, 1, null));
+            eventPublisher.publishEvent(new CommentAddedEvent(postId, response));
+            metrics.commentAdded();
+            return response;
+        });
     }
 
-    public List<CommentResponse> getComments(UUID postId) {
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
-                .map(c -> CommentResponse.builder()
-                        .id(c.getId())
-                        .text(c.getContent())
-                        .username(c.getUser().getUsername())
-                        .createdAt(c.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+    // Not @Transactional, like the explore feed: cached first pages must not borrow a connection
+    public CursorPage<CommentResponse> getComments(UUID postId, String cursor, int limit) {
+        int pageSize = PostService.clampPageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        List<CommentResponse> comments = after == null
+                ? commentPageCache.firstPage(postId, pageSize + 1,
+                        () -> commentRepository.findPageByPostId(postId, Limit.of(CommentPageCache.ROWS_PER_POST)))
+                : commentRepository.findPageByPostIdAfter(postId, after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        return CursorPage.of(comments, pageSize, c -> PageCursor.encode(c.getCreatedAt(), c.getId()));
     }
 
     @Transactional
-    public void followUser(String followerUsername, String followingUsername) {
-        if (followerUsername.equals(followingUsername)) {
-            throw new RuntimeException("You cannot follow yourself.");
-        }
-
-        User follower = getUser(followerUsername);
-        User following = getUser(followingUsername);
-
-        if (!followRepository.existsByFollowerIdAndFollowingId(follower.getId(), following.getId())) {
-            Follow follow = Follow.builder().follower(follower).following(following).build();
-            followRepository.save(follow);
+    public void followUser(AuthenticatedUser follower, String followingUsername) {
+        if (follower.username().equals(followingUsername)) {
+            throw new BadRequestException("You cannot follow yourself.");
         }
+        FollowEvent event = new FollowEvent();
+        event.action = "follow";
+        event.followerId = String.valueOf(follower.id());
+        event.time(() -> {
+            rateLimiter.check(RateLimitAction.FOLLOW, follower.username());
+
+            User following = getUser(followingUsername);
+            event.followingId = following.getId().toString();
+
+            event.changed = !followRepository.existsByFollowerIdAndFollowingId(follower.id(), following.getId());
+            if (event.changed) {
+                Follow follow = Follow.builder()
+                        .follower(userRepository.getReferenceById(follower.id()))
+                        .following(following)
+                        .build();
+                followRepository.save(follow);
+                event.timelineRows = timelineService.backfill(follower.id(), following.getId());
+                metrics.followed();
+            }
+        });
     }
 
     @Transactional
-    public void unfollowUser(String followerUsername, String followingUsername) {
-        User follower = getUser(followerUsername);
-        User following = getUser(followingUsername);
-
-        followRepository.deleteByFollowerIdAndFollowingId(follower.getId(), following.getId());
+    public void unfollowUser(AuthenticatedUser follower, String followingUsername) {
+        FollowEvent event = new FollowEvent();
+        event.action = "unfollow";
+        event.followerId = String.valueOf(follower.id());
+        event.time(() -> {
+            User following = getUser(followingUsername);
+            event.followingId = following.getId().toString();
+
+            event.changed = followRepository.deleteByFollowerIdAndFollowingId(follower.id(), following.getId()) > 0;
+            if (event.changed) {
+                metrics.unfollowed();
+            }
+            event.timelineRows = timelineService.prune(follower.id(), following.getId());
+        });
     }
 
     private User getUser(String username) {
         return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
-    private Post getPost(UUID postId) {
-        return postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("User not found."));
     }
 }
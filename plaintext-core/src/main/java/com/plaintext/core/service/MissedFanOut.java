@@ -0,0 +1,8 @@
+package com.plaintext.core.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A committed post whose fan-out never ran, as TimelineService's catch-up finds it. */
+public record MissedFanOut(UUID postId, UUID authorId, LocalDateTime createdAt) {
+}
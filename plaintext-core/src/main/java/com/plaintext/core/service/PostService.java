@@ -1,76 +1,191 @@
 package com.plaintext.core.service;
 
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.exception.ResourceNotFoundException;
 import com.plaintext.common.model.Post;
+import com.plaintext.common.model.PostTag;
 import com.plaintext.common.model.User;
+import com.plaintext.common.ratelimit.RateLimitAction;
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ExploreFeedCache;
+import com.plaintext.core.dto.CursorPage;
 import com.plaintext.core.dto.PostRequest;
 import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.jfr.ExportEvent;
+import com.plaintext.core.jfr.FeedAssemblyEvent;
 import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.PostTagRepository;
 import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.tag.TagExtractor;
+import com.plaintext.core.trending.TrendingEngine;
+import com.plaintext.core.util.PageCursor;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
 public class PostService {
+    public static final int MAX_PAGE_SIZE = 50;
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final PostTagRepository postTagRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExploreFeedCache exploreFeedCache;
+    private final TrendingEngine trendingEngine;
+    private final RateLimiter rateLimiter;
+    private final JsonMapper jsonMapper;
 
     @Transactional
-    public PostResponse createPost(String username, PostRequest request) {
-        User author = userRepository.findByUsername(username)
-                .orElseThrow(() -> new com.plaintext.common.exception.ResourceNotFoundException("User not found."));
-        checkRateLimit(author);
+    public PostResponse createPost(AuthenticatedUser author, PostRequest request) {
+        rateLimiter.check(RateLimitAction.POST, author.username());
+        // The token already identified the author; a reference avoids loading the users row
+        User authorRef = userRepository.getReferenceById(author.id());
         Post post = Post.builder()
-                .user(author)
+                .user(authorRef)
                 .content(request.getContent())
                 .imageUrl(request.getImageUrl())
                 .likesCount(0)
                 .commentsCount(0)
-                .moderationStatus("PENDING")
+                .moderationStatus(ModerationStatus.PENDING)
                 .build();
-        Post savedPost = postRepository.save(post);
-        return mapToResponse(savedPost);
+        // Flush so created_at is generated before it is handed to timeline fan-out
+        Post savedPost = postRepository.saveAndFlush(post);
+        // One batched INSERT at commit for all of the post's tags
+        List<String> tags = TagExtractor.extract(savedPost.getContent());
+        if (!tags.isEmpty()) {
+            postTagRepository.saveAll(tags.stream()
+                    .map(tag -> new PostTag(tag, savedPost.getId(), savedPost.getCreatedAt()))
+                    .toList());
+        }
+        // The username comes from the caller's token: savedPost.getUser() is an uninitialized proxy
+        PostResponse response = PostResponse.from(savedPost, author.username());
+        eventPublisher.publishEvent(new PostCreatedEvent(author.id(), response, tags));
+        return response;
+    }
+
+    // Deliberately not @Transactional: pages served from the in-memory cache must
+    // not borrow a connection. The fallback queries run in the repository's own transaction.
+    public CursorPage<PostResponse> getExploreFeed(String cursor, int limit) {
+        FeedAssemblyEvent event = new FeedAssemblyEvent();
+        event.feed = FeedAssemblyEvent.EXPLORE;
+        return event.time(() -> {
+            int pageSize = clampPageSize(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            event.paged = after != null;
+            Optional<List<PostResponse>> cached = exploreFeedCache.page(after, pageSize + 1);
+            event.source = cached.isPresent() ? "cache" : "database";
+            List<PostResponse> posts = cached.orElseGet(() -> {
+                Limit fetch = Limit.of(pageSize + 1);
+                return after == null
+                        ? postRepository.findLatest(fetch)
+                        : postRepository.findLatestBefore(after.createdAt(), after.id(), fetch);
+            });
+            event.rows = posts.size();
+            return toPage(posts, pageSize);
+        });
+    }
+
+    /**
+     * Posts with the most recent engagement, best first. The ranking comes from TrendingEngine
+     * in memory; the database is read once, to load the ranked posts.
+     */
+    public List<PostResponse> getTrendingFeed(int limit) {
+        List<UUID> ranked = trendingEngine.top(clampPageSize(limit));
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PostResponse> posts = postRepository.findResponsesByIds(ranked).stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+        // Posts rejected since they were ranked are missing here; the list is just shorter
+        return ranked.stream().map(posts::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
-    public List<PostResponse> getExploreFeed() {
-        return postRepository.findAllByOrderByCreatedAtDesc().stream().map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<PostResponse> getUserPosts(String username, String cursor, int limit) {
+        FeedAssemblyEvent event = new FeedAssemblyEvent();
+        event.feed = FeedAssemblyEvent.USER;
+        event.subject = username;
+        event.source = "database";
+        return event.time(() -> {
+            int pageSize = clampPageSize(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            event.paged = after != null;
+            Limit fetch = Limit.of(pageSize + 1);
+            List<PostResponse> posts = after == null
+                    ? postRepository.findLatestByUsername(username, fetch)
+                    : postRepository.findLatestByUsernameBefore(username, after.createdAt(), after.id(), fetch);
+            event.rows = posts.size();
+            return toPage(posts, pageSize);
+        });
     }
 
+    /**
+     * Admits an export of the user's posts for the requester, before the response starts:
+     * unknown users are a 404, and a requester over the export rate or with an export already
+     * running gets a 429.
+     *
+     * @return the requester's export slot, to be closed when the export ends
+     */
     @Transactional(readOnly = true)
-    public List<PostResponse> getUserPosts(String username) {
-        return postRepository.findByUserUsernameOrderByCreatedAtDesc(username).stream().map(this::mapToResponse)
-                .toList();
+    public RateLimiter.Slot admitExport(AuthenticatedUser requester, String username) {
+        if (!userRepository.existsByUsername(username)) {
+            throw new ResourceNotFoundException("User not found.");
+        }
+        return rateLimiter.enter(RateLimitAction.EXPORT, requester.username());
     }
 
-    private void checkRateLimit(User author) {
-        Post lastPost = postRepository.findTopByUserOrderByCreatedAtDesc(author);
-        if (lastPost != null) {
-            long minutesSinceLast = ChronoUnit.MINUTES.between(lastPost.getCreatedAt(), LocalDateTime.now());
-            if (minutesSinceLast < 5) {
-                throw new com.plaintext.common.exception.BadRequestException(
-                        "Rate limit exceeded. Please wait 5 minutes between posts.");
+    /**
+     * Writes every post by the user to {@code out} as newline-delimited JSON, newest first.
+     * Rows come through a database cursor and are written as they arrive, so memory use is
+     * the same for ten posts or ten million. Holds one connection for the whole export.
+     *
+     * @return the number of posts written
+     */
+    @Transactional(readOnly = true)
+    public long exportUserPosts(String username, OutputStream out) throws IOException {
+        ExportEvent event = new ExportEvent();
+        event.username = username;
+        return event.time(() -> {
+            ObjectWriter writer = jsonMapper.writerFor(PostResponse.class);
+            try (Stream<PostResponse> posts = postRepository.streamByUsername(username)) {
+                for (PostResponse post : (Iterable<PostResponse>) posts::iterator) {
+                    out.write(writer.writeValueAsBytes(post));
+                    out.write('\n');
+                    event.rows++;
+                }
             }
-        }
+            out.flush();
+            return event.rows;
+        });
     }
 
-    private PostResponse mapToResponse(Post post) {
-        return PostResponse.builder()
-                .id(post.getId())
-                .username(post.getUser().getUsername()) // Lazy load triggered here
-                .content(post.getContent())
-                .imageUrl(post.getImageUrl())
-                .likesCount(post.getLikesCount())
-                .commentsCount(post.getCommentsCount())
-                .createdAt(post.getCreatedAt())
-                .build();
+    static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private CursorPage<PostResponse> toPage(List<PostResponse> posts, int pageSize) {
+        return CursorPage.of(posts, pageSize, p -> PageCursor.encode(p.getCreatedAt(), p.getId()));
     }
 }
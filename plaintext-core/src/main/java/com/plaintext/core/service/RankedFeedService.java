@@ -0,0 +1,243 @@
+package com.plaintext.core.service;
+
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ExploreFeedCache;
+import com.plaintext.core.config.AsyncConfig;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.jfr.FeedAssemblyEvent;
+import com.plaintext.core.ranking.Affinity;
+import com.plaintext.core.ranking.CandidateFetcher;
+import com.plaintext.core.ranking.PostScorer;
+import com.plaintext.core.repository.CommentRepository;
+import com.plaintext.core.repository.PostLikeRepository;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.trending.TrendingEngine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The ranked mode of the home timeline: one page of the posts most relevant to the viewer
+ * rather than the newest ones.
+ *
+ * Candidates come from the viewer's timeline (followed authors, including pulled celebrities),
+ * the trending ranking and the newest posts of the explore feed. The viewer's latest likes and
+ * comments give their affinity per author. PostScorer then scores the candidates in parallel
+ * chunks on the ranking pool.
+ *
+ * Every request has a latency budget, and every stage runs under it. Queries run through
+ * CandidateFetcher and are waited for only until the deadline; a source whose query misses it,
+ * that finds the fetch slots taken, or that is not reached in time, is skipped. The explore cache is in memory and always read, so a slow
+ * database still yields a page. Scoring tasks check the deadline themselves and stop when it
+ * passes, and if scoring does not finish in time the candidates gathered so far are returned
+ * newest first, as in the chronological timeline.
+ */
+@Service
+@Timed(value = "plaintext.service", histogram = true)
+public class RankedFeedService {
+    public static final String RANKED = "ranked";
+    public static final String CHRONOLOGICAL = "chronological";
+
+    private final TimelineService timelineService;
+    private final TrendingEngine trendingEngine;
+    private final ExploreFeedCache exploreFeedCache;
+    private final PostRepository postRepository;
+    private final PostLikeRepository postLikeRepository;
+    private final CommentRepository commentRepository;
+    private final PostScorer scorer;
+    private final ForkJoinPool rankingPool;
+    private final CandidateFetcher fetcher;
+    private final Counter fallbacks;
+    private final Duration budget;
+    private final int candidatesPerSource;
+    private final int history;
+    private final int chunkSize;
+
+    public RankedFeedService(TimelineService timelineService,
+                             TrendingEngine trendingEngine,
+                             ExploreFeedCache exploreFeedCache,
+                             PostRepository postRepository,
+                             PostLikeRepository postLikeRepository,
+                             CommentRepository commentRepository,
+                             PostScorer scorer,
+                             @Qualifier(AsyncConfig.RANKING_POOL) ForkJoinPool rankingPool,
+                             CandidateFetcher fetcher,
+                             MeterRegistry meterRegistry,
+                             @Value("${plaintext.ranking.budget:100ms}") Duration budget,
+                             @Value("${plaintext.ranking.candidates-per-source:200}") int candidatesPerSource,
+                             @Value("${plaintext.ranking.history:500}") int history,
+                             @Value("${plaintext.ranking.chunk-size:64}") int chunkSize) {
+        this.timelineService = timelineService;
+        this.trendingEngine = trendingEngine;
+        this.exploreFeedCache = exploreFeedCache;
+        this.postRepository = postRepository;
+        this.postLikeRepository = postLikeRepository;
+        this.commentRepository = commentRepository;
+        this.scorer = scorer;
+        this.rankingPool = rankingPool;
+        this.fetcher = fetcher;
+        this.budget = budget;
+        this.candidatesPerSource = candidatesPerSource;
+        this.history = history;
+        this.chunkSize = chunkSize;
+        this.fallbacks = Counter.builder("plaintext.ranking.fallbacks")
+                .description("Ranked timelines served newest first because the latency budget ran out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the best {@code limit} candidates; ranked pages are not paginated, so nextCursor is always null
+     */
+    public CursorPage<PostResponse> getRankedTimeline(AuthenticatedUser viewer, int limit) {
+        FeedAssemblyEvent event = new FeedAssemblyEvent();
+        event.feed = FeedAssemblyEvent.RANKED;
+        event.subject = viewer.id().toString();
+        return event.time(() -> {
+            long deadline = System.nanoTime() + budget.toNanos();
+            int pageSize = PostService.clampPageSize(limit);
+
+            // Sources in order of value, so an exhausted budget drops the least useful ones
+            Map<UUID, PostResponse> candidates = new LinkedHashMap<>();
+            Set<String> followed = new HashSet<>();
+            fetcher.fetch(() -> timelineService.getLatest(viewer.id(), candidatesPerSource), deadline)
+                    .ifPresent(timeline -> timeline.forEach(post -> {
+                        candidates.put(post.getId(), post);
+                        followed.add(post.getUsername());
+                    }));
+            followed.remove(viewer.username());
+            addTrending(candidates, deadline);
+            exploreFeedCache.page(null, candidatesPerSource)
+                    .or(() -> fetcher.fetch(() -> postRepository.findLatest(Limit.of(candidatesPerSource)), deadline))
+                    .ifPresent(explore -> explore.forEach(post -> candidates.putIfAbsent(post.getId(), post)));
+            Affinity affinity = new Affinity(followed, fetcher.fetch(() -> interactions(viewer), deadline).orElse(Map.of()));
+
+            List<PostResponse> posts = new ArrayList<>(candidates.values());
+            event.rows = posts.size();
+            double[] scores = score(posts, affinity, deadline);
+            event.source = scores != null ? RANKED : CHRONOLOGICAL;
+            List<PostResponse> page;
+            if (scores != null) {
+                page = best(posts, scores, pageSize);
+            } else {
+                fallbacks.increment();
+                posts.sort(PostResponse.NEWEST_FIRST);
+                page = posts.size() > pageSize ? List.copyOf(posts.subList(0, pageSize)) : posts;
+            }
+            return new CursorPage<>(page, null);
+        });
+    }
+
+    private void addTrending(Map<UUID, PostResponse> candidates, long deadline) {
+        if (expired(deadline)) {
+            return;
+        }
+        List<UUID> missing = trendingEngine.top(candidatesPerSource).stream()
+                .filter(id -> !candidates.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            fetcher.fetch(() -> postRepository.findResponsesByIds(missing), deadline)
+                    .ifPresent(trending -> trending.forEach(post -> candidates.putIfAbsent(post.getId(), post)));
+        }
+    }
+
+    // Per author: the viewer's latest likes count once each, comments count comment-weight times
+    private Map<String, Double> interactions(AuthenticatedUser viewer) {
+        Map<String, Double> interactions = new HashMap<>();
+        for (String author : postLikeRepository.findLikedAuthors(viewer.id(), Limit.of(history))) {
+            interactions.merge(author, 1.0, Double::sum);
+        }
+        for (String author : commentRepository.findCommentedAuthors(viewer.id(), Limit.of(history))) {
+            interactions.merge(author, scorer.commentWeight(), Double::sum);
+        }
+        // Liking your own posts says nothing about what you want to read
+        interactions.remove(viewer.username());
+        return interactions;
+    }
+
+    /**
+     * Scores the posts in chunks on the ranking pool. Each chunk stops at the deadline on its
+     * own, so scoring abandoned by this thread does not keep the pool busy.
+     *
+     * @return each post's score by index, or null when the budget ran out first
+     */
+    private double[] score(List<PostResponse> posts, Affinity affinity, long deadline) {
+        if (expired(deadline)) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        double[] scores = new double[posts.size()];
+        List<Future<Boolean>> chunks = new ArrayList<>();
+        for (int from = 0; from < posts.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, posts.size());
+            chunks.add(rankingPool.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    if (expired(deadline)) {
+                        return false;
+                    }
+                    scores[i] = scorer.score(posts.get(i), affinity, now);
+                }
+                return true;
+            }));
+        }
+        try {
+            // Future.get also makes each chunk's writes to scores visible here
+            for (Future<Boolean> chunk : chunks) {
+                if (!chunk.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    chunks.forEach(other -> other.cancel(false));
+                    return null;
+                }
+            }
+            return scores;
+        } catch (TimeoutException e) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(false));
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scoring the ranked timeline failed", e.getCause());
+        }
+    }
+
+    private static List<PostResponse> best(List<PostResponse> posts, double[] scores, int pageSize) {
+        List<Integer> order = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingDouble(i -> scores[i]).reversed()
+                .thenComparing(posts::get, PostResponse.NEWEST_FIRST));
+        List<PostResponse> page = new ArrayList<>(Math.min(pageSize, posts.size()));
+        for (int i = 0; i < order.size() && page.size() < pageSize; i++) {
+            page.add(posts.get(order.get(i)));
+        }
+        return page;
+    }
+
+    private static boolean expired(long deadline) {
+        return deadline - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.plaintext.core.service;
+
+import com.plaintext.common.exception.BadRequestException;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.search.SearchHit;
+import com.plaintext.core.search.SearchIndex;
+import com.plaintext.core.search.SearchStatistics;
+import com.plaintext.core.util.SearchCursor;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
+public class SearchService {
+    private final SearchIndex searchIndex;
+    private final PostRepository postRepository;
+
+    /**
+     * Posts containing every word of the query, best match first. Ranking runs entirely on the
+     * in-memory index; the database is read once, to load the posts on the returned page.
+     */
+    public CursorPage<PostResponse> search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required.");
+        }
+        List<String> terms = SearchIndex.queryTerms(query);
+        if (terms.size() > SearchIndex.MAX_QUERY_TERMS) {
+            throw new BadRequestException("Search queries are limited to " + SearchIndex.MAX_QUERY_TERMS + " words.");
+        }
+        int pageSize = PostService.clampPageSize(limit);
+        SearchCursor after = SearchCursor.decode(cursor);
+        if (after != null && after.statistics().documentFrequencies().size() != terms.size()) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        long asOf = after != null ? after.asOf() : SearchIndex.epochSeconds(LocalDateTime.now());
+        SearchStatistics statistics = after != null ? after.statistics() : searchIndex.statistics(terms);
+
+        List<SearchHit> hits = searchIndex.search(terms, statistics, asOf, after, pageSize + 1);
+        if (hits.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        List<SearchHit> page = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+        Map<UUID, PostResponse> posts = postRepository
+                .findResponsesByIds(page.stream().map(SearchHit::postId).toList()).stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+        // Posts rejected since they were indexed are missing here; the page is just shorter
+        List<PostResponse> items = new ArrayList<>(page.size());
+        for (SearchHit hit : page) {
+            PostResponse post = posts.get(hit.postId());
+            if (post != null) {
+                items.add(post);
+            }
+        }
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            SearchHit last = page.get(pageSize - 1);
+            nextCursor = new SearchCursor(asOf, statistics, last.score(), last.postId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+}
@@ -0,0 +1,50 @@
+package com.plaintext.core.service;
+
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.dto.TagCountResponse;
+import com.plaintext.core.repository.PostTagRepository;
+import com.plaintext.core.tag.TagExtractor;
+import com.plaintext.core.tag.TopTags;
+import com.plaintext.core.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
+public class TagService {
+    private final PostTagRepository postTagRepository;
+    private final TopTags topTags;
+
+    /** Posts carrying the hashtag, newest first. The tag may be given with or without its #. */
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getTaggedPosts(String tag, String cursor, int limit) {
+        return page(TagExtractor.hashtag(tag), cursor, limit);
+    }
+
+    /** Posts mentioning the user, newest first. */
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getMentions(String username, String cursor, int limit) {
+        return page(TagExtractor.mention(username), cursor, limit);
+    }
+
+    public List<TagCountResponse> getTopTags(int limit) {
+        return topTags.top(PostService.clampPageSize(limit));
+    }
+
+    private CursorPage<PostResponse> page(String tag, String cursor, int limit) {
+        int pageSize = PostService.clampPageSize(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        Limit fetch = Limit.of(pageSize + 1);
+        List<PostResponse> posts = after == null
+                ? postTagRepository.findPage(tag, fetch)
+                : postTagRepository.findPageBefore(tag, after.createdAt(), after.id(), fetch);
+        return CursorPage.of(posts, pageSize, p -> PageCursor.encode(p.getCreatedAt(), p.getId()));
+    }
+}
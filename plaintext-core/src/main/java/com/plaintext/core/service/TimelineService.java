@@ -0,0 +1,188 @@
+package com.plaintext.core.service;
+
+import com.plaintext.core.config.AsyncConfig;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.CelebrityDemotedEvent;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.jfr.FeedAssemblyEvent;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.TimelineRepository;
+import com.plaintext.core.util.KWayMerge;
+import com.plaintext.core.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hybrid home timelines.
+ * Regular authors are pushed: new posts are fanned out to followers' materialized
+ * timelines after commit, on the timeline executor. Authors above the celebrity
+ * threshold are pulled: their recent posts are k-way merged into the viewer's
+ * materialized page at read time, so their write cost stays O(1). An author who drops
+ * back under the threshold gets their newest posts pushed to every follower.
+ * Fan-outs the executor drops while its queue is full are redone by a periodic catch-up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "plaintext.service", histogram = true)
+public class TimelineService {
+    private final TimelineRepository timelineRepository;
+    private final PostRepository postRepository;
+    private final CelebrityRegistry celebrityRegistry;
+
+    // Posts the first catch-up looks back at, for fan-outs lost to a crash before the restart
+    private static final Duration CATCH_UP_LOOKBACK = Duration.ofHours(1);
+    private static final int CATCH_UP_BATCH = 1000;
+
+    @Value("${plaintext.timeline.backfill-size:200}")
+    private int backfillSize;
+
+    @Value("${plaintext.timeline.catch-up-interval-ms:60000}")
+    private long catchUpIntervalMs;
+
+    // Posts created before this have been caught up on
+    private LocalDateTime caughtUpTo = LocalDateTime.now().minus(CATCH_UP_LOOKBACK);
+
+    @Async(AsyncConfig.TIMELINE_EXECUTOR)
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostCreated(PostCreatedEvent event) {
+        fanOut(event.postId(), event.authorId(), event.createdAt());
+    }
+
+    /**
+     * Redoes the fan-outs the timeline executor dropped because its queue was full, and any lost
+     * to a crash between a post's commit and its fan-out. Posts younger than one interval are
+     * left to the fan-out that may still be queued for them; redoing one twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${plaintext.timeline.catch-up-interval-ms:60000}",
+            initialDelayString = "${plaintext.timeline.catch-up-interval-ms:60000}")
+    @Transactional
+    public synchronized void catchUp() {
+        LocalDateTime to = LocalDateTime.now().minus(Duration.ofMillis(catchUpIntervalMs));
+        if (!to.isAfter(caughtUpTo)) {
+            return;
+        }
+        List<MissedFanOut> missed = timelineRepository.findMissedFanOuts(caughtUpTo, to, Limit.of(CATCH_UP_BATCH));
+        for (MissedFanOut post : missed) {
+            fanOut(post.postId(), post.authorId(), post.createdAt());
+        }
+        // A full batch continues from its last post on the next run
+        caughtUpTo = missed.size() < CATCH_UP_BATCH ? to : missed.getLast().createdAt();
+        if (!missed.isEmpty()) {
+            log.warn("Caught up on {} timeline fan-outs that never ran", missed.size());
+        }
+    }
+
+    private void fanOut(UUID postId, UUID authorId, LocalDateTime createdAt) {
+        if (celebrityRegistry.isCelebrity(authorId)) {
+            timelineRepository.insertOwn(postId, authorId, createdAt);
+            return;
+        }
+        int rows = timelineRepository.fanOut(postId, authorId, createdAt);
+        log.debug("Fanned out post {} to {} timelines", postId, rows);
+    }
+
+    /**
+     * Pushes the newest posts of a former celebrity, which were only merged at read time so
+     * far, to every follower. Runs once per demotion, with the cost of one fan-out per post.
+     * The catch-up does not redo it if the executor dropped it: followers then miss the posts
+     * from before the demotion until they follow the author again.
+     */
+    @Async(AsyncConfig.TIMELINE_EXECUTOR)
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCelebrityDemoted(CelebrityDemotedEvent event) {
+        int rows = timelineRepository.backfillFollowers(event.authorId(), backfillSize);
+        log.info("Backfilled {} timeline rows for former celebrity {}", rows, event.authorId());
+    }
+
+    /**
+     * Called inside the follow transaction so the new author's recent posts show up immediately.
+     * Pull-model authors are merged at read time and need no backfill.
+     *
+     * @return timeline rows inserted
+     */
+    public int backfill(UUID followerId, UUID authorId) {
+        if (celebrityRegistry.isCelebrity(authorId)) {
+            return 0;
+        }
+        return timelineRepository.backfill(followerId, authorId, backfillSize);
+    }
+
+    /**
+     * Called inside the unfollow transaction.
+     *
+     * @return timeline rows deleted
+     */
+    public int prune(UUID followerId, UUID authorId) {
+        return timelineRepository.prune(followerId, authorId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getTimeline(UUID userId, String cursor, int limit) {
+        FeedAssemblyEvent event = new FeedAssemblyEvent();
+        event.feed = FeedAssemblyEvent.TIMELINE;
+        event.subject = userId.toString();
+        event.source = "database";
+        return event.time(() -> {
+            int pageSize = PostService.clampPageSize(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            event.paged = after != null;
+            Limit fetch = Limit.of(pageSize + 1);
+
+            List<PostResponse> materialized = after == null
+                    ? timelineRepository.findPage(userId, fetch)
+                    : timelineRepository.findPageBefore(userId, after.createdAt(), after.id(), fetch);
+
+            List<UUID> pulled = celebrityRegistry.followedBy(userId);
+            event.pulledAuthors = pulled.size();
+            List<PostResponse> posts = merge(materialized, pulled, after, pageSize + 1);
+            event.rows = posts.size();
+            return CursorPage.of(posts, pageSize, p -> PageCursor.encode(p.getCreatedAt(), p.getId()));
+        });
+    }
+
+    /**
+     * The newest {@code limit} posts of the user's timeline, past the page size cap: the
+     * ranked feed's candidates from followed authors.
+     */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getLatest(UUID userId, int limit) {
+        return merge(timelineRepository.findPage(userId, Limit.of(limit)),
+                celebrityRegistry.followedBy(userId), null, limit);
+    }
+
+    // Merges the newest posts of pull-model authors into a page of the materialized timeline
+    private List<PostResponse> merge(List<PostResponse> materialized, List<UUID> pulled, PageCursor after, int fetch) {
+        if (pulled.isEmpty()) {
+            return materialized;
+        }
+        Limit limit = Limit.of(fetch);
+        List<List<PostResponse>> streams = new ArrayList<>(pulled.size() + 1);
+        streams.add(materialized);
+        for (UUID authorId : pulled) {
+            streams.add(after == null
+                    ? postRepository.findLatestByAuthor(authorId, limit)
+                    : postRepository.findLatestByAuthorBefore(authorId, after.createdAt(), after.id(), limit));
+        }
+        return KWayMerge.merge(streams, PostResponse.NEWEST_FIRST, fetch, PostResponse::getId);
+    }
+}
@@ -0,0 +1,45 @@
+package com.plaintext.core.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent executing statements and batches to the {@link SqlStatistics} bound to
+ * the calling thread. Hibernate creates one per session from its class name, hence the
+ * public no-argument constructor.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ended();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ended();
+    }
+
+    private static void started() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.executionStarted();
+        }
+    }
+
+    private static void ended() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.executionEnded();
+        }
+    }
+}
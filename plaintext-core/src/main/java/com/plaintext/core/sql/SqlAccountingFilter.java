@@ -0,0 +1,85 @@
+package com.plaintext.core.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and JDBC time of each request. Both are always recorded as
+ * metrics per route ({@code plaintext.sql.statements}, {@code plaintext.sql.time}); requests over
+ * the threshold are logged with their most repeated statement, which points straight at
+ * a lazy association loaded in a loop.
+ *
+ * Streaming responses write their body after this filter returns, on another thread;
+ * only the statements run before the controller returned are charged to the request.
+ *
+ * Ordered ahead of the security filter chain, so the user lookup for legacy tokens in
+ * AuthTokenFilter is charged too.
+ */
+@Slf4j
+@Component
+@Order(SecurityFilterProperties.DEFAULT_FILTER_ORDER - 1)
+public class SqlAccountingFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlAccountingFilter(MeterRegistry meterRegistry,
+                               @Value("${plaintext.sql.warn-threshold:20}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Raw paths carry ids; unmatched requests share one series
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("plaintext.sql.statements")
+                .description("SQL statements run by one request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.statements());
+        Timer.builder("plaintext.sql.time")
+                .description("JDBC execution time of one request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (statistics.statements() > warnThreshold) {
+            Map.Entry<String, Integer> repeated = statistics.mostRepeated();
+            log.warn("{} {} ran {} SQL statements ({} ms); most repeated, {} times: {}",
+                    request.getMethod(), uri, statistics.statements(),
+                    TimeUnit.NANOSECONDS.toMillis(statistics.jdbcNanos()), repeated.getValue(), repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.plaintext.core.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and JDBC time spent on one thread between {@link #begin()} and {@link #end()},
+ * normally the span of one HTTP request. Hibernate reports into whichever instance is bound to
+ * the calling thread, so work handed to other threads (timeline fan-out, counter flushes) is not
+ * charged to the request that triggered it.
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+    private final SqlStatistics outer;
+    private int statements;
+    private long jdbcNanos;
+    private long executionStart;
+
+    private SqlStatistics(SqlStatistics outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * Starts counting on the calling thread. Scopes nest: statements run inside an inner scope
+     * are charged to the outer one too, so a test helper can measure inside a filtered request.
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /** Stops counting and restores the enclosing scope, if any. */
+    public void end() {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(String sql) {
+        for (SqlStatistics s = this; s != null; s = s.outer) {
+            s.statements++;
+            s.countsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void executionStarted() {
+        executionStart = System.nanoTime();
+    }
+
+    void executionEnded() {
+        if (executionStart == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - executionStart;
+        executionStart = 0;
+        for (SqlStatistics s = this; s != null; s = s.outer) {
+            s.jdbcNanos += elapsed;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /** Statement text to the number of times it was prepared, in no particular order. */
+    public Map<String, Integer> countsBySql() {
+        return Map.copyOf(countsBySql);
+    }
+
+    /**
+     * The statement prepared most often, with its count; a high count for one shape of query
+     * is the usual sign of an N+1 pattern. Null when nothing ran.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        return countsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.plaintext.core.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Development aid, on with {@code plaintext.sql.response-header}: returns the request's SQL totals
+ * so far as {@code X-Sql-Statements} and {@code X-Sql-Time-Ms}. Headers are added just before the
+ * body is written, so nothing is buffered; statements run during serialization itself are not included.
+ */
+@ControllerAdvice
+@ConditionalOnBooleanProperty("plaintext.sql.response-header")
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(statistics.statements()));
+            response.getHeaders().set(TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(statistics.jdbcNanos())));
+        }
+        return body;
+    }
+}
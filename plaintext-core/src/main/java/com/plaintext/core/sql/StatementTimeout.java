@@ -0,0 +1,49 @@
+package com.plaintext.core.sql;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Bounds the statements of the current transaction on the database server, so a query whose
+ * caller stopped waiting is cancelled there and its connection goes back to the pool.
+ *
+ * JDBC's Statement.setQueryTimeout, and with it the jakarta.persistence.query.timeout hint,
+ * only has whole seconds (Hibernate rounds 100ms down to no timeout at all), so this sets
+ * Postgres' statement_timeout, which takes milliseconds. Other databases (H2 in tests) are
+ * left unbounded.
+ */
+@Component
+public class StatementTimeout {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean supported;
+
+    public StatementTimeout(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Cancels any later statement of the current transaction still running after {@code millis}.
+     * SET LOCAL ends with the transaction, so the pooled connection is not affected afterwards.
+     */
+    public void apply(long millis) {
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                "A statement timeout only lasts for the transaction it is set in");
+        if (supported()) {
+            // 0 would mean no timeout
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + Math.max(1, millis));
+        }
+    }
+
+    private boolean supported() {
+        Boolean postgres = supported;
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            supported = postgres;
+        }
+        return Boolean.TRUE.equals(postgres);
+    }
+}
@@ -0,0 +1,68 @@
+package com.plaintext.core.tag;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the #hashtags and @mentions of a post. A sigil only counts at the start of the text or
+ * after a character that cannot be part of a word, so "C#" and "bob@example.com" yield nothing.
+ * Hashtags are lower-cased ("#Java" and "#java" are one tag); mentions keep the username's case,
+ * since usernames are case-sensitive.
+ */
+public final class TagExtractor {
+    public static final char HASHTAG = '#';
+    public static final char MENTION = '@';
+    static final int MAX_HASHTAG_LENGTH = 50;
+    // Matches the username rule enforced at signup
+    static final int MIN_USERNAME_LENGTH = 3;
+    static final int MAX_USERNAME_LENGTH = 20;
+    // Bounds the rows one post can add to post_tags
+    static final int MAX_TAGS_PER_POST = 20;
+
+    private TagExtractor() {
+    }
+
+    /**
+     * @return distinct tags with their sigil, in order of first appearance, at most {@link #MAX_TAGS_PER_POST}
+     */
+    public static List<String> extract(String content) {
+        Set<String> tags = new LinkedHashSet<>();
+        int i = 0;
+        while (i < content.length() && tags.size() < MAX_TAGS_PER_POST) {
+            char sigil = content.charAt(i);
+            if ((sigil != HASHTAG && sigil != MENTION) || (i > 0 && isWordChar(content.charAt(i - 1)))) {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < content.length() && isWordChar(content.charAt(end))) {
+                end++;
+            }
+            int length = end - i - 1;
+            if (sigil == HASHTAG && length >= 1 && length <= MAX_HASHTAG_LENGTH) {
+                tags.add(content.substring(i, end).toLowerCase(Locale.ROOT));
+            } else if (sigil == MENTION && length >= MIN_USERNAME_LENGTH && length <= MAX_USERNAME_LENGTH) {
+                tags.add(content.substring(i, end));
+            }
+            i = Math.max(end, i + 1);
+        }
+        return new ArrayList<>(tags);
+    }
+
+    /** The stored form of a hashtag as typed in a URL, with or without its #. */
+    public static String hashtag(String tag) {
+        String name = tag.startsWith(String.valueOf(HASHTAG)) ? tag.substring(1) : tag;
+        return HASHTAG + name.toLowerCase(Locale.ROOT);
+    }
+
+    public static String mention(String username) {
+        return MENTION + username;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
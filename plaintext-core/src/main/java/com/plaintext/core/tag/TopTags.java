@@ -0,0 +1,208 @@
+package com.plaintext.core.tag;
+
+import com.plaintext.core.dto.TagCountResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Most used hashtags of posts created on this instance, in bounded memory.
+ *
+ * Counts follow the Space-Saving scheme: at most {@code capacity} tags are tracked, and a tag
+ * not tracked yet replaces the least counted one, inheriting its count. Any tag used more often
+ * than total uses / capacity is guaranteed to be tracked, and a reported count overestimates by
+ * at most the inherited part. Counts are halved every decay interval, so the list follows what
+ * is being used now rather than since startup.
+ *
+ * Counters are kept in the stream-summary layout: a list of buckets in ascending count order,
+ * each holding the tags with that count. Counting a use moves a tag to the next bucket and the
+ * least counted tag is always in the first one, so recording is O(1) whatever the capacity.
+ */
+@Component
+public class TopTags {
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private Bucket smallest;
+    private Bucket largest;
+
+    public TopTags(MeterRegistry meterRegistry, @Value("${plaintext.tags.top-capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        Gauge.builder("plaintext.tags.tracked", this, TopTags::tracked)
+                .description("Hashtags held by the top-tag counters")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        for (String tag : event.tags()) {
+            if (tag.charAt(0) == TagExtractor.HASHTAG) {
+                record(tag);
+            }
+        }
+    }
+
+    public synchronized void record(String tag) {
+        Counter counter = counters.get(tag);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(tag);
+                counters.put(tag, counter);
+                Bucket first = smallest != null && smallest.count == 1 ? smallest : insertAfter(null, 1);
+                first.add(counter);
+                return;
+            }
+            // The new tag takes over the least counted one, count included
+            counter = smallest.first;
+            counters.remove(counter.tag);
+            counter.tag = tag;
+            counters.put(tag, counter);
+        }
+        increment(counter);
+    }
+
+    /**
+     * @return up to {@code limit} tags, most used first, with their estimated counts
+     */
+    public synchronized List<TagCountResponse> top(int limit) {
+        List<TagCountResponse> top = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Bucket bucket = largest; bucket != null && top.size() < limit; bucket = bucket.previous) {
+            // Equal counts are listed by name
+            List<String> tags = new ArrayList<>();
+            for (Counter counter = bucket.first; counter != null; counter = counter.next) {
+                tags.add(counter.tag.substring(1));
+            }
+            Collections.sort(tags);
+            for (int i = 0; i < tags.size() && top.size() < limit; i++) {
+                top.add(new TagCountResponse(tags.get(i), bucket.count));
+            }
+        }
+        return top;
+    }
+
+    /** Halves every count and forgets tags that reach zero. */
+    @Scheduled(fixedRateString = "${plaintext.tags.decay-interval-ms:3600000}",
+            initialDelayString = "${plaintext.tags.decay-interval-ms:3600000}")
+    public synchronized void decay() {
+        // Halving keeps the buckets in order, but merges neighbours such as 2 and 3
+        Bucket bucket = smallest;
+        while (bucket != null) {
+            Bucket next = bucket.next;
+            bucket.count /= 2;
+            if (bucket.count == 0) {
+                for (Counter counter = bucket.first; counter != null; counter = counter.next) {
+                    counters.remove(counter.tag);
+                }
+                unlink(bucket);
+            } else if (bucket.previous != null && bucket.previous.count == bucket.count) {
+                while (bucket.first != null) {
+                    Counter counter = bucket.first;
+                    bucket.remove(counter);
+                    bucket.previous.add(counter);
+                }
+                unlink(bucket);
+            }
+            bucket = next;
+        }
+    }
+
+    private synchronized int tracked() {
+        return counters.size();
+    }
+
+    private void increment(Counter counter) {
+        Bucket from = counter.bucket;
+        Bucket to = from.next != null && from.next.count == from.count + 1
+                ? from.next
+                : insertAfter(from, from.count + 1);
+        from.remove(counter);
+        to.add(counter);
+        if (from.first == null) {
+            unlink(from);
+        }
+    }
+
+    // A new empty bucket right after the given one, or first if it is null
+    private Bucket insertAfter(Bucket previous, long count) {
+        Bucket bucket = new Bucket(count);
+        bucket.previous = previous;
+        bucket.next = previous == null ? smallest : previous.next;
+        if (bucket.previous == null) {
+            smallest = bucket;
+        } else {
+            bucket.previous.next = bucket;
+        }
+        if (bucket.next == null) {
+            largest = bucket;
+        } else {
+            bucket.next.previous = bucket;
+        }
+        return bucket;
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.previous == null) {
+            smallest = bucket.next;
+        } else {
+            bucket.previous.next = bucket.next;
+        }
+        if (bucket.next == null) {
+            largest = bucket.previous;
+        } else {
+            bucket.next.previous = bucket.previous;
+        }
+    }
+
+    // The tags sharing one count, as a doubly linked list of counters
+    private static final class Bucket {
+        long count;
+        Bucket previous;
+        Bucket next;
+        Counter first;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+
+        void add(Counter counter) {
+            counter.bucket = this;
+            counter.previous = null;
+            counter.next = first;
+            if (first != null) {
+                first.previous = counter;
+            }
+            first = counter;
+        }
+
+        void remove(Counter counter) {
+            if (counter.previous == null) {
+                first = counter.next;
+            } else {
+                counter.previous.next = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.previous = counter.previous;
+            }
+        }
+    }
+
+    private static final class Counter {
+        String tag;
+        Bucket bucket;
+        Counter previous;
+        Counter next;
+
+        Counter(String tag) {
+            this.tag = tag;
+        }
+    }
+}
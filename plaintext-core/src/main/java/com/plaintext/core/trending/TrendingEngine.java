@@ -0,0 +1,319 @@
+package com.plaintext.core.trending;
+
+import com.plaintext.core.event.PostEngagementEvent;
+import com.plaintext.core.event.PostsModeratedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Trending posts of this instance: every like and comment adds to its post's score, and scores
+ * decay exponentially with a configurable half-life, so a post trends while it is being engaged
+ * with now.
+ *
+ * Scores use forward decay: an event at time t adds weight * e^(λ(t - landmark)) instead of
+ * decaying every score as time passes. All scores shrink by the same factor at any moment, so
+ * ranks only change when a post gets an event, and the top {@code top-size} posts are kept in a
+ * sorted set updated in O(log K) per event and read in O(K). Scores are rescaled to a new
+ * landmark before they can overflow.
+ *
+ * One case is approximate: a ranked post losing a like stays ranked until an unranked post
+ * outscores it on its own next event, or until the next checkpoint rebuilds the ranking.
+ * Scores are checkpointed to trending_scores periodically and on shutdown, and restored on
+ * startup; events between the last checkpoint and a crash are lost. Each instance checkpoints
+ * to and restores from its own partition, keyed by {@code instance-id}, so instances sharing
+ * the database do not overwrite each other's scores. The id is required and must survive a
+ * restart: a partition nobody restores is only deleted once it has decayed away.
+ */
+@Slf4j
+@Component
+public class TrendingEngine implements SmartInitializingSingleton {
+    private static final String SELECT_SQL =
+            "SELECT post_id, score, checkpointed_at FROM trending_scores WHERE instance_id = ?";
+    // This instance's previous checkpoint, and any instance's rows that have decayed away
+    private static final String DELETE_SQL =
+            "DELETE FROM trending_scores WHERE instance_id = ? OR checkpointed_at < ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO trending_scores (instance_id, post_id, score, checkpointed_at) VALUES (?, ?, ?, ?)";
+    // After this many half-lives a score has shrunk by 2^-20, under min-score unless it was huge
+    private static final int STALE_HALF_LIVES = 20;
+    // e^40 is about 2e17: far from overflow, while keeping boosted scores well within double precision
+    private static final double MAX_EXPONENT = 40;
+    private static final Comparator<Entry> RANK = Comparator.comparingDouble((Entry entry) -> entry.boosted)
+            .reversed()
+            .thenComparing(entry -> entry.postId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final String instanceId;
+    private final Duration staleAfter;
+    private final Timer checkpointTimer;
+    private final double decayPerSecond;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final int topSize;
+    private final int maxTracked;
+    private final double minScore;
+
+    private final Map<UUID, Entry> scores = new HashMap<>();
+    private final TreeSet<Entry> top = new TreeSet<>(RANK);
+    // Epoch seconds at which boosted scores equal actual scores
+    private double landmark;
+
+    public TrendingEngine(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${plaintext.trending.half-life:6h}") Duration halfLife,
+                          @Value("${plaintext.trending.like-weight:1.0}") double likeWeight,
+                          @Value("${plaintext.trending.comment-weight:3.0}") double commentWeight,
+                          @Value("${plaintext.trending.top-size:100}") int topSize,
+                          @Value("${plaintext.trending.max-tracked:50000}") int maxTracked,
+                          @Value("${plaintext.trending.min-score:0.05}") double minScore,
+                          @Value("${plaintext.trending.instance-id:}") String instanceId) {
+        if (!StringUtils.hasText(instanceId)) {
+            throw new IllegalStateException("plaintext.trending.instance-id is not set; give each instance "
+                    + "an id that stays the same across restarts, so it restores its trending scores");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.instanceId = instanceId;
+        this.staleAfter = halfLife.multipliedBy(STALE_HALF_LIVES);
+        this.decayPerSecond = Math.log(2) / halfLife.toSeconds();
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.topSize = topSize;
+        this.maxTracked = maxTracked;
+        this.minScore = minScore;
+        this.landmark = seconds(System.currentTimeMillis());
+
+        this.checkpointTimer = Timer.builder("plaintext.trending.checkpoint").register(meterRegistry);
+        Gauge.builder("plaintext.trending.tracked", this, TrendingEngine::tracked)
+                .description("Posts with a trending score")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores the last checkpoint before the web server starts, so no live event can be
+     * counted twice or overwritten.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDateTime checkpointedAt = LocalDateTime.now();
+        long now = System.currentTimeMillis();
+        List<Checkpointed> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> new Checkpointed(
+                rs.getObject("post_id", UUID.class),
+                rs.getDouble("score"),
+                rs.getObject("checkpointed_at", LocalDateTime.class)), instanceId);
+        for (Checkpointed row : rows) {
+            double age = Duration.between(row.checkpointedAt(), checkpointedAt).toMillis() / 1000.0;
+            double score = row.score() * Math.exp(-decayPerSecond * Math.max(0, age));
+            if (score >= minScore) {
+                record(row.postId(), score, now);
+            }
+        }
+        log.info("Restored {} trending scores of instance {}", tracked(), instanceId);
+    }
+
+    @TransactionalEventListener
+    public void onEngagement(PostEngagementEvent event) {
+        double weight = event.likesDelta() * likeWeight + event.commentsDelta() * commentWeight;
+        if (weight != 0) {
+            record(event.postId(), weight, System.currentTimeMillis());
+        }
+    }
+
+    @EventListener
+    public void onModerated(PostsModeratedEvent event) {
+        for (PostsModeratedEvent.ModeratedPost post : event.posts()) {
+            if (post.status().isHidden()) {
+                remove(post.postId());
+            }
+        }
+    }
+
+    /**
+     * Adds {@code weight} to the post's score as of {@code now}; a negative weight takes back
+     * an earlier event. Posts whose score drops to zero are forgotten.
+     */
+    public synchronized void record(UUID postId, double weight, long now) {
+        double exponent = decayPerSecond * (seconds(now) - landmark);
+        if (exponent > MAX_EXPONENT) {
+            rebuild(now);
+            exponent = 0;
+        }
+        double boost = weight * Math.exp(exponent);
+        Entry entry = scores.get(postId);
+        if (entry == null) {
+            if (boost <= 0) {
+                return; // takes back an event that has decayed away already
+            }
+            if (scores.size() >= maxTracked) {
+                evict(now);
+            }
+            entry = new Entry(postId);
+            scores.put(postId, entry);
+        } else if (entry.ranked) {
+            // Out of the set before its sort key changes
+            top.remove(entry);
+            entry.ranked = false;
+        }
+        entry.boosted += boost;
+        if (entry.boosted <= 0) {
+            scores.remove(postId);
+            return;
+        }
+        offer(entry);
+    }
+
+    public synchronized void remove(UUID postId) {
+        Entry entry = scores.remove(postId);
+        if (entry != null && entry.ranked) {
+            top.remove(entry);
+        }
+    }
+
+    /**
+     * @return up to {@code limit} post ids, highest score first
+     */
+    public synchronized List<UUID> top(int limit) {
+        List<UUID> ids = new ArrayList<>(Math.min(limit, top.size()));
+        for (Entry entry : top) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(entry.postId);
+        }
+        return ids;
+    }
+
+    /**
+     * @return the post's decayed score as of {@code now}, 0 for posts not tracked
+     */
+    public synchronized double score(UUID postId, long now) {
+        Entry entry = scores.get(postId);
+        return entry == null ? 0 : entry.boosted * Math.exp(-decayPerSecond * (seconds(now) - landmark));
+    }
+
+    /**
+     * Saves every score above {@code min-score}, replacing this instance's previous checkpoint
+     * in one transaction; other instances' partitions are left alone unless they have decayed
+     * away. Also moves the landmark to now, drops decayed scores and rebuilds the ranking exactly.
+     */
+    @Scheduled(fixedDelayString = "${plaintext.trending.checkpoint-interval-ms:60000}",
+            initialDelayString = "${plaintext.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        LocalDateTime checkpointedAt = LocalDateTime.now();
+        List<Object[]> batch;
+        synchronized (this) {
+            rebuild(System.currentTimeMillis());
+            batch = new ArrayList<>(scores.size());
+            for (Entry entry : scores.values()) {
+                batch.add(new Object[] { instanceId, entry.postId, entry.boosted, checkpointedAt });
+            }
+        }
+        try {
+            checkpointTimer.record(() -> transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_SQL, instanceId, checkpointedAt.minus(staleAfter));
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Trending checkpoint of {} scores failed; keeping the previous one", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    synchronized int tracked() {
+        return scores.size();
+    }
+
+    // Rescales to a landmark of now, forgets scores under min-score and re-ranks from scratch
+    private void rebuild(long now) {
+        double factor = Math.exp(-decayPerSecond * (seconds(now) - landmark));
+        landmark = seconds(now);
+        scores.values().removeIf(entry -> {
+            entry.boosted *= factor;
+            entry.ranked = false;
+            return entry.boosted < minScore;
+        });
+        top.clear();
+        scores.values().forEach(this::offer);
+    }
+
+    // Makes room when max-tracked is reached: drops unranked posts lowest first, all of those
+    // decayed under min-score and at least a quarter of the limit, so this runs rarely
+    private void evict(long now) {
+        double floor = minScore * Math.exp(decayPerSecond * (seconds(now) - landmark));
+        List<Entry> unranked = new ArrayList<>(scores.size());
+        for (Entry entry : scores.values()) {
+            if (!entry.ranked) {
+                unranked.add(entry);
+            }
+        }
+        unranked.sort(Comparator.comparingDouble(entry -> entry.boosted));
+        int count = Math.max(1, maxTracked / 4);
+        for (int i = 0; i < unranked.size(); i++) {
+            Entry entry = unranked.get(i);
+            if (i >= count && entry.boosted >= floor) {
+                break;
+            }
+            scores.remove(entry.postId);
+        }
+    }
+
+    private void offer(Entry entry) {
+        if (top.size() >= topSize) {
+            Entry last = top.last();
+            if (RANK.compare(entry, last) > 0) {
+                return;
+            }
+            top.pollLast();
+            last.ranked = false;
+        }
+        top.add(entry);
+        entry.ranked = true;
+    }
+
+    private static double seconds(long epochMillis) {
+        return epochMillis / 1000.0;
+    }
+
+    private record Checkpointed(UUID postId, double score, LocalDateTime checkpointedAt) {
+    }
+
+    private static final class Entry {
+        final UUID postId;
+        // Score at the landmark; actual score = boosted * e^(-λ(now - landmark))
+        double boosted;
+        boolean ranked;
+
+        Entry(UUID postId) {
+            this.postId = postId;
+        }
+    }
+}
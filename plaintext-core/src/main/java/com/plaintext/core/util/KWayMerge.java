@@ -0,0 +1,48 @@
+package com.plaintext.core.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Merges already-sorted streams into one sorted list, dropping duplicate keys.
+ * Cost is O(limit * log k) for k streams, independent of how long each stream is.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    public static <T, K> List<T> merge(List<List<T>> streams, Comparator<? super T> order, int limit,
+            Function<? super T, K> key) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> order.compare(a.value, b.value));
+        for (List<T> stream : streams) {
+            Iterator<T> it = stream.iterator();
+            if (it.hasNext()) {
+                heads.add(new Head<>(it.next(), it));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        Set<K> seen = new HashSet<>();
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            if (seen.add(key.apply(head.value))) {
+                merged.add(head.value);
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+}
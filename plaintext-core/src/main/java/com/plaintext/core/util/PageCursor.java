@@ -0,0 +1,64 @@
+package com.plaintext.core.util;
+
+import com.plaintext.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a listing ordered by (created_at, id): newest first for posts,
+ * oldest first for comments. Clients only ever see the opaque Base64 form and hand it back unchanged.
+ */
+public record PageCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * True if a row at (createdAt, id) sorts strictly after this cursor in a
+     * newest-first listing, i.e. belongs on the next page.
+     */
+    public boolean isFollowedBy(LocalDateTime createdAt, UUID id) {
+        int byTime = createdAt.compareTo(this.createdAt);
+        return byTime < 0 || (byTime == 0 && compareIds(id, this.id) < 0);
+    }
+
+    /**
+     * Orders UUIDs the way Postgres does (unsigned, byte by byte). UUID.compareTo
+     * compares signed longs, which disagrees with the database on ties.
+     */
+    public static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        return new PageCursor(createdAt, id).encode();
+    }
+
+    /**
+     * @return the decoded cursor, or null when the client asked for the first page
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, split)), UUID.fromString(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.plaintext.core.util;
+
+import com.plaintext.common.exception.BadRequestException;
+import com.plaintext.core.search.SearchStatistics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset position in search results ordered by (score desc, id desc). Scores include a recency
+ * boost and BM25's collection statistics, so the cursor also pins the instant and the statistics
+ * they were computed with: later pages are ranked exactly as the first one, and posts cannot
+ * drift across a page boundary as they age or as posts are indexed and removed.
+ */
+public record SearchCursor(long asOf, SearchStatistics statistics, double score, UUID id) {
+
+    private static final char SEPARATOR = '|';
+    private static final char LIST_SEPARATOR = ',';
+
+    /**
+     * True if a hit with this score and id sorts strictly after the cursor, i.e. belongs on the next page.
+     */
+    public boolean isFollowedBy(double score, UUID id) {
+        int byScore = Double.compare(score, this.score);
+        return byScore < 0 || (byScore == 0 && PageCursor.compareIds(id, this.id) < 0);
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder()
+                .append(asOf).append(SEPARATOR)
+                .append(statistics.documents()).append(SEPARATOR)
+                .append(statistics.averageLength()).append(SEPARATOR);
+        List<Integer> frequencies = statistics.documentFrequencies();
+        for (int i = 0; i < frequencies.size(); i++) {
+            if (i > 0) {
+                raw.append(LIST_SEPARATOR);
+            }
+            raw.append(frequencies.get(i));
+        }
+        raw.append(SEPARATOR).append(score).append(SEPARATOR).append(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null when the client asked for the first page
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 6) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            int documents = Integer.parseInt(parts[1]);
+            double averageLength = Double.parseDouble(parts[2]);
+            List<Integer> frequencies = new ArrayList<>();
+            for (String frequency : parts[3].split(String.valueOf(LIST_SEPARATOR), -1)) {
+                frequencies.add(Integer.parseInt(frequency));
+            }
+            if (documents < 0 || !(averageLength >= 0) || frequencies.stream().anyMatch(df -> df < 0)) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            return new SearchCursor(Long.parseLong(parts[0]), new SearchStatistics(documents, averageLength, frequencies),
+                    Double.parseDouble(parts[4]), UUID.fromString(parts[5]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.plaintext.core.cache;
+
+import com.plaintext.core.dto.CommentResponse;
+import com.plaintext.core.event.CommentAddedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommentPageCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void firstPage_LoadsOnceThenServesAnyLimitFromMemory() {
+        CommentPageCache cache = new CommentPageCache(10, registry);
+        UUID postId = UUID.randomUUID();
+        List<CommentResponse> thread = comments(CommentPageCache.ROWS_PER_POST);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(21, cache.firstPage(postId, 21, () -> load(loads, thread)).size());
+        assertEquals(5, cache.firstPage(postId, 5, () -> load(loads, thread)).size());
+        assertEquals(thread, cache.firstPage(postId, CommentPageCache.ROWS_PER_POST, () -> load(loads, thread)));
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, registry.counter("plaintext.comments.cache", "result", "hit").count());
+        assertEquals(1.0, registry.counter("plaintext.comments.cache", "result", "miss").count());
+    }
+
+    @Test
+    void onCommentAdded_AppendsToShortThreadsOnly() {
+        CommentPageCache cache = new CommentPageCache(10, registry);
+        UUID shortPost = UUID.randomUUID();
+        UUID fullPost = UUID.randomUUID();
+        cache.firstPage(shortPost, 21, () -> comments(2));
+        cache.firstPage(fullPost, 21, () -> comments(CommentPageCache.ROWS_PER_POST));
+
+        CommentResponse added = comment(base.plusHours(1));
+        cache.onCommentAdded(new CommentAddedEvent(shortPost, added));
+        cache.onCommentAdded(new CommentAddedEvent(shortPost, added)); // duplicate delivery
+        cache.onCommentAdded(new CommentAddedEvent(fullPost, added));
+
+        List<CommentResponse> shortThread = cache.firstPage(shortPost, 21, List::of);
+        assertEquals(3, shortThread.size());
+        assertEquals(added, shortThread.get(2));
+        List<CommentResponse> fullThread = cache.firstPage(fullPost, CommentPageCache.ROWS_PER_POST, List::of);
+        assertEquals(CommentPageCache.ROWS_PER_POST, fullThread.size());
+    }
+
+    @Test
+    void firstPage_DoesNotCacheALoadThatRacedWithANewComment() {
+        CommentPageCache cache = new CommentPageCache(10, registry);
+        UUID postId = UUID.randomUUID();
+        List<CommentResponse> stale = comments(2);
+
+        cache.firstPage(postId, 21, () -> {
+            // A comment commits while the (stale) load is in flight
+            cache.onCommentAdded(new CommentAddedEvent(postId, comment(base.plusHours(1))));
+            return stale;
+        });
+
+        assertEquals(3, cache.firstPage(postId, 21, () -> {
+            List<CommentResponse> fresh = new ArrayList<>(stale);
+            fresh.add(comment(base.plusHours(1)));
+            return fresh;
+        }).size());
+        assertEquals(2.0, registry.counter("plaintext.comments.cache", "result", "miss").count());
+    }
+
+    @Test
+    void evictsLeastRecentlyReadPost() {
+        CommentPageCache cache = new CommentPageCache(2, registry);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.firstPage(first, 21, () -> comments(1));
+        cache.firstPage(second, 21, () -> comments(1));
+        cache.firstPage(first, 21, List::of); // first is now the most recently read
+        cache.firstPage(third, 21, () -> comments(1));
+
+        assertEquals(1, cache.firstPage(first, 21, List::of).size());
+        assertEquals(0, cache.firstPage(second, 21, List::of).size());
+        assertEquals(2.0, registry.counter("plaintext.comments.cache.evictions").count());
+    }
+
+    private static List<CommentResponse> load(AtomicInteger loads, List<CommentResponse> rows) {
+        loads.incrementAndGet();
+        return rows;
+    }
+
+    private List<CommentResponse> comments(int count) {
+        List<CommentResponse> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            comments.add(comment(base.plusMinutes(i)));
+        }
+        return comments;
+    }
+
+    private CommentResponse comment(LocalDateTime createdAt) {
+        return new CommentResponse(UUID.randomUUID(), "text", "user", createdAt);
+    }
+}
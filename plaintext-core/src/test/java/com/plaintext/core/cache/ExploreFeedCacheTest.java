@@ -0,0 +1,136 @@
+package com.plaintext.core.cache;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.event.PostEngagementEvent;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.event.PostsModeratedEvent.ModeratedPost;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.util.PageCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExploreFeedCacheTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void page_ServesNewestPostsAndPagesWithCursor() {
+        List<PostResponse> stored = posts(3);
+        when(postRepository.findLatest(Limit.of(5))).thenReturn(stored);
+        ExploreFeedCache cache = new ExploreFeedCache(postRepository, 5);
+        cache.afterSingletonsInstantiated();
+
+        PostResponse created = post(base.plusMinutes(10));
+        cache.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), created, List.of()));
+
+        List<PostResponse> first = cache.page(null, 2).orElseThrow();
+        assertEquals(List.of(created, stored.get(0)), first);
+
+        PageCursor cursor = new PageCursor(first.get(1).getCreatedAt(), first.get(1).getId());
+        assertEquals(List.of(stored.get(1), stored.get(2)), cache.page(cursor, 3).orElseThrow());
+    }
+
+    @Test
+    void page_FallsBackOnceOlderPostsWereEvicted() {
+        List<PostResponse> stored = posts(3);
+        when(postRepository.findLatest(Limit.of(3))).thenReturn(stored);
+        ExploreFeedCache cache = new ExploreFeedCache(postRepository, 3);
+        cache.afterSingletonsInstantiated();
+
+        cache.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), post(base.plusMinutes(10)), List.of()));
+
+        PostResponse oldestCached = stored.get(1);
+        PageCursor cursor = new PageCursor(oldestCached.getCreatedAt(), oldestCached.getId());
+        assertTrue(cache.page(cursor, 2).isEmpty());
+    }
+
+    @Test
+    void onEngagement_SwapsInUpdatedSnapshot() {
+        List<PostResponse> stored = posts(1);
+        when(postRepository.findLatest(Limit.of(4))).thenReturn(stored);
+        ExploreFeedCache cache = new ExploreFeedCache(postRepository, 4);
+        cache.afterSingletonsInstantiated();
+
+        cache.onEngagement(new PostEngagementEvent(stored.get(0).getId(), 1, 2, "user"));
+
+        PostResponse cached = cache.page(null, 1).orElseThrow().get(0);
+        assertEquals(1, cached.getLikesCount());
+        assertEquals(2, cached.getCommentsCount());
+        assertEquals(0, stored.get(0).getLikesCount()); // original snapshot untouched
+    }
+
+    @Test
+    void onModerated_DropsRejectedPostsAndUpdatesOthers() {
+        List<PostResponse> stored = posts(2);
+        when(postRepository.findLatest(Limit.of(4))).thenReturn(stored);
+        ExploreFeedCache cache = new ExploreFeedCache(postRepository, 4);
+        cache.afterSingletonsInstantiated();
+
+        cache.onModerated(new PostsModeratedEvent(List.of(
+                new ModeratedPost(stored.get(0).getId(), "user", ModerationStatus.REJECTED, 80),
+                new ModeratedPost(stored.get(1).getId(), "user", ModerationStatus.APPROVED, 10))));
+
+        List<PostResponse> page = cache.page(null, 2).orElseThrow();
+        assertEquals(1, page.size());
+        assertEquals(stored.get(1).getId(), page.get(0).getId());
+        assertEquals(ModerationStatus.APPROVED, page.get(0).getModerationStatus());
+        assertEquals(10, page.get(0).getModerationScore());
+    }
+
+    @Test
+    void page_KeepsFeedOrderAndEvictsTheOldestWhenPostsArriveOutOfOrder() {
+        when(postRepository.findLatest(Limit.of(3))).thenReturn(List.of());
+        ExploreFeedCache cache = new ExploreFeedCache(postRepository, 3);
+        cache.afterSingletonsInstantiated();
+
+        // Commits can publish posts out of createdAt order; same-instant posts tie-break by id
+        PostResponse middle = post(base.plusMinutes(5));
+        PostResponse newest = post(base.plusMinutes(9));
+        PostResponse oldest = post(base.plusMinutes(1));
+        PostResponse tied = PostResponse.builder().id(new UUID(-1, -1)).createdAt(middle.getCreatedAt())
+                .likesCount(0).commentsCount(0).build();
+        for (PostResponse post : List.of(middle, newest, oldest, tied)) {
+            cache.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), post, List.of()));
+        }
+
+        // The unsigned-highest id sorts first among equal timestamps, as in Postgres
+        List<PostResponse> first = cache.page(null, 2).orElseThrow();
+        assertEquals(List.of(newest, tied), first);
+        PageCursor cursor = new PageCursor(tied.getCreatedAt(), tied.getId());
+        assertEquals(List.of(middle), cache.page(cursor, 1).orElseThrow());
+        // The oldest post was evicted, so a page past the middle one needs the database
+        PageCursor last = new PageCursor(middle.getCreatedAt(), middle.getId());
+        assertTrue(cache.page(last, 1).isEmpty());
+    }
+
+    // Newest first, like the repository returns them
+    private List<PostResponse> posts(int count) {
+        List<PostResponse> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(post(base.minusMinutes(i)));
+        }
+        return posts;
+    }
+
+    private static PostResponse post(LocalDateTime createdAt) {
+        return PostResponse.builder().id(UUID.randomUUID()).createdAt(createdAt).likesCount(0).commentsCount(0).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.plaintext.core.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AsyncConfigTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void searchIndexExecutor_DropsAndCountsOverflowInsteadOfRunningItOnTheCaller() throws Exception {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().searchIndexExecutor(meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One running task plus a full queue
+            for (int i = 0; i <= executor.getQueueCapacity(); i++) {
+                executor.execute(() -> await(release));
+            }
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+            executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+            assertEquals(1, meterRegistry.get("plaintext.search.additions.rejected").counter().count());
+            release.countDown();
+            executor.shutdown();
+            executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS);
+            assertNull(ranOn.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
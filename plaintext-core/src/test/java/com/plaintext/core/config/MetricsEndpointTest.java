@@ -0,0 +1,87 @@
+package com.plaintext.core.config;
+
+import com.plaintext.core.service.PostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Full context on H2: services are timed through @Timed, and the scrape endpoint is reachable
+ * without a token on the management port only.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=metrics",
+        "management.server.port=0"
+})
+class MetricsEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void serviceCallsAreTimedAndScraped() throws Exception {
+        postService.getExploreFeed(null, 20);
+
+        assertEquals(1, meterRegistry.get("plaintext.service")
+                .tag("class", PostService.class.getName())
+                .tag("method", "getExploreFeed")
+                .timer().count());
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        String body = scrape.body();
+        assertTrue(body.contains("plaintext_service_seconds_bucket{"), "service timer histogram");
+        assertTrue(body.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool wait histogram");
+        assertTrue(body.contains("plaintext_jwt_verification_seconds_count{"), "JWT verification timer");
+        assertTrue(body.contains("application=\"plaintext-core\""), "common application tag");
+    }
+
+    @Test
+    void actuatorIsNotServedOnThePublicPort() throws Exception {
+        HttpResponse<String> unauthorized = get(port, "/actuator/prometheus");
+        assertEquals(401, unauthorized.statusCode());
+        JsonNode error = jsonMapper.readTree(unauthorized.body());
+        assertEquals(401, error.get("status").asInt());
+        assertEquals("Unauthorized", error.get("error").asString());
+        assertEquals("/actuator/prometheus", error.get("path").asString());
+        assertTrue(error.get("timestamp").isString(), "ISO-8601 timestamp");
+        assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+    }
+
+    private static HttpResponse<String> get(int port, String path) throws Exception {
+        return HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
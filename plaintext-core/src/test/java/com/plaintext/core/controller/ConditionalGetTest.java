@@ -0,0 +1,165 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ContentVersions;
+import com.plaintext.core.counter.PostCounterAggregator;
+import com.plaintext.core.dto.CommentRequest;
+import com.plaintext.core.dto.PostRequest;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.service.InteractionService;
+import com.plaintext.core.service.PostService;
+import com.plaintext.core.sql.QueryBudget;
+import com.plaintext.core.sql.SqlAccountingFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Polling with If-None-Match against a real context on H2: unchanged resources are answered
+ * with 304 without a single SQL statement, and every write that changes a page changes its tag.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=conditional"
+})
+class ConditionalGetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlAccountingFilter sqlAccountingFilter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    @Autowired
+    private PostCounterAggregator counterAggregator;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    private MockMvc mockMvc;
+    private AuthenticatedUser author;
+    private AuthenticatedUser reader;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(sqlAccountingFilter).build();
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User authorRow = userRepository.save(user("a" + suffix));
+        User readerRow = userRepository.save(user("r" + suffix));
+        author = new AuthenticatedUser(authorRow.getId(), authorRow.getUsername(), authorRow.getRole());
+        reader = new AuthenticatedUser(readerRow.getId(), readerRow.getUsername(), readerRow.getRole());
+        post = postRepository.save(Post.builder()
+                .user(authorRow)
+                .content("hello")
+                .likesCount(0)
+                .commentsCount(0)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .build());
+    }
+
+    @Test
+    void userPosts_UnchangedPollRunsNoQueriesUntilTheAuthorPosts() throws Throwable {
+        String url = "/api/posts/user/" + author.username();
+        String etag = etagOf(url);
+
+        QueryBudget.expect(0, () -> mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string("")));
+
+        postService.createPost(author, new PostRequest("second", null));
+
+        QueryBudget.expect(1, () -> mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2)));
+    }
+
+    @Test
+    void comments_UnchangedPollRunsNoQueriesUntilACommentIsAdded() throws Throwable {
+        String url = "/api/posts/" + post.getId() + "/comments";
+        String etag = etagOf(url);
+
+        QueryBudget.expect(0, () -> mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isNotModified()));
+
+        interactionService.addComment(reader, post.getId(), comment("nice"));
+
+        mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].text").value("nice"));
+    }
+
+    @Test
+    void feed_UnchangedPollIsNotModifiedAndPostingChangesTheTag() throws Throwable {
+        String etag = etagOf("/api/feed");
+
+        QueryBudget.expect(0, () -> mockMvc.perform(get("/api/feed").header("If-None-Match", etag))
+                .andExpect(status().isNotModified()));
+
+        postService.createPost(author, new PostRequest("news", null));
+
+        mockMvc.perform(get("/api/feed").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].content").value("news"));
+    }
+
+    @Test
+    void flushedCommentCountsChangeTheAuthorTag() {
+        interactionService.addComment(reader, post.getId(), comment("first"));
+        String beforeFlush = contentVersions.authorTag(author.username());
+
+        counterAggregator.flush();
+
+        assertNotEquals(beforeFlush, contentVersions.authorTag(author.username()));
+    }
+
+    private String etagOf(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private static CommentRequest comment(String text) {
+        CommentRequest request = new CommentRequest();
+        request.setText(text);
+        return request;
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
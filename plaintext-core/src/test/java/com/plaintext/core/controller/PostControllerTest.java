@@ -1,31 +1,57 @@
 package com.plaintext.core.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.exception.ResourceNotFoundException;
+import com.plaintext.common.ratelimit.InMemoryRateLimitStore;
+import com.plaintext.common.ratelimit.RateLimitAction;
+import com.plaintext.common.ratelimit.RateLimitProperties;
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ContentVersions;
+import com.plaintext.core.dto.CursorPage;
 import com.plaintext.core.dto.PostRequest;
 import com.plaintext.core.dto.PostResponse;
 import com.plaintext.core.service.PostService;
-import com.plaintext.core.security.AuthTokenFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.MediaType;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,14 +62,27 @@ class PostControllerTest {
     @Mock
     private PostService postService;
 
-    @InjectMocks
-    private PostController postController;
+    @Spy
+    private ContentVersions contentVersions = new ContentVersions(null);
+
+    private final RateLimiter rateLimiter =
+            new RateLimiter(new InMemoryRateLimitStore(), new RateLimitProperties(), new SimpleMeterRegistry());
+    private final AuthenticatedUser viewer = new AuthenticatedUser(java.util.UUID.randomUUID(), "viewer", UserRole.USER);
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(postController).build();
+        PostController postController = new PostController(postService, contentVersions,
+                new SimpleAsyncTaskExecutor(), Duration.ofMinutes(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(postController)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -51,43 +90,14 @@ class PostControllerTest {
         PostRequest request = new PostRequest("Hello World", null);
         java.util.UUID postId = java.util.UUID.randomUUID();
         PostResponse response = new PostResponse(postId, "Hello World", null, "user", 0, 0, LocalDateTime.now(), 0,
-                "APPROVED", false);
-
-        when(postService.createPost(eq("user"), any(PostRequest.class))).thenReturn(response);
-
-        // We mock the Principal here manually if using standalone setup,
-        // OR we just pass a Principal object if the controller accepts it as an
-        // argument.
-        // But since the controller takes 'Authentication', we need to mock it.
-        // However, MockMvc standalone doesn't easily inject Authentication into
-        // arguments without custom HandlerMethodArgumentResolver.
-        // A simpler way for a unit test is to trust that Spring Security fills it,
-        // and here we just verify logic assuming 'user' is passed.
-
-        // Wait, the controller method signature is:
-        // createPost(@RequestBody PostRequest request, Authentication authentication)
-
-        // Standalone MockMvc won't resolve Authentication automatically.
-        // So we can mock the behavior by manually setting the Principal in the request
-        // builder?
-        // Actually, standaloneSetup supports setCustomArgumentResolvers.
-
-        // For simplicity in this unit test, let's assume the controller takes a
-        // Principal or we use a Stub.
-        // OR we can rely on `SecurityContextHolder`.
-
-        // Let's refactor the Test to be a @WebMvcTest slice test? No, that requires
-        // loading context.
-        // Let's stick to unit test. We realize verify the argument resolver is complex
-        // in pure unit test.
-        // Alternative: Pass a mock Principal.
+                ModerationStatus.APPROVED, false);
 
-        // Create a mock Authentication object
-        Authentication auth = org.mockito.Mockito.mock(Authentication.class);
-        when(auth.getName()).thenReturn("user");
+        AuthenticatedUser user = new AuthenticatedUser(java.util.UUID.randomUUID(), "user", UserRole.USER);
+        when(postService.createPost(eq(user), any(PostRequest.class))).thenReturn(response);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
 
         mockMvc.perform(post("/api/posts")
-                .principal(auth)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -97,12 +107,92 @@ class PostControllerTest {
     @Test
     void getGlobalFeed_Success() throws Exception {
         java.util.UUID postId = java.util.UUID.randomUUID();
-        PostResponse post = new PostResponse(postId, "Hello", null, "user", 0, 0, LocalDateTime.now(), 0, "APPROVED",
+        PostResponse post = new PostResponse(postId, "Hello", null, "user", 0, 0, LocalDateTime.now(), 0, ModerationStatus.APPROVED,
                 false);
-        when(postService.getExploreFeed()).thenReturn(List.of(post));
+        when(postService.getExploreFeed(null, 20)).thenReturn(new CursorPage<>(List.of(post), "next"));
 
         mockMvc.perform(get("/api/feed"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].content").value("Hello"));
+                .andExpect(jsonPath("$.items[0].content").value("Hello"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(header().string("ETag", "\"" + contentVersions.feedTag() + "\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getGlobalFeed_UnchangedPollIsNotModifiedWithoutCallingTheService() throws Exception {
+        String etag = "\"" + contentVersions.feedTag() + "\"";
+
+        mockMvc.perform(get("/api/feed").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void getUserPosts_StaleTagGetsTheFullPage() throws Exception {
+        when(postService.getUserPosts("user", null, 20)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/posts/user/user").header("If-None-Match", "\"stale-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + contentVersions.authorTag("user") + "\""))
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    @Test
+    void exportUserPosts_StreamsNdjsonAndFreesTheSlot() throws Exception {
+        authenticate(viewer);
+        when(postService.admitExport(viewer, "user"))
+                .thenAnswer(invocation -> rateLimiter.enter(RateLimitAction.EXPORT, viewer.username()));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"content\":\"a\"}\n{\"content\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(postService).exportUserPosts(eq("user"), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/user/user/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"user-posts.ndjson\""))
+                .andExpect(content().string("{\"content\":\"a\"}\n{\"content\":\"b\"}\n"));
+        // One export at a time per user; this one has finished
+        assertDoesNotThrow(() -> rateLimiter.enter(RateLimitAction.EXPORT, viewer.username()).close());
+    }
+
+    @Test
+    void exportUserPosts_UnknownUserIsNotFoundWithoutStarting() throws Exception {
+        authenticate(viewer);
+        when(postService.admitExport(viewer, "nobody")).thenThrow(new ResourceNotFoundException("User not found."));
+
+        mockMvc.perform(get("/api/posts/user/nobody/export"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+
+        verify(postService, never()).exportUserPosts(any(), any());
+    }
+
+    @Test
+    void exportUserPosts_ExportAlreadyRunningIsRejected() throws Exception {
+        authenticate(viewer);
+        when(postService.admitExport(viewer, "user"))
+                .thenAnswer(invocation -> rateLimiter.enter(RateLimitAction.EXPORT, viewer.username()));
+        try (RateLimiter.Slot running = rateLimiter.enter(RateLimitAction.EXPORT, viewer.username())) {
+            mockMvc.perform(get("/api/posts/user/user/export"))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isTooManyRequests());
+        }
+
+        verify(postService, never()).exportUserPosts(any(), any());
+    }
+
+    private static void authenticate(AuthenticatedUser user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
     }
 }
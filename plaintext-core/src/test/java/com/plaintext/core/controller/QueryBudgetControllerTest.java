@@ -0,0 +1,174 @@
+package com.plaintext.core.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Comment;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.PostRequest;
+import com.plaintext.core.repository.CommentRepository;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.sql.QueryBudget;
+import com.plaintext.core.sql.SqlAccountingFilter;
+import com.plaintext.core.sql.SqlStatisticsHeaderAdvice;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.AbstractFilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.boot.web.servlet.ServletContextInitializerBeans;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint, against a real context on H2. Page sizes are chosen above
+ * the row counts, so a per-row lazy load would show up as a budget overrun.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=budget",
+        "plaintext.sql.response-header=true"
+})
+class QueryBudgetControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlAccountingFilter sqlAccountingFilter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private User author;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(sqlAccountingFilter).build();
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        author = userRepository.save(user("a" + suffix));
+        List<User> commenters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            commenters.add(userRepository.save(user("c" + i + suffix)));
+        }
+        for (int i = 0; i < 5; i++) {
+            post = postRepository.save(Post.builder()
+                    .user(author)
+                    .content("post " + i)
+                    .likesCount(0)
+                    .commentsCount(0)
+                    .moderationStatus(ModerationStatus.APPROVED)
+                    .build());
+        }
+        for (User commenter : commenters) {
+            commentRepository.save(Comment.builder().post(post).user(commenter).content("hi").build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userPostsIsOneQuery() throws Throwable {
+        QueryBudget.expect(1, () -> mockMvc.perform(get("/api/posts/user/" + author.getUsername()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(header().string(SqlStatisticsHeaderAdvice.STATEMENTS_HEADER, "1")));
+    }
+
+    @Test
+    void commentPageIsOneQuery() throws Throwable {
+        QueryBudget.expect(1, () -> mockMvc.perform(get("/api/posts/" + post.getId() + "/comments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5)));
+    }
+
+    @Test
+    void createPostIsOneInsert() throws Throwable {
+        AuthenticatedUser user = new AuthenticatedUser(author.getId(), author.getUsername(), author.getRole());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+
+        QueryBudget.expect(1, () -> mockMvc.perform(post("/api/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PostRequest("Hello", null))))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void legacyTokenLookupIsCharged() throws Exception {
+        // Issued before the id/role claims existed: the auth filter looks the user up by name
+        String legacyToken = Jwts.builder()
+                .subject(author.getUsername())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+                .compact();
+
+        registeredFilters().perform(get("/api/posts/user/" + author.getUsername())
+                        .header("Authorization", "Bearer " + legacyToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsHeaderAdvice.STATEMENTS_HEADER, "2"));
+    }
+
+    /**
+     * Every servlet filter, security chain included, in the order the container registers them.
+     */
+    private MockMvc registeredFilters() {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        for (ServletContextInitializer initializer : new ServletContextInitializerBeans(context)) {
+            if (initializer instanceof AbstractFilterRegistrationBean<?> registration) {
+                builder.addFilters(registration.getFilter());
+            }
+        }
+        return builder.build();
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.PostRequest;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.search.SearchIndex;
+import com.plaintext.core.service.PostService;
+import com.plaintext.core.sql.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Search against a real context on H2: posts become searchable as they are created or loaded,
+ * and a results page costs exactly one statement, the hydrating read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=search"
+})
+class SearchControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private MockMvc mockMvc;
+    private User user;
+    private AuthenticatedUser author;
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("s" + suffix).email("s" + suffix + "@test.com").passwordHash("hash").build());
+        author = new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+        // Unique per test, so posts from other tests never match
+        word = "needle" + suffix;
+    }
+
+    @Test
+    void createdAndLoadedPostsAreFoundWithOneQuery() throws Throwable {
+        Post stored = postRepository.save(post("Stored before startup: " + word));
+        searchIndex.load();
+        PostResponse created = postService.createPost(author, new PostRequest("Fresh " + word + " " + word, null));
+        awaitIndexed(List.of("fresh", word));
+
+        QueryBudget.expect(1, () -> mockMvc.perform(get("/api/search").param("q", word.toUpperCase() + " fresh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(created.getId().toString())));
+
+        String cursor = jsonMapper.readTree(mockMvc.perform(get("/api/search").param("q", word).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(created.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString()).get("nextCursor").asString();
+        mockMvc.perform(get("/api/search").param("q", word).param("cursor", cursor))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(stored.getId().toString()));
+        // The cursor carries the statistics of its own query
+        mockMvc.perform(get("/api/search").param("q", word + " fresh").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search").param("q", word))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[1].id").value(stored.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void rejectedPostsAreNeverReturned() throws Exception {
+        Post post = postRepository.save(post("Rejected " + word));
+        searchIndex.load();
+        post.setModerationStatus(ModerationStatus.REJECTED);
+        postRepository.save(post);
+
+        // Still indexed, since no verdict event was published; hydration filters it out
+        mockMvc.perform(get("/api/search").param("q", word))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void queriesWithoutWordsOrWithTooManyAreRejected() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search").param("q", "one two three four five six seven eight nine"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search").param("q", word).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // New posts are indexed on the indexing thread once they commit
+    private void awaitIndexed(List<String> terms) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (searchIndex.search(terms, searchIndex.statistics(terms), 0, null, 1).isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Not indexed: " + terms);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Post post(String content) {
+        return Post.builder()
+                .user(user)
+                .content(content)
+                .likesCount(0)
+                .commentsCount(0)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .build();
+    }
+}
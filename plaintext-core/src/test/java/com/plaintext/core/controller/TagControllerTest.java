@@ -0,0 +1,155 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.PostRequest;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.service.PostService;
+import com.plaintext.core.sql.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tag and mention pages against a real context on H2: tags are written with the post in one
+ * batched statement, and each page is a single keyset query.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tags;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=tags",
+        "plaintext.rate-limit.rules.post.capacity=10"
+})
+class TagControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private MockMvc mockMvc;
+    private AuthenticatedUser author;
+    private String tag;
+    private String mentioned;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(user("t" + suffix));
+        mentioned = userRepository.save(user("m" + suffix)).getUsername();
+        author = new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+        // Unique per test, so posts from other tests never show up
+        tag = "tag" + suffix;
+    }
+
+    @Test
+    void createPostWritesTagsInOneBatch() throws Throwable {
+        QueryBudget.expect(2, () -> postService.createPost(author,
+                new PostRequest("#" + tag + " #other" + tag + " hi @" + mentioned, null)));
+
+        mockMvc.perform(get("/api/tags/other" + tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void tagPagesAreOneQueryEachWithoutGapsOrRepeats() throws Throwable {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(postService.createPost(author, new PostRequest("Post " + i + " #" + tag.toUpperCase(), null))
+                    .getId().toString());
+        }
+        postService.createPost(author, new PostRequest("No tags here", null));
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String pageCursor = cursor;
+            MvcResult[] result = new MvcResult[1];
+            QueryBudget.expect(1, () -> result[0] = mockMvc.perform(get("/api/tags/{tag}", "#" + tag)
+                            .param("limit", "2").param("cursor", pageCursor))
+                    .andExpect(status().isOk())
+                    .andReturn());
+            JsonNode page = jsonMapper.readTree(result[0].getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asString()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asString();
+        } while (cursor != null);
+
+        // Posts created within one clock tick tie on created_at and follow id order instead
+        assertEquals(5, seen.size());
+        assertEquals(Set.copyOf(created), Set.copyOf(seen));
+    }
+
+    @Test
+    void mentionsListPostsNamingTheUser() throws Exception {
+        PostResponse post = postService.createPost(author, new PostRequest("Thanks @" + mentioned + "!", null));
+        postService.createPost(author, new PostRequest("Mail " + mentioned + "@example.com", null));
+
+        mockMvc.perform(get("/api/users/" + mentioned + "/mentions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(post.getId().toString()));
+    }
+
+    @Test
+    void rejectedPostsLeaveTagPages() throws Exception {
+        PostResponse post = postService.createPost(author, new PostRequest("#" + tag, null));
+        postRepository.findById(post.getId()).ifPresent(p -> {
+            p.setModerationStatus(ModerationStatus.REJECTED);
+            postRepository.save(p);
+        });
+
+        mockMvc.perform(get("/api/tags/" + tag))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void topTagsCountHashtagsOfNewPosts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            postService.createPost(author, new PostRequest("#" + tag + " round " + i, null));
+        }
+
+        mockMvc.perform(get("/api/tags").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.tag == '" + tag + "')].count").value(3));
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.plaintext.core.controller;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.CommentRequest;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.service.InteractionService;
+import com.plaintext.core.sql.QueryBudget;
+import com.plaintext.core.trending.TrendingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Trending posts against a real context on H2: comments rank posts as they commit, a read is
+ * one statement loading the ranked posts, and scores survive a restart through the checkpoint.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trending;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=core-1"
+})
+class TrendingControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private MockMvc mockMvc;
+    private User author;
+    private AuthenticatedUser reader;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        author = userRepository.save(user("a" + suffix));
+        User readerRow = userRepository.save(user("r" + suffix));
+        reader = new AuthenticatedUser(readerRow.getId(), readerRow.getUsername(), readerRow.getRole());
+    }
+
+    @Test
+    void commentedPostsTrendInOrderWithOneQuery() throws Throwable {
+        Post busy = post("busy");
+        Post active = post("active");
+        post("quiet");
+        comment(busy, 2);
+        comment(active, 1);
+
+        MvcResult[] result = new MvcResult[1];
+        QueryBudget.expect(1, () -> result[0] = mockMvc.perform(get("/api/feed/trending").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // Other tests' posts may rank too; only the relative order of this test's posts matters
+        Set<String> mine = Set.of(busy.getId().toString(), active.getId().toString());
+        List<String> ranked = new ArrayList<>();
+        for (JsonNode item : jsonMapper.readTree(result[0].getResponse().getContentAsString())) {
+            String id = item.get("id").asString();
+            if (mine.contains(id)) {
+                ranked.add(id);
+            }
+        }
+        assertEquals(List.of(busy.getId().toString(), active.getId().toString()), ranked);
+    }
+
+    @Test
+    void checkpointRestoresScoresAfterRestart() {
+        Post post = post("remembered");
+        comment(post, 1);
+        long now = System.currentTimeMillis();
+        double score = trendingEngine.score(post.getId(), now);
+
+        trendingEngine.checkpoint();
+        TrendingEngine restarted = engine("core-1");
+        restarted.afterSingletonsInstantiated();
+
+        assertEquals(score, restarted.score(post.getId(), now), 0.01);
+    }
+
+    @Test
+    void checkpointsOfOtherInstancesDoNotOverwriteEachOther() {
+        Post post = post("shared database");
+        comment(post, 1);
+        long now = System.currentTimeMillis();
+        double score = trendingEngine.score(post.getId(), now);
+        trendingEngine.checkpoint();
+
+        // A second instance starts from its own, empty partition and checkpoints it
+        TrendingEngine other = engine("core-2");
+        other.afterSingletonsInstantiated();
+        assertEquals(0, other.score(post.getId(), now));
+        other.checkpoint();
+
+        TrendingEngine restarted = engine("core-1");
+        restarted.afterSingletonsInstantiated();
+        assertEquals(score, restarted.score(post.getId(), now), 0.01);
+    }
+
+    @Test
+    void checkpointDeletesPartitionsThatHaveDecayedAway() {
+        Post post = post("forgotten");
+        // Saved by an instance that was renamed or retired, past 20 half-lives, and by a live one
+        checkpointed("retired", post, LocalDateTime.now().minusDays(6));
+        checkpointed("core-2", post, LocalDateTime.now().minusHours(1));
+
+        trendingEngine.checkpoint();
+
+        assertEquals(List.of("core-2"), jdbcTemplate.queryForList(
+                "SELECT instance_id FROM trending_scores WHERE post_id = ?", String.class, post.getId()));
+    }
+
+    private void checkpointed(String instanceId, Post post, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO trending_scores (instance_id, post_id, score, checkpointed_at) "
+                + "VALUES (?, ?, 100.0, ?)", instanceId, post.getId(), at);
+    }
+
+    private TrendingEngine engine(String instanceId) {
+        return new TrendingEngine(jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofHours(6), 1.0, 3.0, 100, 50000, 0.05, instanceId);
+    }
+
+    private void comment(Post post, int times) {
+        for (int i = 0; i < times; i++) {
+            CommentRequest request = new CommentRequest();
+            request.setText("comment " + i);
+            interactionService.addComment(reader, post.getId(), request);
+        }
+    }
+
+    private Post post(String content) {
+        return postRepository.save(Post.builder()
+                .user(author)
+                .content(content)
+                .likesCount(0)
+                .commentsCount(0)
+                .moderationStatus(ModerationStatus.APPROVED)
+                .build());
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
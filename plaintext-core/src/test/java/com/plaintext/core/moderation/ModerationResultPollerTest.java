@@ -0,0 +1,91 @@
+package com.plaintext.core.moderation;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ContentVersions;
+import com.plaintext.core.dto.PostRequest;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Verdicts written the way plaintext-moderation writes them reach the explore feed cache
+ * and the ETags on the next poll, once each.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:moderation;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "plaintext.trending.instance-id=moderation",
+        "plaintext.moderation.poll-interval-ms=3600000",
+        "plaintext.rate-limit.rules.post.capacity=10"
+})
+class ModerationResultPollerTest {
+
+    @Autowired
+    private ModerationResultPoller poller;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void poll_AppliesVerdictsToTheFeedCacheAndTagsOnce() {
+        String username = "m" + UUID.randomUUID().toString().substring(0, 8);
+        User row = userRepository.save(User.builder()
+                .username(username).email(username + "@test.com").passwordHash("hash").build());
+        AuthenticatedUser author = new AuthenticatedUser(row.getId(), row.getUsername(), row.getRole());
+        PostResponse spam = postService.createPost(author, new PostRequest("spam", null));
+        PostResponse fine = postService.createPost(author, new PostRequest("fine", null));
+        poller.poll();
+
+        judge(spam.getId(), ModerationStatus.REJECTED, 80);
+        judge(fine.getId(), ModerationStatus.APPROVED, 0);
+        String feedTag = contentVersions.feedTag();
+        String authorTag = contentVersions.authorTag(username);
+
+        assertEquals(2, poller.poll());
+
+        List<PostResponse> feed = postService.getExploreFeed(null, 50).getItems();
+        assertFalse(feed.stream().anyMatch(p -> p.getId().equals(spam.getId())));
+        assertEquals(ModerationStatus.APPROVED, feed.stream().filter(p -> p.getId().equals(fine.getId()))
+                .findFirst().orElseThrow().getModerationStatus());
+        assertEquals(List.of(fine.getId()), postService.getUserPosts(username, null, 50).getItems().stream()
+                .map(PostResponse::getId).toList());
+        assertNotEquals(feedTag, contentVersions.feedTag());
+        assertNotEquals(authorTag, contentVersions.authorTag(username));
+
+        String settled = contentVersions.feedTag();
+        assertEquals(0, poller.poll());
+        assertEquals(settled, contentVersions.feedTag());
+    }
+
+    // Same statement shape as plaintext-moderation's verdict update
+    private void judge(UUID postId, ModerationStatus status, int score) {
+        jdbcTemplate.update("UPDATE posts SET moderation_status = ?, moderation_score = ?, moderated_at = LOCALTIMESTAMP WHERE id = ?",
+                status.name(), score, postId);
+    }
+}
@@ -0,0 +1,122 @@
+package com.plaintext.core.ranking;
+
+import com.plaintext.core.repository.EmbeddedPostgresDatabase;
+import com.plaintext.core.sql.StatementTimeout;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Abandoned queries must be cancelled by Postgres itself (statement_timeout), so this runs
+ * against embedded Postgres rather than H2.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each fetch runs in its own transaction
+class CandidateFetcherTest {
+    private static final String SLEEP_SQL = "SELECT 1 FROM pg_sleep(10)";
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabase.register(registry, "candidates");
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fetch_TimedOutQueryIsCancelledAndReleasesItsConnection() throws Exception {
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        CandidateFetcher fetcher = fetcher(4);
+
+        long started = System.nanoTime();
+        Optional<Integer> result = fetcher.fetch(() -> jdbcTemplate.queryForObject(SLEEP_SQL, Integer.class),
+                deadline(Duration.ofMillis(200)));
+
+        assertTrue(result.isEmpty());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        // Cancelled by the server at the deadline, not ten seconds later
+        await(() -> fetcher.running() == 0 && pool.getActiveConnections() == 0, Duration.ofSeconds(3));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity
+                 WHERE state = 'active' AND query = ? AND pid <> pg_backend_pid()
+                """, Integer.class, SLEEP_SQL));
+    }
+
+    @Test
+    void fetch_SkipsTheSourceWhileEveryFetchSlotIsTaken() throws Exception {
+        CandidateFetcher fetcher = fetcher(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Optional<Integer> abandoned = fetcher.fetch(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        }, deadline(Duration.ofMillis(100)));
+        // The abandoned fetch still holds the only slot
+        Optional<Integer> skipped = fetcher.fetch(() -> 2, deadline(Duration.ofSeconds(5)));
+        release.countDown();
+        await(() -> fetcher.running() == 0, Duration.ofSeconds(3));
+
+        assertTrue(abandoned.isEmpty());
+        assertTrue(skipped.isEmpty());
+        assertEquals(1, meterRegistry.get("plaintext.ranking.fetches.skipped").counter().count());
+        assertEquals(Optional.of(3), fetcher.fetch(() -> 3, deadline(Duration.ofSeconds(5))));
+    }
+
+    private CandidateFetcher fetcher(int maxFetches) {
+        return new CandidateFetcher(executor, transactionManager, new StatementTimeout(jdbcTemplate), meterRegistry,
+                maxFetches);
+    }
+
+    private static long deadline(Duration budget) {
+        return System.nanoTime() + budget.toNanos();
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = deadline(timeout);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() - deadline < 0, "Condition not met within " + timeout);
+            Thread.sleep(20);
+        }
+    }
+}
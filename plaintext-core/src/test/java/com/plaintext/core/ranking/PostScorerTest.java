@@ -0,0 +1,62 @@
+package com.plaintext.core.ranking;
+
+import com.plaintext.core.dto.PostResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostScorerTest {
+    private final PostScorer scorer = new PostScorer(Duration.ofHours(12), 3.0, 1.0, 0.5);
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void score_HalvesEveryHalfLife() {
+        double fresh = scorer.score(post("alice", now, 5, 1), Affinity.NONE, now);
+        double older = scorer.score(post("alice", now.minusHours(12), 5, 1), Affinity.NONE, now);
+
+        assertEquals(fresh / 2, older, 1e-9);
+    }
+
+    @Test
+    void score_GrowsWithEngagementCountingCommentsMore() {
+        double none = scorer.score(post("alice", now, 0, 0), Affinity.NONE, now);
+        double liked = scorer.score(post("alice", now, 3, 0), Affinity.NONE, now);
+        double commented = scorer.score(post("alice", now, 0, 1), Affinity.NONE, now);
+        double viral = scorer.score(post("alice", now, 300, 0), Affinity.NONE, now);
+
+        assertEquals(1.0, none, 1e-9);
+        assertEquals(liked, commented, 1e-9);
+        assertTrue(viral > liked);
+        // Logarithmic: a hundred times the likes is worth far less than a hundred times the score
+        assertTrue(viral < 3 * liked);
+    }
+
+    @Test
+    void score_FavorsFollowedAndInteractedWithAuthors() {
+        Affinity affinity = new Affinity(Set.of("friend"), Map.of("favorite", 20.0));
+        PostResponse stranger = post("stranger", now, 2, 0);
+        PostResponse friend = post("friend", now, 2, 0);
+        PostResponse favorite = post("favorite", now, 2, 0);
+
+        double strangerScore = scorer.score(stranger, affinity, now);
+        assertEquals(2 * strangerScore, scorer.score(friend, affinity, now), 1e-9);
+        assertTrue(scorer.score(favorite, affinity, now) > 2 * strangerScore);
+    }
+
+    private static PostResponse post(String username, LocalDateTime createdAt, int likes, int comments) {
+        return PostResponse.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .createdAt(createdAt)
+                .likesCount(likes)
+                .commentsCount(comments)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.plaintext.core.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An embedded Postgres server shared by the test JVM, for the native queries H2 cannot run
+ * (ON CONFLICT, data-modifying CTEs). Each test class gets its own database, so cached
+ * Spring contexts never share rows. The server stops in its own shutdown hook, possibly before
+ * the contexts close, so schemas are created fresh but never dropped.
+ */
+public final class EmbeddedPostgresDatabase {
+    private static EmbeddedPostgres server;
+
+    private EmbeddedPostgresDatabase() {
+    }
+
+    /**
+     * Creates the database {@code name} and points the test context's datasource at it.
+     */
+    public static void register(DynamicPropertyRegistry registry, String name) {
+        EmbeddedPostgres postgres = start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + name);
+            statement.execute("CREATE DATABASE " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create test database " + name, e);
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", name));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+    }
+
+    private static synchronized EmbeddedPostgres start() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded Postgres", e);
+            }
+        }
+        return server;
+    }
+}
@@ -0,0 +1,160 @@
+package com.plaintext.core.repository;
+
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The toggle is Postgres-specific SQL (data-modifying CTE, ON CONFLICT), so this
+ * runs against embedded Postgres rather than H2.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every toggle commits on its own
+class PostLikeToggleConcurrencyTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabase.register(registry, "toggle");
+    }
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void toggle_CountIsExactUnderConcurrentLikes() throws Exception {
+        User author = userRepository.saveAndFlush(user("author"));
+        UUID postId = postRepository.saveAndFlush(Post.builder().user(author).content("viral").build()).getId();
+        List<UUID> likers = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            likers.add(userRepository.saveAndFlush(user("liker" + i)).getId());
+        }
+
+        // Every liker toggles three times (like, unlike, like), all at once
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (UUID likerId : likers) {
+            tasks.add(() -> {
+                int delta = 0;
+                for (int i = 0; i < 3; i++) {
+                    delta += postLikeRepository.toggle(likerId, postId).orElseThrow().delta();
+                }
+                return delta;
+            });
+        }
+        assertEquals(64, runAtOnce(tasks));
+
+        assertEquals(64, postRepository.findById(postId).orElseThrow().getLikesCount());
+        assertEquals(64, likeRows(postId));
+
+        PostLikeRepository.LikeToggle unlike = postLikeRepository.toggle(likers.get(0), postId).orElseThrow();
+        assertFalse(unlike.liked());
+        assertEquals(63, unlike.likesCount());
+        assertEquals(-1, unlike.delta());
+    }
+
+    @Test
+    void toggle_SameLikeTogglingConcurrentlyKeepsCountAndRowsInStep() throws Exception {
+        User author = userRepository.saveAndFlush(user("writer"));
+        UUID postId = postRepository.saveAndFlush(Post.builder().user(author).content("contested").build()).getId();
+        UUID likerId = userRepository.saveAndFlush(user("clicker")).getId();
+
+        // One user double-clicking from many tabs: some toggles lose the race and change nothing
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> postLikeRepository.toggle(likerId, postId).orElseThrow().delta());
+        }
+        int delta = runAtOnce(tasks);
+
+        long rows = likeRows(postId);
+        assertTrue(rows == 0 || rows == 1);
+        assertEquals(rows, delta);
+        assertEquals(rows, postRepository.findById(postId).orElseThrow().getLikesCount().longValue());
+        assertEquals(rows == 1, postLikeRepository.existsByUserIdAndPostId(likerId, postId));
+    }
+
+    @Test
+    void toggle_ClearsEntitiesLoadedEarlierInTheTransaction() {
+        User author = userRepository.saveAndFlush(user("poster"));
+        UUID postId = postRepository.saveAndFlush(Post.builder().user(author).content("cached").build()).getId();
+        UUID likerId = userRepository.saveAndFlush(user("reader")).getId();
+
+        int likesCount = new TransactionTemplate(transactionManager).execute(status -> {
+            postRepository.findById(postId).orElseThrow();
+            postLikeRepository.toggle(likerId, postId).orElseThrow();
+            return postRepository.findById(postId).orElseThrow().getLikesCount();
+        });
+
+        assertEquals(1, likesCount);
+    }
+
+    @Test
+    void toggle_EmptyForMissingPost() {
+        UUID userId = userRepository.saveAndFlush(user("nobody")).getId();
+
+        assertTrue(postLikeRepository.toggle(userId, UUID.randomUUID()).isEmpty());
+    }
+
+    // The tests share one database, so rows are counted per post
+    private long likeRows(UUID postId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM post_likes WHERE post_id = ?", Long.class, postId);
+    }
+
+    // Starts every task on its own virtual thread at the same moment and sums their results
+    private static int runAtOnce(List<Callable<Integer>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Callable<Integer> task : tasks) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            int sum = 0;
+            for (Future<Integer> result : results) {
+                sum += result.get();
+            }
+            return sum;
+        }
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.plaintext.core.repository;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.common.model.Comment;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.PostLike;
+import com.plaintext.common.model.TimelineEntry;
+import com.plaintext.common.model.User;
+import com.plaintext.core.dto.CommentResponse;
+import com.plaintext.core.dto.PostResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    private Statistics statistics;
+    private User firstUser;
+    private Post firstPost;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 5; u++) {
+            User user = entityManager.persist(User.builder()
+                    .username("user" + u)
+                    .email("user" + u + "@test.com")
+                    .passwordHash("hash")
+                    .build());
+            if (firstUser == null) {
+                firstUser = user;
+            }
+            for (int p = 0; p < 4; p++) {
+                Post post = entityManager.persistAndFlush(Post.builder().user(user).content("post " + u + "-" + p)
+                        .build());
+                if (firstPost == null) {
+                    firstPost = post;
+                }
+                entityManager.persist(TimelineEntry.builder().userId(firstUser.getId()).postId(post.getId())
+                        .authorId(user.getId()).createdAt(post.getCreatedAt()).build());
+                entityManager.persist(Comment.builder().user(user).post(firstPost).content("comment " + u + "-" + p)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void feedPage_IsASingleStatement() {
+        List<PostResponse> feed = postRepository.findLatest(Limit.of(50));
+
+        assertEquals(20, feed.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        feed.forEach(p -> assertEquals(p.getContent().substring(5, 6), p.getUsername().substring(4)));
+    }
+
+    @Test
+    void userPostsPage_IsASingleStatement() {
+        List<PostResponse> posts = postRepository.findLatestByUsername("user3", Limit.of(50));
+
+        assertEquals(4, posts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void timelinePage_IsASingleStatement() {
+        List<PostResponse> timeline = timelineRepository.findPage(firstUser.getId(), Limit.of(50));
+
+        assertEquals(20, timeline.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void rejectedPosts_AreLeftOutOfEveryPage() {
+        Post rejected = entityManager.find(Post.class, firstPost.getId());
+        rejected.setModerationStatus(ModerationStatus.REJECTED);
+        entityManager.flush();
+
+        assertEquals(19, postRepository.findLatest(Limit.of(50)).size());
+        assertEquals(3, postRepository.findLatestByUsername("user0", Limit.of(50)).size());
+        assertEquals(3, postRepository.findLatestByAuthor(firstUser.getId(), Limit.of(50)).size());
+        assertEquals(19, timelineRepository.findPage(firstUser.getId(), Limit.of(50)).size());
+    }
+
+    @Test
+    void commentPage_IsASingleStatement() {
+        List<CommentResponse> comments = commentRepository.findPageByPostId(firstPost.getId(), Limit.of(12));
+
+        assertEquals(12, comments.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals("user0", comments.get(0).getUsername());
+
+        CommentResponse last = comments.get(comments.size() - 1);
+        List<CommentResponse> rest = commentRepository.findPageByPostIdAfter(firstPost.getId(),
+                last.getCreatedAt(), last.getId(), Limit.of(50));
+
+        assertEquals(8, rest.size());
+        assertEquals(20, Stream.concat(comments.stream(), rest.stream()).map(CommentResponse::getId).distinct().count());
+    }
+
+    @Test
+    void userPostsStream_IsASingleStatementNewestFirst() {
+        List<PostResponse> streamed;
+        try (Stream<PostResponse> posts = postRepository.streamByUsername("user3")) {
+            streamed = posts.toList();
+        }
+
+        assertEquals(postRepository.findLatestByUsername("user3", Limit.of(50)), streamed);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void affinityHistory_ListsTheAuthorOfEachLikedAndCommentedPost() {
+        User liker = entityManager.find(User.class, firstUser.getId());
+        for (PostResponse post : postRepository.findLatestByUsername("user2", Limit.of(2))) {
+            entityManager.persist(PostLike.builder().user(liker).post(entityManager.find(Post.class, post.getId())).build());
+        }
+        entityManager.flush();
+        statistics.clear();
+
+        assertEquals(List.of("user2", "user2"), postLikeRepository.findLikedAuthors(firstUser.getId(), Limit.of(10)));
+        // firstUser commented four times on its own first post
+        assertEquals(List.of("user0", "user0", "user0"),
+                commentRepository.findCommentedAuthors(firstUser.getId(), Limit.of(3)));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
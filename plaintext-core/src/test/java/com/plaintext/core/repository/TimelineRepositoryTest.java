@@ -0,0 +1,164 @@
+package com.plaintext.core.repository;
+
+import com.plaintext.common.model.Follow;
+import com.plaintext.common.model.Post;
+import com.plaintext.common.model.TimelineEntry;
+import com.plaintext.common.model.User;
+import com.plaintext.core.service.MissedFanOut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fan-out and the backfills are native Postgres inserts (ON CONFLICT DO NOTHING), so this runs
+ * against embedded Postgres rather than H2.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TimelineRepositoryTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabase.register(registry, "timeline");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    private User author;
+    private User follower;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(user("author"));
+        follower = entityManager.persist(user("follower"));
+        other = entityManager.persist(user("other"));
+        entityManager.persist(Follow.builder().follower(follower).following(author).build());
+        entityManager.flush();
+    }
+
+    @Test
+    void fanOut_WritesAuthorAndFollowersOnce() {
+        Post post = post(author, "hello");
+
+        assertEquals(2, timelineRepository.fanOut(post.getId(), author.getId(), post.getCreatedAt()));
+        // A retried fan-out is a no-op
+        assertEquals(0, timelineRepository.fanOut(post.getId(), author.getId(), post.getCreatedAt()));
+
+        assertEquals(List.of(post.getId()), timeline(author));
+        assertEquals(List.of(post.getId()), timeline(follower));
+        assertEquals(List.of(), timeline(other));
+    }
+
+    @Test
+    void insertOwn_WritesOnlyTheAuthor() {
+        Post post = post(author, "hello");
+
+        assertEquals(1, timelineRepository.insertOwn(post.getId(), author.getId(), post.getCreatedAt()));
+
+        assertEquals(List.of(post.getId()), timeline(author));
+        assertEquals(List.of(), timeline(follower));
+    }
+
+    @Test
+    void backfill_CopiesTheNewestPostsUpToTheLimit() {
+        Post oldest = post(author, "first");
+        Post middle = post(author, "second");
+        Post newest = post(author, "third");
+        post(follower, "not the author's");
+        timelineRepository.fanOut(oldest.getId(), author.getId(), oldest.getCreatedAt());
+
+        // The oldest post is already there; the limit still counts it
+        assertEquals(1, timelineRepository.backfill(other.getId(), author.getId(), 1));
+        assertEquals(2, timelineRepository.backfill(other.getId(), author.getId(), 3));
+
+        assertEquals(List.of(newest.getId(), middle.getId(), oldest.getId()), timeline(other));
+    }
+
+    @Test
+    void backfillFollowers_PushesTheNewestPostsToEveryFollower() {
+        User secondFollower = entityManager.persist(user("second"));
+        entityManager.persist(Follow.builder().follower(secondFollower).following(author).build());
+        Post older = post(author, "pulled while a celebrity");
+        Post newer = post(author, "also pulled");
+        timelineRepository.insertOwn(older.getId(), author.getId(), older.getCreatedAt());
+        timelineRepository.insertOwn(newer.getId(), author.getId(), newer.getCreatedAt());
+
+        assertEquals(2, timelineRepository.backfillFollowers(author.getId(), 1));
+
+        assertEquals(List.of(newer.getId()), timeline(follower));
+        assertEquals(List.of(newer.getId()), timeline(secondFollower));
+        assertEquals(List.of(newer.getId(), older.getId()), timeline(author));
+        assertEquals(List.of(), timeline(other));
+    }
+
+    @Test
+    void prune_DeletesOnlyThatAuthorsPosts() {
+        Post authored = post(author, "from the author");
+        Post own = post(follower, "from the follower");
+        timelineRepository.fanOut(authored.getId(), author.getId(), authored.getCreatedAt());
+        timelineRepository.fanOut(own.getId(), follower.getId(), own.getCreatedAt());
+
+        assertEquals(1, timelineRepository.prune(follower.getId(), author.getId()));
+
+        assertEquals(List.of(own.getId()), timeline(follower));
+        assertEquals(List.of(authored.getId()), timeline(author));
+    }
+
+    @Test
+    void findMissedFanOuts_ReturnsPostsMissingFromTheirAuthorsTimeline() {
+        Post fannedOut = post(author, "fanned out");
+        Post pulled = post(author, "pulled while a celebrity");
+        Post dropped = post(author, "dropped from a full queue");
+        timelineRepository.fanOut(fannedOut.getId(), author.getId(), fannedOut.getCreatedAt());
+        timelineRepository.insertOwn(pulled.getId(), author.getId(), pulled.getCreatedAt());
+        // In the follower's timeline but not the author's: its fan-out still never ran
+        entityManager.persist(TimelineEntry.builder().userId(follower.getId()).postId(dropped.getId())
+                .authorId(author.getId()).createdAt(dropped.getCreatedAt()).build());
+        entityManager.flush();
+
+        LocalDateTime createdAt = dropped.getCreatedAt();
+        List<MissedFanOut> missed = timelineRepository.findMissedFanOuts(
+                createdAt.minusMinutes(1), createdAt.plusSeconds(1), Limit.of(10));
+
+        assertEquals(List.of(dropped.getId()), missed.stream().map(MissedFanOut::postId).toList());
+        assertEquals(author.getId(), missed.getFirst().authorId());
+        assertEquals(List.of(), timelineRepository.findMissedFanOuts(
+                createdAt.minusMinutes(2), createdAt.minusMinutes(1), Limit.of(10)));
+    }
+
+    private List<UUID> timeline(User user) {
+        entityManager.clear();
+        return entityManager.getEntityManager()
+                .createQuery("SELECT t FROM TimelineEntry t WHERE t.userId = :userId"
+                        + " ORDER BY t.createdAt DESC, t.postId DESC", TimelineEntry.class)
+                .setParameter("userId", user.getId())
+                .getResultList().stream()
+                .map(TimelineEntry::getPostId)
+                .toList();
+    }
+
+    private Post post(User user, String content) {
+        return entityManager.persistFlushFind(Post.builder().user(user).content(content).build());
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@test.com").passwordHash("hash").build();
+    }
+}
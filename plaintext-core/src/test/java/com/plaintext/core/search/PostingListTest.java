@@ -0,0 +1,68 @@
+package com.plaintext.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostingListTest {
+
+    @Test
+    void advance_LandsOnTheFirstDocAtOrAfterTheTargetAcrossSkipBlocks() {
+        Random random = new Random(3);
+        PostingList list = new PostingList();
+        List<Integer> docs = new ArrayList<>();
+        for (int doc = 0; docs.size() < 100 * PostingList.SKIP_INTERVAL; doc += 1 + random.nextInt(5)) {
+            list.add(doc, 1 + docs.size() % 3);
+            docs.add(doc);
+        }
+        int last = docs.get(docs.size() - 1);
+
+        // Short hops stay within a block, long ones gallop over many
+        for (int maxJump : new int[] {3, 200, 5_000, last}) {
+            PostingList.Cursor cursor = list.cursor();
+            int expected = 0;
+            for (int target = 0; target <= last + 1; target += 1 + random.nextInt(maxJump)) {
+                while (expected < docs.size() && docs.get(expected) < target) {
+                    expected++;
+                }
+                int at = target;
+                int doc = cursor.advance(at);
+                if (expected == docs.size()) {
+                    assertEquals(PostingList.NO_MORE_DOCS, doc);
+                    break;
+                }
+                assertEquals(docs.get(expected), doc, () -> "target " + at);
+                assertEquals(1 + expected % 3, cursor.frequency());
+            }
+        }
+    }
+
+    @Test
+    void compact_DropsAndRenumbersInOrder() {
+        PostingList list = new PostingList();
+        for (int doc = 0; doc < 3 * PostingList.SKIP_INTERVAL; doc++) {
+            list.add(doc, doc + 1);
+        }
+        // Every other doc removed; the rest renumbered 0, 1, 2...
+        int[] renumbered = new int[3 * PostingList.SKIP_INTERVAL];
+        for (int doc = 0; doc < renumbered.length; doc++) {
+            renumbered[doc] = doc % 2 == 0 ? doc / 2 : -1;
+        }
+
+        PostingList compacted = list.compact(renumbered);
+
+        assertEquals(renumbered.length / 2, compacted.documentFrequency());
+        PostingList.Cursor cursor = compacted.cursor();
+        assertEquals(70, cursor.advance(70));
+        assertEquals(141, cursor.frequency());
+        for (int doc = 71; doc < renumbered.length / 2; doc++) {
+            assertEquals(doc, cursor.next());
+            assertEquals(2 * doc + 1, cursor.frequency());
+        }
+        assertEquals(PostingList.NO_MORE_DOCS, cursor.next());
+    }
+}
@@ -0,0 +1,317 @@
+package com.plaintext.core.search;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.event.PostsModeratedEvent.ModeratedPost;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.util.SearchCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private final long asOf = SearchIndex.epochSeconds(now);
+
+    @Test
+    void search_RequiresEveryTerm() {
+        SearchIndex index = index(0);
+        UUID both = add(index, "spring boot tuning guide");
+        add(index, "spring cleaning");
+        UUID boot = add(index, "boot repair");
+
+        assertEquals(List.of(both), ids(search(index, List.of("spring", "boot"), null, 10)));
+        assertEquals(Set.of(both, boot), Set.copyOf(ids(search(index, List.of("boot"), null, 10))));
+        assertTrue(search(index, List.of("spring", "missing"), null, 10).isEmpty());
+    }
+
+    @Test
+    void search_RanksRepeatedTermsInShortPostsFirst() {
+        SearchIndex index = index(0);
+        UUID diluted = add(index, "java and a great many other words besides");
+        UUID focused = add(index, "java java java");
+        UUID once = add(index, "java notes");
+
+        assertEquals(List.of(focused, once, diluted), ids(search(index, List.of("java"), null, 10)));
+    }
+
+    @Test
+    void search_BoostsNewerPostsWithTheSameText() {
+        SearchIndex index = index(1.0);
+        UUID old = add(index, "release notes", now.minusDays(30));
+        UUID fresh = add(index, "release notes", now.minusHours(1));
+
+        List<SearchHit> hits = search(index, List.of("release"), null, 10);
+        assertEquals(List.of(fresh, old), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_FoldsCaseAndAccents() {
+        SearchIndex index = index(0);
+        UUID post = add(index, "Meet me at the Café!");
+
+        assertEquals(List.of(post), ids(search(index, SearchIndex.queryTerms("CAFE"), null, 10)));
+    }
+
+    @Test
+    void search_IntersectionMatchesNaiveScanAcrossSkipBlocks() {
+        SearchIndex index = index(0);
+        Random random = new Random(42);
+        // Frequent, medium and rare words, so lists of very different lengths get intersected
+        String[] words = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        double[] odds = {0.9, 0.5, 0.3, 0.1, 0.05, 0.02, 0.01, 0.005};
+        List<UUID> ids = new ArrayList<>();
+        List<Set<String>> contents = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Set<String> content = new HashSet<>();
+            for (int w = 0; w < words.length; w++) {
+                if (random.nextDouble() < odds[w]) {
+                    content.add(words[w]);
+                }
+            }
+            ids.add(add(index, String.join(" ", content)));
+            contents.add(content);
+        }
+
+        for (List<String> query : List.of(List.of("a", "b"), List.of("a", "h"), List.of("b", "c", "f"),
+                List.of("a", "b", "c", "d", "e"), List.of("g", "h"))) {
+            Set<UUID> expected = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (contents.get(i).containsAll(query)) {
+                    expected.add(ids.get(i));
+                }
+            }
+            List<SearchHit> hits = search(index, query, null, ids.size());
+            assertEquals(expected, Set.copyOf(ids(hits)), () -> "query " + query);
+            assertEquals(expected.size(), hits.size());
+        }
+    }
+
+    @Test
+    void search_PagesWithCursorWithoutGapsOrRepeats() {
+        SearchIndex index = index(1.0);
+        Set<UUID> all = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            all.add(add(index, "word ".repeat(1 + i % 3) + "filler " + i, now.minusMinutes(i)));
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        SearchStatistics statistics = index.statistics(List.of("word"));
+        SearchCursor after = null;
+        while (true) {
+            List<SearchHit> hits = search(index, List.of("word"), after, 7);
+            List<SearchHit> page = hits.subList(0, Math.min(6, hits.size()));
+            seen.addAll(ids(page));
+            if (hits.size() <= 6) {
+                break;
+            }
+            SearchHit last = page.get(page.size() - 1);
+            after = new SearchCursor(asOf, statistics, last.score(), last.postId());
+        }
+        assertEquals(25, seen.size());
+        assertEquals(all, Set.copyOf(seen));
+    }
+
+    @Test
+    void search_LaterPagesScoreWithTheFirstPagesStatistics() {
+        SearchIndex index = index(0);
+        for (int i = 0; i < 10; i++) {
+            add(index, "word " + "filler ".repeat(i));
+        }
+        List<String> terms = List.of("word");
+        SearchStatistics statistics = index.statistics(terms);
+        List<SearchHit> all = search(index, terms, null, 10);
+        SearchHit last = all.get(4);
+        SearchCursor after = new SearchCursor(asOf, statistics, last.score(), last.postId());
+
+        // Posts indexed meanwhile change N and the average length
+        for (int i = 0; i < 50; i++) {
+            add(index, "something else entirely, at some length " + i);
+        }
+
+        assertEquals(all.subList(5, 10), search(index, terms, after, 10));
+        assertNotEquals(all.get(0).score(), index.search(terms, index.statistics(terms), asOf, null, 1).get(0).score());
+    }
+
+    @Test
+    void onModerated_DropsRejectedPosts() {
+        SearchIndex index = index(0);
+        UUID kept = add(index, "hello world");
+        UUID rejected = add(index, "hello spam");
+
+        index.onModerated(new PostsModeratedEvent(List.of(
+                new ModeratedPost(kept, "alice", ModerationStatus.APPROVED, 0),
+                new ModeratedPost(rejected, "bob", ModerationStatus.REJECTED, 100))));
+
+        assertEquals(List.of(kept), ids(search(index, List.of("hello"), null, 10)));
+    }
+
+    @Test
+    void onModerated_CompactsOnceAFifthOfThePostsAreRemoved() {
+        SearchIndex index = index(0);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(add(index, "post number " + i));
+        }
+
+        index.onModerated(rejected(ids.get(0)));
+        assertEquals(1, gauge("plaintext.search.removed"));
+        assertEquals(12, gauge("plaintext.search.terms"));
+
+        index.onModerated(rejected(ids.get(1), ids.get(2)));
+        assertEquals(0, gauge("plaintext.search.removed"));
+        assertEquals(7, gauge("plaintext.search.documents"));
+        // The digits of the removed posts were their only postings
+        assertEquals(9, gauge("plaintext.search.terms"));
+        assertEquals(Set.copyOf(ids.subList(3, 10)), Set.copyOf(ids(search(index, List.of("post"), null, 10))));
+
+        UUID later = add(index, "post number 11");
+        assertEquals(List.of(later), ids(search(index, List.of("post", "11"), null, 10)));
+        assertEquals(8, search(index, List.of("post", "number"), null, 10).size());
+    }
+
+    @Test
+    void search_MatchesNaiveScanAfterCompaction() {
+        SearchIndex index = index(0);
+        Random random = new Random(7);
+        String[] words = {"a", "b", "c", "d"};
+        double[] odds = {0.9, 0.4, 0.1, 0.02};
+        List<UUID> ids = new ArrayList<>();
+        List<Set<String>> contents = new ArrayList<>();
+        List<ModeratedPost> rejected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Set<String> content = new HashSet<>();
+            for (int w = 0; w < words.length; w++) {
+                if (random.nextDouble() < odds[w]) {
+                    content.add(words[w]);
+                }
+            }
+            UUID id = add(index, String.join(" ", content));
+            if (random.nextDouble() < 0.3) {
+                rejected.add(new ModeratedPost(id, "spammer", ModerationStatus.REJECTED, 100));
+            } else {
+                ids.add(id);
+                contents.add(content);
+            }
+        }
+        index.onModerated(new PostsModeratedEvent(rejected));
+        assertEquals(0, gauge("plaintext.search.removed"));
+
+        for (List<String> query : List.of(List.of("a"), List.of("a", "b"), List.of("a", "c", "d"), List.of("b", "d"))) {
+            Set<UUID> expected = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (contents.get(i).containsAll(query)) {
+                    expected.add(ids.get(i));
+                }
+            }
+            List<SearchHit> hits = search(index, query, null, ids.size());
+            assertEquals(expected, Set.copyOf(ids(hits)), () -> "query " + query);
+            assertEquals(expected.size(), hits.size());
+        }
+    }
+
+    @Test
+    void load_SkipsPostsAlreadyIndexed() {
+        SearchIndex index = index(0);
+        UUID live = add(index, "created while loading");
+        UUID stored = UUID.randomUUID();
+        when(postRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new SearchDocument(live, "created while loading", now),
+                new SearchDocument(stored, "loaded from the database", now)));
+
+        assertEquals(1, index.load());
+        assertEquals(List.of(live), ids(search(index, List.of("loading"), null, 10)));
+        assertEquals(List.of(stored), ids(search(index, List.of("database"), null, 10)));
+        assertFalse(index.add(stored, "loaded from the database", now));
+    }
+
+    @Test
+    void catchUp_AddsPostsTheIndexingThreadNeverGot() {
+        SearchIndex index = index(0);
+        UUID indexed = add(index, "added after commit");
+        UUID dropped = UUID.randomUUID();
+        when(postRepository.streamSearchDocumentsCreatedBetween(any(), any())).thenReturn(
+                Stream.of(new SearchDocument(indexed, "added after commit", now),
+                        new SearchDocument(dropped, "dropped from a full queue", now)),
+                Stream.empty());
+
+        assertEquals(1, index.catchUp());
+        assertEquals(List.of(dropped), ids(search(index, List.of("dropped"), null, 10)));
+
+        // The next run reads only the posts created since
+        assertEquals(0, index.catchUp());
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(postRepository, times(2)).streamSearchDocumentsCreatedBetween(from.capture(), to.capture());
+        assertEquals(to.getAllValues().get(0), from.getAllValues().get(1));
+    }
+
+    private SearchIndex index(double recencyWeight) {
+        return new SearchIndex(postRepository, transactionManager, meterRegistry,
+                recencyWeight, Duration.ofDays(7), 0);
+    }
+
+    private List<SearchHit> search(SearchIndex index, List<String> terms, SearchCursor after, int fetch) {
+        SearchStatistics statistics = after != null ? after.statistics() : index.statistics(terms);
+        return index.search(terms, statistics, asOf, after, fetch);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static PostsModeratedEvent rejected(UUID... postIds) {
+        List<ModeratedPost> posts = new ArrayList<>();
+        for (UUID postId : postIds) {
+            posts.add(new ModeratedPost(postId, "spammer", ModerationStatus.REJECTED, 100));
+        }
+        return new PostsModeratedEvent(posts);
+    }
+
+    private UUID add(SearchIndex index, String content) {
+        return add(index, content, now);
+    }
+
+    private static UUID add(SearchIndex index, String content, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        index.add(id, content, createdAt);
+        return id;
+    }
+
+    private static List<UUID> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::postId).toList();
+    }
+}
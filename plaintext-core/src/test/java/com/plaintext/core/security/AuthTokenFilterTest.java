@@ -0,0 +1,101 @@
+package com.plaintext.core.security;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.model.User;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.common.security.JwtClaims;
+import com.plaintext.common.security.JwtVerifier;
+import com.plaintext.core.repository.UserRepository;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AuthTokenFilter(new JwtVerifier(SECRET, 100, new SimpleMeterRegistry()), userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithClaims_BuildsPrincipalWithoutDatabase() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = token("alice").claim(JwtClaims.USER_ID, userId.toString())
+                .claim(JwtClaims.ROLE, UserRole.ADMIN.name()).compact();
+
+        Authentication auth = authenticate(token);
+
+        assertEquals(new AuthenticatedUser(userId, "alice", UserRole.ADMIN), auth.getPrincipal());
+        assertEquals("alice", auth.getName());
+        assertEquals("ROLE_ADMIN", auth.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void legacyToken_ResolvesUserByUsername() throws Exception {
+        User alice = User.builder().id(UUID.randomUUID()).username("alice").role(UserRole.USER).build();
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        Authentication auth = authenticate(token("alice").compact());
+
+        assertEquals(new AuthenticatedUser(alice.getId(), "alice", UserRole.USER), auth.getPrincipal());
+    }
+
+    @Test
+    void legacyTokenForDeletedUser_IsNotAuthenticated() throws Exception {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertNull(authenticate(token("ghost").compact()));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtBuilder token(String username) {
+        return Jwts.builder()
+                .subject(username)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.plaintext.core.service;
+
+import com.plaintext.core.event.CelebrityDemotedEvent;
+import com.plaintext.core.repository.FollowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CelebrityRegistryTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CelebrityRegistry celebrityRegistry;
+
+    private final UUID authorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(celebrityRegistry, "threshold", 100L);
+        ReflectionTestUtils.setField(celebrityRegistry, "followerCountTtlMs", 0L);
+    }
+
+    @Test
+    void refresh_AnnouncesAuthorsThatDroppedUnderTheThreshold() {
+        when(followRepository.findFollowingIdsWithAtLeast(100L)).thenReturn(List.of(authorId), List.of());
+
+        celebrityRegistry.refresh();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        celebrityRegistry.refresh();
+        celebrityRegistry.refresh();
+        verify(eventPublisher, times(1)).publishEvent(new CelebrityDemotedEvent(authorId));
+    }
+
+    @Test
+    void isCelebrity_AnnouncesADemotionOnce() {
+        when(followRepository.countByFollowingId(authorId)).thenReturn(100L, 99L, 99L);
+
+        assertTrue(celebrityRegistry.isCelebrity(authorId));
+        assertFalse(celebrityRegistry.isCelebrity(authorId));
+        assertFalse(celebrityRegistry.isCelebrity(authorId));
+
+        verify(eventPublisher, times(1)).publishEvent(new CelebrityDemotedEvent(authorId));
+    }
+
+    @Test
+    void isCelebrity_RegularAuthorIsNeverAnnounced() {
+        when(followRepository.countByFollowingId(authorId)).thenReturn(5L);
+
+        assertFalse(celebrityRegistry.isCelebrity(authorId));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,148 @@
+package com.plaintext.core.service;
+
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.exception.BadRequestException;
+import com.plaintext.common.exception.ResourceNotFoundException;
+import com.plaintext.common.model.Comment;
+import com.plaintext.common.model.User;
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.dto.CommentRequest;
+import com.plaintext.core.jfr.FollowEvent;
+import com.plaintext.core.jfr.LikeToggleEvent;
+import com.plaintext.core.repository.CommentRepository;
+import com.plaintext.core.repository.FollowRepository;
+import com.plaintext.core.repository.PostLikeRepository;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.UserRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InteractionServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private InteractionMetrics metrics;
+
+    @InjectMocks
+    private InteractionService interactionService;
+
+    private final AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "alice", UserRole.USER);
+
+    @Test
+    void addComment_MissingPostIsNotFound() {
+        UUID postId = UUID.randomUUID();
+        when(postRepository.existsById(postId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> interactionService.addComment(user, postId, comment("hi")));
+
+        verify(commentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void addComment_OtherConstraintViolationsSurface() {
+        UUID postId = UUID.randomUUID();
+        when(postRepository.existsById(postId)).thenReturn(true);
+        when(commentRepository.saveAndFlush(any(Comment.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(140)"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> interactionService.addComment(user, postId, comment("hi")));
+    }
+
+    @Test
+    void followUser_SelfIsBadRequest() {
+        assertThrows(BadRequestException.class, () -> interactionService.followUser(user, "alice"));
+    }
+
+    @Test
+    void followUser_UnknownUserIsNotFound() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> interactionService.followUser(user, "nobody"));
+    }
+
+    @Test
+    void flightRecorderEvents_AreCommittedWithTheOutcome(@TempDir Path dir) throws Exception {
+        UUID postId = UUID.randomUUID();
+        User bob = User.builder().id(UUID.randomUUID()).username("bob").build();
+        when(postLikeRepository.toggle(user.id(), postId)).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(bob));
+        when(followRepository.deleteByFollowerIdAndFollowingId(user.id(), bob.getId())).thenReturn(1L);
+        when(timelineService.prune(user.id(), bob.getId())).thenReturn(3);
+        Path file = dir.resolve("interactions.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(LikeToggleEvent.class);
+            recording.enable(FollowEvent.class);
+            recording.start();
+            assertThrows(ResourceNotFoundException.class, () -> interactionService.toggleLike(user, postId));
+            assertThrows(ResourceNotFoundException.class, () -> interactionService.followUser(user, "nobody"));
+            interactionService.unfollowUser(user, "bob");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        assertEquals(List.of("com.plaintext.LikeToggle", "com.plaintext.Follow", "com.plaintext.Follow"),
+                events.stream().map(e -> e.getEventType().getName()).toList());
+        assertEquals(List.of("ResourceNotFoundException", "ResourceNotFoundException", "ok"),
+                events.stream().map(e -> e.getString("outcome")).toList());
+        assertEquals(postId.toString(), events.get(0).getString("postId"));
+        assertNull(events.get(1).getString("followingId"));
+        assertEquals(bob.getId().toString(), events.get(2).getString("followingId"));
+        assertEquals(3, events.get(2).getInt("timelineRows"));
+    }
+
+    private static CommentRequest comment(String text) {
+        CommentRequest request = new CommentRequest();
+        request.setText(text);
+        return request;
+    }
+}
@@ -1,25 +1,44 @@
 package com.plaintext.core.service;
 
 import com.plaintext.common.model.Post;
+import com.plaintext.common.model.PostTag;
 import com.plaintext.common.model.User;
+import com.plaintext.common.enums.UserRole;
+import com.plaintext.common.exception.ResourceNotFoundException;
+import com.plaintext.common.ratelimit.RateLimitAction;
+import com.plaintext.common.ratelimit.RateLimiter;
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ExploreFeedCache;
+import com.plaintext.core.dto.CursorPage;
 import com.plaintext.core.dto.PostRequest;
 import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.PostCreatedEvent;
 import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.PostTagRepository;
 import com.plaintext.core.repository.UserRepository;
+import com.plaintext.core.util.PageCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +47,21 @@ class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostTagRepository postTagRepository;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExploreFeedCache exploreFeedCache;
+
+    @Mock
+    private RateLimiter rateLimiter;
+
     @InjectMocks
     private PostService postService;
 
@@ -45,28 +76,94 @@ class PostServiceTest {
         java.util.UUID postId = java.util.UUID.randomUUID();
         Post post = Post.builder().id(postId).content("Hello World").user(user).build();
 
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(postRepository.save(any(Post.class))).thenReturn(post);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(postRepository.saveAndFlush(any(Post.class))).thenReturn(post);
 
-        PostResponse response = postService.createPost(username, request);
+        PostResponse response = postService.createPost(new AuthenticatedUser(user.getId(), username, UserRole.USER),
+                request);
 
         assertNotNull(response);
         assertEquals("Hello World", response.getContent());
         assertEquals(username, response.getUsername());
-        verify(postRepository).save(any(Post.class));
+        verify(postRepository).saveAndFlush(any(Post.class));
+        verify(userRepository, never()).findByUsername(any());
+        verify(eventPublisher).publishEvent(any(PostCreatedEvent.class));
+    }
+
+    @Test
+    void createPost_SavesItsTagsAndMentions() {
+        User user = User.builder().username("testuser").id(java.util.UUID.randomUUID()).build();
+        String content = "Upgraded to #Java 21 with @alice #java";
+        Post post = Post.builder().id(java.util.UUID.randomUUID()).content(content).user(user)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 12, 0)).build();
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(postRepository.saveAndFlush(any(Post.class))).thenReturn(post);
+
+        postService.createPost(new AuthenticatedUser(user.getId(), "testuser", UserRole.USER),
+                new PostRequest(content, null));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PostTag>> saved = ArgumentCaptor.forClass(List.class);
+        verify(postTagRepository).saveAll(saved.capture());
+        assertEquals(List.of("#java", "@alice"), saved.getValue().stream().map(PostTag::getTag).toList());
+        assertTrue(saved.getValue().stream().allMatch(tag ->
+                tag.getPostId().equals(post.getId()) && tag.getCreatedAt().equals(post.getCreatedAt())));
+    }
+
+    @Test
+    void admitExport_UnknownUserIsNotFoundAndCostsNoPermit() {
+        AuthenticatedUser requester = new AuthenticatedUser(java.util.UUID.randomUUID(), "requester", UserRole.USER);
+        when(userRepository.existsByUsername("nobody")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> postService.admitExport(requester, "nobody"));
+        verifyNoInteractions(rateLimiter);
+    }
+
+    @Test
+    void admitExport_EntersTheRequestersExportSlot() {
+        AuthenticatedUser requester = new AuthenticatedUser(java.util.UUID.randomUUID(), "requester", UserRole.USER);
+        when(userRepository.existsByUsername("author")).thenReturn(true);
+
+        postService.admitExport(requester, "author");
+
+        verify(rateLimiter).enter(RateLimitAction.EXPORT, "requester");
     }
 
     @Test
     void getExploreFeed_Success() {
-        User user = User.builder().username("user1").build();
         java.util.UUID postId = java.util.UUID.randomUUID();
-        Post post = Post.builder().id(postId).content("Content").user(user).build();
+        PostResponse post = PostResponse.builder().id(postId).content("Content").username("user1").build();
+
+        when(postRepository.findLatest(Limit.of(21))).thenReturn(List.of(post));
+
+        CursorPage<PostResponse> feed = postService.getExploreFeed(null, 20);
+
+        assertEquals(1, feed.getItems().size());
+        assertEquals("Content", feed.getItems().get(0).getContent());
+        assertNull(feed.getNextCursor());
+    }
+
+    @Test
+    void getExploreFeed_ReturnsCursorWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.now();
+        PostResponse newer = PostResponse.builder().id(java.util.UUID.randomUUID()).content("Newer").createdAt(now)
+                .build();
+        PostResponse older = PostResponse.builder().id(java.util.UUID.randomUUID()).content("Older")
+                .createdAt(now.minusMinutes(1)).build();
+
+        when(postRepository.findLatest(Limit.of(2))).thenReturn(List.of(newer, older));
+
+        CursorPage<PostResponse> feed = postService.getExploreFeed(null, 1);
+
+        assertEquals(1, feed.getItems().size());
+        assertEquals(PageCursor.encode(now, newer.getId()), feed.getNextCursor());
 
-        when(postRepository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(post));
+        PageCursor cursor = PageCursor.decode(feed.getNextCursor());
+        when(postRepository.findLatestBefore(cursor.createdAt(), cursor.id(), Limit.of(2))).thenReturn(List.of(older));
 
-        List<PostResponse> feed = postService.getExploreFeed();
+        CursorPage<PostResponse> next = postService.getExploreFeed(feed.getNextCursor(), 1);
 
-        assertEquals(1, feed.size());
-        assertEquals("Content", feed.get(0).getContent());
+        assertEquals("Older", next.getItems().get(0).getContent());
+        assertNull(next.getNextCursor());
     }
 }
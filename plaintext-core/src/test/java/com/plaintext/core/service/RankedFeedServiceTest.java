@@ -0,0 +1,203 @@
+package com.plaintext.core.service;
+
+import com.plaintext.common.security.AuthenticatedUser;
+import com.plaintext.core.cache.ExploreFeedCache;
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.ranking.CandidateFetcher;
+import com.plaintext.core.ranking.PostScorer;
+import com.plaintext.core.repository.CommentRepository;
+import com.plaintext.core.repository.PostLikeRepository;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.sql.StatementTimeout;
+import com.plaintext.core.trending.TrendingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RankedFeedServiceTest {
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private TrendingEngine trendingEngine;
+
+    @Mock
+    private ExploreFeedCache exploreFeedCache;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private final ForkJoinPool rankingPool = new ForkJoinPool(2);
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PostScorer scorer = new PostScorer(Duration.ofHours(12), 3.0, 1.0, 0.5);
+    private final AuthenticatedUser viewer = new AuthenticatedUser(UUID.randomUUID(), "me", null);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @AfterEach
+    void tearDown() {
+        rankingPool.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    @Test
+    void getRankedTimeline_ScoresEachCandidateOfEverySourceOnce() {
+        PostResponse own = post("me", now, 0, 0);
+        PostResponse followed = post("friend", now.minusHours(2), 0, 0);
+        PostResponse trending = post("stranger", now.minusHours(1), 50, 10);
+        PostResponse newest = post("other", now.minusMinutes(10), 0, 0);
+        when(timelineService.getLatest(viewer.id(), 200)).thenReturn(List.of(own, followed));
+        when(trendingEngine.top(200)).thenReturn(List.of(trending.getId(), followed.getId()));
+        when(postRepository.findResponsesByIds(List.of(trending.getId()))).thenReturn(List.of(trending));
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of(newest, followed)));
+
+        CursorPage<PostResponse> page = service(Duration.ofSeconds(5), scorer).getRankedTimeline(viewer, 3);
+
+        assertEquals(List.of(trending, followed, own), page.getItems());
+        assertNull(page.getNextCursor());
+        assertEquals(0, meterRegistry.get("plaintext.ranking.fallbacks").counter().count());
+    }
+
+    @Test
+    void getRankedTimeline_FavorsAuthorsTheViewerInteractedWith() {
+        PostResponse unknown = post("unknown", now, 0, 0);
+        PostResponse pal = post("pal", now.minusMinutes(30), 0, 0);
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of(unknown, pal)));
+        when(postLikeRepository.findLikedAuthors(viewer.id(), Limit.of(500))).thenReturn(List.of("pal", "me", "pal"));
+        when(commentRepository.findCommentedAuthors(viewer.id(), Limit.of(500))).thenReturn(List.of("pal"));
+
+        CursorPage<PostResponse> page = service(Duration.ofSeconds(5), scorer).getRankedTimeline(viewer, 20);
+
+        assertEquals(List.of(pal, unknown), page.getItems());
+    }
+
+    @Test
+    void getRankedTimeline_ServesTheExploreCacheNewestFirstWhenTheBudgetIsSpent() {
+        PostResponse older = post("stranger", now.minusHours(1), 100, 0);
+        PostResponse newer = post("other", now, 0, 0);
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of(older, newer)));
+
+        CursorPage<PostResponse> page = service(Duration.ZERO, scorer).getRankedTimeline(viewer, 20);
+
+        assertEquals(List.of(newer, older), page.getItems());
+        verifyNoInteractions(timelineService, trendingEngine, postRepository, postLikeRepository, commentRepository);
+        assertEquals(1, meterRegistry.get("plaintext.ranking.fallbacks").counter().count());
+    }
+
+    @Test
+    void getRankedTimeline_StopsWaitingForASlowQueryAtTheDeadline() {
+        when(timelineService.getLatest(viewer.id(), 200)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of(post("friend", now, 0, 0));
+        });
+        PostResponse older = post("stranger", now.minusHours(1), 100, 0);
+        PostResponse newer = post("other", now, 0, 0);
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of(older, newer)));
+
+        long started = System.nanoTime();
+        CursorPage<PostResponse> page = service(Duration.ofMillis(200), scorer).getRankedTimeline(viewer, 20);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(List.of(newer, older), page.getItems());
+        verifyNoInteractions(trendingEngine, postLikeRepository, commentRepository);
+        assertEquals(1, meterRegistry.get("plaintext.ranking.fallbacks").counter().count());
+    }
+
+    @Test
+    void getRankedTimeline_StopsWaitingForScoringAtTheDeadline() {
+        PostScorer slowScorer = mock(PostScorer.class);
+        when(slowScorer.score(any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return 1.0;
+        });
+        PostResponse older = post("friend", now.minusHours(1), 100, 0);
+        PostResponse newer = post("friend", now, 0, 0);
+        when(timelineService.getLatest(viewer.id(), 200)).thenReturn(List.of(older, newer));
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of()));
+
+        long started = System.nanoTime();
+        CursorPage<PostResponse> page = service(Duration.ofMillis(200), slowScorer).getRankedTimeline(viewer, 20);
+
+        assertEquals(List.of(newer, older), page.getItems());
+        assertEquals(1, meterRegistry.get("plaintext.ranking.fallbacks").counter().count());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        verify(timelineService).getLatest(viewer.id(), 200);
+    }
+
+    @Test
+    void getRankedTimeline_ScoringStopsItselfAtTheDeadline() throws Exception {
+        PostScorer slowScorer = mock(PostScorer.class);
+        when(slowScorer.score(any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return 1.0;
+        });
+        List<PostResponse> posts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            posts.add(post("friend", now.minusMinutes(i), 0, 0));
+        }
+        when(timelineService.getLatest(viewer.id(), 200)).thenReturn(posts);
+        when(exploreFeedCache.page(null, 200)).thenReturn(Optional.of(List.of()));
+
+        // One chunk of 20 posts: without its own deadline check it would keep scoring for 2s
+        service(Duration.ofMillis(250), slowScorer, 64).getRankedTimeline(viewer, 20);
+        Thread.sleep(500);
+
+        verify(slowScorer, atMost(4)).score(any(), any(), any());
+    }
+
+    private RankedFeedService service(Duration budget, PostScorer postScorer) {
+        return service(budget, postScorer, 1);
+    }
+
+    private RankedFeedService service(Duration budget, PostScorer postScorer, int chunkSize) {
+        CandidateFetcher fetcher = new CandidateFetcher(fetchExecutor, mock(PlatformTransactionManager.class),
+                mock(StatementTimeout.class), meterRegistry, 4);
+        return new RankedFeedService(timelineService, trendingEngine, exploreFeedCache, postRepository,
+                postLikeRepository, commentRepository, postScorer, rankingPool, fetcher, meterRegistry,
+                budget, 200, 500, chunkSize);
+    }
+
+    private static PostResponse post(String username, LocalDateTime createdAt, int likes, int comments) {
+        return PostResponse.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .createdAt(createdAt)
+                .likesCount(likes)
+                .commentsCount(comments)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.plaintext.core.service;
+
+import com.plaintext.core.dto.CursorPage;
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import com.plaintext.core.repository.PostRepository;
+import com.plaintext.core.repository.TimelineRepository;
+import com.plaintext.core.util.PageCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CelebrityRegistry celebrityRegistry;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @Test
+    void onPostCreated_CelebrityIsNotFannedOut() {
+        UUID authorId = UUID.randomUUID();
+        PostCreatedEvent event = new PostCreatedEvent(authorId, post(LocalDateTime.now()), List.of());
+        when(celebrityRegistry.isCelebrity(authorId)).thenReturn(true);
+
+        timelineService.onPostCreated(event);
+
+        verify(timelineRepository).insertOwn(event.postId(), authorId, event.createdAt());
+        verify(timelineRepository, never()).fanOut(any(), any(), any());
+    }
+
+    @Test
+    void catchUp_FansOutPostsWhoseFanOutNeverRan() {
+        UUID authorId = UUID.randomUUID();
+        UUID celebrityId = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(5);
+        MissedFanOut regular = new MissedFanOut(UUID.randomUUID(), authorId, createdAt);
+        MissedFanOut pulled = new MissedFanOut(UUID.randomUUID(), celebrityId, createdAt);
+        when(timelineRepository.findMissedFanOuts(any(), any(), any())).thenReturn(List.of(regular, pulled));
+        when(celebrityRegistry.isCelebrity(authorId)).thenReturn(false);
+        when(celebrityRegistry.isCelebrity(celebrityId)).thenReturn(true);
+        ReflectionTestUtils.setField(timelineService, "catchUpIntervalMs", 60_000L);
+
+        timelineService.catchUp();
+
+        verify(timelineRepository).fanOut(regular.postId(), authorId, createdAt);
+        verify(timelineRepository).insertOwn(pulled.postId(), celebrityId, createdAt);
+        // From the hour before startup to one interval ago, leaving the newest posts to their queued fan-out
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(timelineRepository).findMissedFanOuts(from.capture(), to.capture(), any());
+        assertEquals(60, Duration.between(from.getValue(), LocalDateTime.now()).toMinutes());
+        assertEquals(1, Duration.between(to.getValue(), LocalDateTime.now()).toMinutes());
+    }
+
+    @Test
+    void getTimeline_MergesPulledAuthorsIntoMaterializedPage() {
+        UUID viewerId = UUID.randomUUID();
+        UUID celebrityId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        PostResponse pushed1 = post(now.minusMinutes(1));
+        PostResponse pushed2 = post(now.minusMinutes(3));
+        PostResponse pulled1 = post(now);
+        PostResponse pulled2 = post(now.minusMinutes(2));
+
+        when(timelineRepository.findPage(viewerId, Limit.of(4))).thenReturn(List.of(pushed1, pushed2));
+        when(celebrityRegistry.followedBy(viewerId)).thenReturn(List.of(celebrityId));
+        // A post pushed before the author crossed the threshold shows up in both streams
+        when(postRepository.findLatestByAuthor(celebrityId, Limit.of(4))).thenReturn(List.of(pulled1, pushed1, pulled2));
+
+        CursorPage<PostResponse> page = timelineService.getTimeline(viewerId, null, 3);
+
+        assertEquals(List.of(pulled1, pushed1, pulled2), page.getItems());
+        assertEquals(pulled2.getId(), PageCursor.decode(page.getNextCursor()).id());
+    }
+
+    @Test
+    void getLatest_ReadsPastThePageSizeCap() {
+        UUID viewerId = UUID.randomUUID();
+        List<PostResponse> posts = List.of(post(LocalDateTime.now()), post(LocalDateTime.now().minusMinutes(1)));
+        when(timelineRepository.findPage(viewerId, Limit.of(200))).thenReturn(posts);
+        when(celebrityRegistry.followedBy(viewerId)).thenReturn(List.of());
+
+        assertEquals(posts, timelineService.getLatest(viewerId, 200));
+    }
+
+    private static PostResponse post(LocalDateTime createdAt) {
+        return PostResponse.builder().id(UUID.randomUUID()).createdAt(createdAt).build();
+    }
+}
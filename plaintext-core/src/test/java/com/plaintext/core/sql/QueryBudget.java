@@ -0,0 +1,43 @@
+package com.plaintext.core.sql;
+
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Asserts the exact number of SQL statements Hibernate prepares while running a block,
+ * typically one MockMvc request against a real context:
+ *
+ * <pre>
+ * QueryBudget.expect(1, () -> mockMvc.perform(get("/api/posts/user/alice")).andExpect(status().isOk()));
+ * </pre>
+ *
+ * The block must run on the calling thread, which MockMvc does; statements from
+ * asynchronous listeners are not counted. On failure the message lists every statement with its count.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static SqlStatistics expect(int statements, Executable block) throws Throwable {
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            block.execute();
+        } finally {
+            statistics.end();
+        }
+        assertEquals(statements, statistics.statements(), () -> "SQL statements:\n" + describe(statistics));
+        return statistics;
+    }
+
+    private static String describe(SqlStatistics statistics) {
+        return statistics.countsBySql().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(e -> e.getValue() + " x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.plaintext.core.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagExtractorTest {
+
+    @Test
+    void extract_FindsDistinctHashtagsAndMentionsInOrder() {
+        assertEquals(List.of("#java", "@Alice", "#spring_boot"),
+                TagExtractor.extract("#Java 21 is out, thanks @Alice! #spring_boot #JAVA @Alice"));
+    }
+
+    @Test
+    void extract_IgnoresSigilsInsideWords() {
+        assertTrue(TagExtractor.extract("C# and F# devs, mail bob@example.com").isEmpty());
+        assertEquals(List.of("#tag"), TagExtractor.extract("##tag"));
+        assertEquals(List.of("#café"), TagExtractor.extract("(#Café)"));
+    }
+
+    @Test
+    void extract_SkipsTagsOfInvalidLength() {
+        assertTrue(TagExtractor.extract("# @ab @" + "u".repeat(21) + " #" + "t".repeat(51)).isEmpty());
+        assertEquals(List.of("@bob", "#" + "t".repeat(50)), TagExtractor.extract("@bob #" + "t".repeat(50)));
+    }
+
+    @Test
+    void extract_CapsTagsPerPost() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            content.append("#t").append(i).append(' ');
+        }
+        List<String> tags = TagExtractor.extract(content.toString());
+        assertEquals(TagExtractor.MAX_TAGS_PER_POST, tags.size());
+        assertEquals("#t0", tags.get(0));
+    }
+
+    @Test
+    void hashtag_NormalizesPathSegments() {
+        assertEquals("#java", TagExtractor.hashtag("Java"));
+        assertEquals("#java", TagExtractor.hashtag("#java"));
+        assertEquals("@Alice", TagExtractor.mention("Alice"));
+    }
+}
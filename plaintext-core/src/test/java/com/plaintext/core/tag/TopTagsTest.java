@@ -0,0 +1,100 @@
+package com.plaintext.core.tag;
+
+import com.plaintext.core.dto.PostResponse;
+import com.plaintext.core.dto.TagCountResponse;
+import com.plaintext.core.event.PostCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopTagsTest {
+
+    @Test
+    void top_RanksByCountThenName() {
+        TopTags topTags = new TopTags(new SimpleMeterRegistry(), 10);
+        record(topTags, "#b", 2);
+        record(topTags, "#a", 2);
+        record(topTags, "#c", 5);
+
+        assertEquals(List.of(new TagCountResponse("c", 5), new TagCountResponse("a", 2)), topTags.top(2));
+    }
+
+    @Test
+    void record_KeepsHeavyHittersWhenFullOfRareTags() {
+        TopTags topTags = new TopTags(new SimpleMeterRegistry(), 50);
+        Random random = new Random(7);
+        // 10,000 uses: a quarter on three popular tags, the rest spread over 5,000 rare ones
+        for (int i = 0; i < 10_000; i++) {
+            int roll = random.nextInt(4);
+            topTags.record(roll == 0 ? "#p" + random.nextInt(3) : "#r" + random.nextInt(5_000));
+        }
+
+        List<TagCountResponse> top = topTags.top(3);
+        assertEquals(3, top.size());
+        assertTrue(top.stream().allMatch(t -> t.getTag().startsWith("p")), top::toString);
+    }
+
+    @Test
+    void decay_HalvesCountsAndForgetsFadedTags() {
+        TopTags topTags = new TopTags(new SimpleMeterRegistry(), 10);
+        record(topTags, "#busy", 6);
+        record(topTags, "#once", 1);
+
+        topTags.decay();
+
+        assertEquals(List.of(new TagCountResponse("busy", 3)), topTags.top(10));
+    }
+
+    @Test
+    void record_CountsExactlyUnderCapacityThroughDecays() {
+        TopTags topTags = new TopTags(new SimpleMeterRegistry(), 100);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(11);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 2_000; i++) {
+                // Skewed, so buckets range from one use to hundreds
+                String tag = "#t" + (int) Math.sqrt(random.nextInt(2_500));
+                topTags.record(tag);
+                exact.merge(tag, 1L, Long::sum);
+            }
+            assertEquals(expectedTop(exact), topTags.top(100));
+            topTags.decay();
+            exact.replaceAll((tag, count) -> count / 2);
+            exact.values().removeIf(count -> count == 0);
+            assertEquals(expectedTop(exact), topTags.top(100));
+        }
+    }
+
+    @Test
+    void onPostCreated_CountsTheEventsHashtagsOnly() {
+        TopTags topTags = new TopTags(new SimpleMeterRegistry(), 10);
+        PostResponse post = PostResponse.builder().id(UUID.randomUUID()).content("not parsed again").build();
+
+        topTags.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), post, List.of("#java", "@alice")));
+
+        assertEquals(List.of(new TagCountResponse("java", 1)), topTags.top(10));
+    }
+
+    private static List<TagCountResponse> expectedTop(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new TagCountResponse(entry.getKey().substring(1), entry.getValue()))
+                .sorted(Comparator.comparingLong(TagCountResponse::getCount).reversed()
+                        .thenComparing(TagCountResponse::getTag))
+                .toList();
+    }
+
+    private static void record(TopTags topTags, String tag, int times) {
+        for (int i = 0; i < times; i++) {
+            topTags.record(tag);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.plaintext.core.trending;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.core.event.PostsModeratedEvent;
+import com.plaintext.core.event.PostsModeratedEvent.ModeratedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingEngineTest {
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    void record_RanksByDecayedEngagement() {
+        TrendingEngine engine = engine(10, 1000);
+        UUID earlier = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        UUID quiet = UUID.randomUUID();
+        // Four likes two half-lives ago are worth one like now
+        for (int i = 0; i < 4; i++) {
+            engine.record(earlier, 1, now - 12 * HOUR);
+        }
+        engine.record(recent, 1.5, now);
+        engine.record(quiet, 0.5, now);
+
+        assertEquals(List.of(recent, earlier, quiet), engine.top(10));
+        assertEquals(1.0, engine.score(earlier, now), 1e-9);
+        assertEquals(0.5, engine.score(recent, now + 6 * HOUR) / 1.5, 1e-9);
+    }
+
+    @Test
+    void record_KeepsTopSizePostsAndAdmitsOnesThatOvertake() {
+        TrendingEngine engine = engine(3, 1000);
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            UUID post = UUID.randomUUID();
+            engine.record(post, i, now);
+            posts.add(post);
+        }
+        assertEquals(List.of(posts.get(4), posts.get(3), posts.get(2)), engine.top(10));
+
+        engine.record(posts.get(0), 10, now);
+
+        assertEquals(List.of(posts.get(0), posts.get(4), posts.get(3)), engine.top(10));
+        assertEquals(List.of(posts.get(0)), engine.top(1));
+    }
+
+    @Test
+    void record_UnlikeTakesBackTheLike() {
+        TrendingEngine engine = engine(10, 1000);
+        UUID post = UUID.randomUUID();
+
+        engine.record(post, 1, now);
+        engine.record(post, -1, now);
+
+        assertTrue(engine.top(10).isEmpty());
+        assertEquals(0, engine.tracked());
+    }
+
+    @Test
+    void checkpoint_SavesScoresAndRestoresTheExactRanking() {
+        TrendingEngine engine = engine(2, 1000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        engine.record(first, 3, now);
+        engine.record(second, 4, now);
+        engine.record(third, 2, now);
+        engine.record(first, -2, now);
+
+        // The unliked post keeps its rank until the next checkpoint
+        assertEquals(List.of(second, first), engine.top(10));
+
+        engine.checkpoint();
+
+        assertEquals(List.of(second, third), engine.top(10));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jdbcTemplate).update(anyString(), eq("core-1"), staleBefore.capture());
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(3, batch.getValue().size());
+        batch.getValue().forEach(row -> assertEquals("core-1", row[0]));
+        // Partitions of any instance are deleted after 20 half-lives
+        LocalDateTime checkpointedAt = (LocalDateTime) batch.getValue().get(0)[3];
+        assertEquals(120, Duration.between(staleBefore.getValue(), checkpointedAt).toHours());
+    }
+
+    @Test
+    void constructor_RequiresAnInstanceId() {
+        assertThrows(IllegalStateException.class, () -> new TrendingEngine(jdbcTemplate, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofHours(6), 1.0, 3.0, 100, 1000, 0.05, ""));
+    }
+
+    @Test
+    void record_EvictsTheLowestUnrankedPostsWhenFull() {
+        TrendingEngine engine = engine(1, 4);
+        UUID best = UUID.randomUUID();
+        engine.record(best, 100, now);
+        for (int i = 0; i < 10; i++) {
+            engine.record(UUID.randomUUID(), 1 + i, now);
+        }
+
+        assertTrue(engine.tracked() <= 4);
+        assertEquals(List.of(best), engine.top(10));
+    }
+
+    @Test
+    void onModerated_DropsRejectedPosts() {
+        TrendingEngine engine = engine(10, 1000);
+        UUID kept = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        engine.record(kept, 1, now);
+        engine.record(rejected, 5, now);
+
+        engine.onModerated(new PostsModeratedEvent(List.of(
+                new ModeratedPost(kept, "alice", ModerationStatus.APPROVED, 0),
+                new ModeratedPost(rejected, "bob", ModerationStatus.REJECTED, 100))));
+
+        assertEquals(List.of(kept), engine.top(10));
+        assertEquals(0, engine.score(rejected, now));
+    }
+
+    private TrendingEngine engine(int topSize, int maxTracked) {
+        return new TrendingEngine(jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofHours(6), 1.0, 3.0, topSize, maxTracked, 0.05, "core-1");
+    }
+}
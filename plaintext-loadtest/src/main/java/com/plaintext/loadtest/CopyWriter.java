@@ -0,0 +1,105 @@
+package com.plaintext.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Streams rows into one table with {@code COPY ... FROM STDIN} (text format).
+ * Rows are built field by field and buffered; the copy is committed by {@link #finish()}, and
+ * {@link #close()} without it, as when a row fails to generate, cancels it.
+ */
+final class CopyWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PGCopyOutputStream copy;
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(512);
+    private long rows;
+
+    CopyWriter(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+        this.copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+        this.out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    CopyWriter add(UUID value) {
+        row.append(value).append('\t');
+        return this;
+    }
+
+    CopyWriter add(long value) {
+        row.append(value).append('\t');
+        return this;
+    }
+
+    CopyWriter add(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+        row.append('\t');
+        return this;
+    }
+
+    /**
+     * Appends a {@code timestamp} column. The epoch second is read as a wall-clock time in UTC,
+     * matching how the services store {@code LocalDateTime}.
+     */
+    CopyWriter addTimestamp(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        row.append(time.getYear()).append('-');
+        pad(time.getMonthValue()).append('-');
+        pad(time.getDayOfMonth()).append(' ');
+        pad(time.getHour()).append(':');
+        pad(time.getMinute()).append(':');
+        pad(time.getSecond()).append('\t');
+        return this;
+    }
+
+    void endRow() throws IOException {
+        row.setCharAt(row.length() - 1, '\n');
+        out.append(row);
+        row.setLength(0);
+        rows++;
+    }
+
+    /**
+     * Sends the buffered rows and ends the copy.
+     *
+     * @return rows written
+     */
+    long finish() throws IOException, SQLException {
+        out.flush();
+        copy.endCopy();
+        return rows;
+    }
+
+    // Ending a copy that failed halfway would commit the rows sent so far
+    @Override
+    public void close() throws SQLException {
+        if (copy.isActive()) {
+            copy.cancelCopy();
+        }
+    }
+
+    private StringBuilder pad(int value) {
+        return (value < 10 ? row.append('0') : row).append(value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.plaintext.loadtest;
+
+enum Endpoint {
+    SIGNUP("POST /api/auth/signup"),
+    LOGIN("POST /api/auth/login"),
+    FEED("GET /api/feed"),
+    TIMELINE("GET /api/timeline"),
+    CREATE_POST("POST /api/posts"),
+    LIKE("POST /api/posts/{id}/like"),
+    COMMENT("POST /api/posts/{id}/comments"),
+    READ_COMMENTS("GET /api/posts/{id}/comments"),
+    FOLLOW("POST /api/users/{username}/follow");
+
+    final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,60 @@
+package com.plaintext.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies of the calls to one endpoint, in microseconds, kept apart by outcome: successes,
+ * errors (4xx other than 429, 5xx and I/O failures) and 429s. A failure that comes back fast
+ * is not a fast request, so only successes go into the main percentiles, but the failures'
+ * latencies are kept too, e.g. to see whether 429s cost as much as the work they prevent.
+ * Recorders let every client thread record without locking while the reporter takes interval snapshots.
+ */
+final class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    final Endpoint endpoint;
+    private final Recorder successes = recorder();
+    private final Recorder errors = recorder();
+    private final Recorder rateLimited = recorder();
+
+    EndpointStats(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long latencyNanos) {
+        Recorder outcome = status == 429 ? rateLimited : status >= 400 || status < 0 ? errors : successes;
+        outcome.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * Starts a new measurement interval, discarding everything recorded so far (used after warmup).
+     */
+    void reset() {
+        successes.reset();
+        errors.reset();
+        rateLimited.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(endpoint, successes.getIntervalHistogram(), errors.getIntervalHistogram(),
+                rateLimited.getIntervalHistogram());
+    }
+
+    private static Recorder recorder() {
+        return new Recorder(MAX_LATENCY_MICROS, 3);
+    }
+
+    record Snapshot(Endpoint endpoint, Histogram latencies, Histogram errorLatencies, Histogram rateLimitedLatencies) {
+
+        long errors() {
+            return errorLatencies.getTotalCount();
+        }
+
+        long rateLimited() {
+            return rateLimitedLatencies.getTotalCount();
+        }
+    }
+}
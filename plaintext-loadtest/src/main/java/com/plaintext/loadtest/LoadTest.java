@@ -0,0 +1,306 @@
+package com.plaintext.loadtest;
+
+import com.plaintext.auth.AuthApplication;
+import com.plaintext.common.model.ErrorResponse;
+import com.plaintext.core.CoreApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Replays a traffic mix against Auth and Core and reports latency percentiles per endpoint.
+ *
+ * Clients are closed-loop virtual threads (each waits for its response before sending
+ * the next request), so percentiles describe service time at the given concurrency.
+ * Raise {@code --clients} to find the knee rather than reading p99 at a fixed arrival rate.
+ *
+ * Usage: LoadTest [--scenario=mixed|like-burst|feed-reads|login-storm|signup-storm] [--clients=200]
+ * [--warmup=10s] [--duration=60s] [--users=500] [--posts-per-user=3] [--follows-per-user=10]
+ * [--db-url=... --db-user=... --db-password=...] [--auth-url=... --core-url=...] [--out=dir]
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<ConfigurableApplicationContext> services = new ArrayList<>();
+        try {
+            String authUrl = options.authUrl();
+            String coreUrl = options.coreUrl();
+            if (options.bootServices()) {
+                // Auth first: its ddl-auto=update creates the schema that Core validates
+                services.add(boot(AuthApplication.class, options.dbUrl(), options.dbUser(), options.dbPassword(),
+                        "--spring.jpa.hibernate.ddl-auto=update"));
+                services.add(boot(CoreApplication.class, options.dbUrl(), options.dbUser(), options.dbPassword(),
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--plaintext.trending.instance-id=loadtest",
+                        // Rate limits would turn most of the load into 429s
+                        "--plaintext.rate-limit.rules.post.capacity=1000000",
+                        "--plaintext.rate-limit.rules.like.capacity=1000000",
+                        "--plaintext.rate-limit.rules.comment.capacity=1000000",
+                        "--plaintext.rate-limit.rules.follow.capacity=1000000"));
+                authUrl = baseUrl(services.get(0));
+                coreUrl = baseUrl(services.get(1));
+            } else {
+                System.out.println("Targeting running services; their rate limits apply (429s are reported separately).");
+            }
+
+            PlaintextClient client = new PlaintextClient(Objects.requireNonNull(authUrl, "--auth-url"),
+                    Objects.requireNonNull(coreUrl, "--core-url"));
+            Population population = seed(client, options);
+            report("Seeding", client.stats().values(), -1, null);
+
+            run(client, population, options);
+            report("Scenario " + options.scenario().name().toLowerCase(Locale.ROOT) + ", " + options.clients()
+                    + " clients", client.stats().values(), options.duration().toMillis() / 1000.0, options.out());
+        } finally {
+            services.reversed().forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    /**
+     * Boots a service on a random port with its own application.yml. Overrides are passed as
+     * command line arguments because they take precedence over that file.
+     */
+    static ConfigurableApplicationContext boot(Class<?> application, String dbUrl, String dbUser, String dbPassword,
+                                               String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=" + configLocation(application),
+                "--server.port=0",
+                "--spring.datasource.url=" + dbUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword,
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extra));
+        return new SpringApplicationBuilder(application).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Auth ships its application.yml and Core reads the one in plaintext-common. Both sit at the
+     * classpath root, so with both services on one classpath the first jar would win for both.
+     */
+    private static String configLocation(Class<?> application) {
+        Class<?> owner = application == CoreApplication.class ? ErrorResponse.class : application;
+        String location = owner.getProtectionDomain().getCodeSource().getLocation().toString();
+        return location.endsWith(".jar") ? "jar:" + location + "!/application.yml" : location + "application.yml";
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    // Users, follows and posts created through the API; popularity is skewed toward low indexes.
+    // Accounts signed up during the run are named after the same run id, so they never collide.
+    private record Population(String run, List<String> usernames, List<String> tokens, List<UUID> posts,
+                              AtomicLong signups) {
+        String username(int index) {
+            return usernames.get(index);
+        }
+
+        String newUsername() {
+            return "lt" + run + "_s" + signups.getAndIncrement();
+        }
+    }
+
+    private static Population seed(PlaintextClient client, LoadTestOptions options) throws InterruptedException {
+        String run = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36), 36);
+        int users = options.users();
+        List<String> usernames = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            usernames.add("lt" + run + "_" + i);
+        }
+        System.out.printf("Seeding %d users (%d posts, %d follows each)%n", users, options.postsPerUser(),
+                options.followsPerUser());
+
+        parallel(users, i -> client.signup(usernames.get(i)));
+        List<String> tokens = parallel(users, i -> client.login(usernames.get(i)));
+        if (tokens.contains(null)) {
+            throw new IllegalStateException("Some seed users could not log in; see the Seeding report");
+        }
+        parallel(users, i -> {
+            for (int f = 0; f < options.followsPerUser(); f++) {
+                int target = skewed(users);
+                if (target != i) {
+                    client.follow(tokens.get(i), usernames.get(target));
+                }
+            }
+            return null;
+        });
+        // Posts of popular (low index) authors come first, so skewed() also picks popular posts
+        List<List<UUID>> postsByAuthor = parallel(users, i -> {
+            List<UUID> ids = new ArrayList<>();
+            for (int p = 0; p < options.postsPerUser(); p++) {
+                UUID id = client.createPost(tokens.get(i), "Seed post " + p + " by " + usernames.get(i));
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        });
+        List<UUID> posts = postsByAuthor.stream().flatMap(List::stream).toList();
+        if (posts.isEmpty()) {
+            throw new IllegalStateException("No posts could be created; see the Seeding report");
+        }
+        return new Population(run, usernames, tokens, posts, new AtomicLong());
+    }
+
+    private static void run(PlaintextClient client, Population population, LoadTestOptions options)
+            throws InterruptedException {
+        Scenario scenario = options.scenario();
+        client.stats().values().forEach(EndpointStats::reset);
+        long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+        long end = warmupEnd + options.duration().toNanos();
+        System.out.printf("Running %s with %d clients: %ds warmup, %ds measured%n", scenario, options.clients(),
+                options.warmup().toSeconds(), options.duration().toSeconds());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < options.clients(); c++) {
+                int user = c % population.usernames().size();
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        step(client, population, scenario, user);
+                    }
+                });
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            client.stats().values().forEach(EndpointStats::reset);
+        }
+    }
+
+    private static void step(PlaintextClient client, Population population, Scenario scenario, int user) {
+        String token = population.tokens().get(user);
+        List<UUID> posts = population.posts();
+        switch (scenario.next()) {
+            case FEED -> client.feed(token);
+            case TIMELINE -> client.timeline(token);
+            case READ_COMMENTS -> client.readComments(token, posts.get(skewed(posts.size())));
+            case LIKE -> client.like(token, scenario == Scenario.LIKE_BURST ? posts.get(0) : posts.get(skewed(posts.size())));
+            case COMMENT -> client.comment(token, posts.get(skewed(posts.size())), "Load test comment");
+            case CREATE_POST -> client.createPost(token, "Load test post");
+            case FOLLOW -> client.follow(token, population.username(skewed(population.usernames().size())));
+            case LOGIN -> client.login(population.username(user));
+            case SIGNUP -> client.signup(population.newUsername());
+        }
+    }
+
+    // Index in [0, size) with a heavy head: a quarter of picks land in the first 1.5%
+    private static int skewed(int size) {
+        double r = ThreadLocalRandom.current().nextDouble();
+        return (int) (size * r * r * r);
+    }
+
+    private static <T> List<T> parallel(int count, IntFunction<T> task) throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.apply(index)));
+            }
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Prints one row per endpoint that saw traffic, then the latencies of its failed calls if
+     * there were any. When {@code out} is set, each outcome's full percentile distribution
+     * (milliseconds) is written as an .hgrm file for plotting: {@code <endpoint>.hgrm} for
+     * successes, {@code -errors} and {@code -429} suffixed for the others.
+     *
+     * @param seconds measured interval for throughput, or negative to omit it
+     */
+    private static void report(String title, Collection<EndpointStats> stats, double seconds, Path out)
+            throws IOException {
+        System.out.printf("%n== %s ==%n", title);
+        System.out.printf("%-34s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms", "errors", "429s");
+        if (out != null) {
+            Files.createDirectories(out);
+        }
+        List<EndpointStats.Snapshot> failing = new ArrayList<>();
+        for (EndpointStats endpointStats : stats) {
+            EndpointStats.Snapshot snapshot = endpointStats.snapshot();
+            Histogram h = snapshot.latencies();
+            if (h.getTotalCount() == 0 && snapshot.errors() == 0 && snapshot.rateLimited() == 0) {
+                continue;
+            }
+            System.out.printf("%-34s %9d %9s %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                    snapshot.endpoint().label, h.getTotalCount(),
+                    seconds > 0 ? String.format("%.1f", h.getTotalCount() / seconds) : "-",
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), snapshot.errors(), snapshot.rateLimited());
+            if (snapshot.errors() > 0 || snapshot.rateLimited() > 0) {
+                failing.add(snapshot);
+            }
+            if (out != null) {
+                String name = snapshot.endpoint().name().toLowerCase(Locale.ROOT);
+                write(out.resolve(name + ".hgrm"), h);
+                write(out.resolve(name + "-errors.hgrm"), snapshot.errorLatencies());
+                write(out.resolve(name + "-429.hgrm"), snapshot.rateLimitedLatencies());
+            }
+        }
+        if (!failing.isEmpty()) {
+            System.out.printf("%nFailed calls:%n%-34s %7s %9s %9s %9s %9s%n",
+                    "endpoint", "outcome", "count", "p50 ms", "p99 ms", "max ms");
+            for (EndpointStats.Snapshot snapshot : failing) {
+                printFailures(snapshot.endpoint(), "error", snapshot.errorLatencies());
+                printFailures(snapshot.endpoint(), "429", snapshot.rateLimitedLatencies());
+            }
+        }
+        if (out != null) {
+            System.out.println("Percentile distributions written to " + out.toAbsolutePath());
+        }
+    }
+
+    private static void printFailures(Endpoint endpoint, String outcome, Histogram h) {
+        if (h.getTotalCount() > 0) {
+            System.out.printf("%-34s %7s %9d %9.2f %9.2f %9.2f%n", endpoint.label, outcome, h.getTotalCount(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)), ms(h.getMaxValue()));
+        }
+    }
+
+    // Empty distributions are not written, so a clean run leaves only the success files
+    private static void write(Path file, Histogram h) throws IOException {
+        if (h.getTotalCount() == 0) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+            h.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.plaintext.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options, all in {@code --name=value} form.
+ *
+ * @param authUrl  base URL of a running auth service; when both URLs are absent the services are booted in-process
+ * @param coreUrl  base URL of a running core service
+ */
+record LoadTestOptions(
+        Scenario scenario,
+        int clients,
+        Duration warmup,
+        Duration duration,
+        int users,
+        int postsPerUser,
+        int followsPerUser,
+        String dbUrl,
+        String dbUser,
+        String dbPassword,
+        String authUrl,
+        String coreUrl,
+        Path out) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = values(args);
+        return new LoadTestOptions(
+                Scenario.valueOf(values.getOrDefault("scenario", "mixed").toUpperCase(Locale.ROOT).replace('-', '_')),
+                Integer.parseInt(values.getOrDefault("clients", "200")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("users", "500")),
+                Integer.parseInt(values.getOrDefault("posts-per-user", "3")),
+                Integer.parseInt(values.getOrDefault("follows-per-user", "10")),
+                values.getOrDefault("db-url", "jdbc:postgresql://localhost:5433/plaintext_db"),
+                values.getOrDefault("db-user", "plaintext_user"),
+                values.getOrDefault("db-password", "plaintext_password"),
+                values.get("auth-url"),
+                values.get("core-url"),
+                Path.of(values.getOrDefault("out", "target/loadtest")));
+    }
+
+    /**
+     * Splits {@code --name=value} arguments into a map; shared with {@link SeedOptions}.
+     */
+    static Map<String, String> values(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            // Maven hands -Dloadtest.args over as a single argument
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.startsWith("--") && token.contains("=")) {
+                    int split = token.indexOf('=');
+                    values.put(token.substring(2, split), token.substring(split + 1));
+                } else if (!token.isEmpty()) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + token);
+                }
+            }
+        }
+        return values;
+    }
+
+    boolean bootServices() {
+        return authUrl == null && coreUrl == null;
+    }
+
+    // Accepts 90s, 5m or plain seconds
+    private static Duration duration(String value) {
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
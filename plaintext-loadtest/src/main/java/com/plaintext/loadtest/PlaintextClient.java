@@ -0,0 +1,140 @@
+package com.plaintext.loadtest;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Thin HTTP client for the Plaintext API. Every call is timed into the endpoint's stats.
+ */
+final class PlaintextClient {
+    static final String PASSWORD = "loadtest-password";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final String authUrl;
+    private final String coreUrl;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    PlaintextClient(String authUrl, String coreUrl) {
+        this.authUrl = authUrl;
+        this.coreUrl = coreUrl;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    Map<Endpoint, EndpointStats> stats() {
+        return stats;
+    }
+
+    boolean signup(String username) {
+        return post(Endpoint.SIGNUP, authUrl + "/api/auth/signup", null,
+                Map.of("username", username, "email", username + "@loadtest.local", "password", PASSWORD)) != null;
+    }
+
+    String login(String username) {
+        JsonNode body = post(Endpoint.LOGIN, authUrl + "/api/auth/login", null,
+                Map.of("username", username, "password", PASSWORD));
+        return body == null ? null : body.get("token").asString();
+    }
+
+    UUID createPost(String token, String content) {
+        JsonNode body = post(Endpoint.CREATE_POST, coreUrl + "/api/posts", token, Map.of("content", content));
+        return body == null ? null : UUID.fromString(body.get("id").asString());
+    }
+
+    List<UUID> feed(String token) {
+        return postIds(get(Endpoint.FEED, coreUrl + "/api/feed?limit=20", token));
+    }
+
+    List<UUID> timeline(String token) {
+        return postIds(get(Endpoint.TIMELINE, coreUrl + "/api/timeline?limit=20", token));
+    }
+
+    void like(String token, UUID postId) {
+        post(Endpoint.LIKE, coreUrl + "/api/posts/" + postId + "/like", token, null);
+    }
+
+    void comment(String token, UUID postId, String text) {
+        post(Endpoint.COMMENT, coreUrl + "/api/posts/" + postId + "/comments", token, Map.of("text", text));
+    }
+
+    void readComments(String token, UUID postId) {
+        get(Endpoint.READ_COMMENTS, coreUrl + "/api/posts/" + postId + "/comments?limit=20", token);
+    }
+
+    void follow(String token, String username) {
+        post(Endpoint.FOLLOW, coreUrl + "/api/users/" + username + "/follow", token, null);
+    }
+
+    private JsonNode get(Endpoint endpoint, String url, String token) {
+        return send(endpoint, request(url, token).GET().build());
+    }
+
+    private JsonNode post(Endpoint endpoint, String url, String token, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body));
+        return send(endpoint, request(url, token).header("Content-Type", "application/json").POST(publisher).build());
+    }
+
+    private HttpRequest.Builder request(String url, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    /**
+     * @return the parsed JSON body of a successful response, or null (also for non-JSON bodies)
+     */
+    private JsonNode send(Endpoint endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status;
+        HttpResponse<byte[]> response = null;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        stats.get(endpoint).record(status, System.nanoTime() - start);
+        if (response == null || status >= 400) {
+            return null;
+        }
+        try {
+            return jsonMapper.readTree(response.body());
+        } catch (JacksonException e) {
+            return null; // e.g. the plain-text follow confirmation
+        }
+    }
+
+    private static List<UUID> postIds(JsonNode page) {
+        List<UUID> ids = new ArrayList<>();
+        if (page != null && page.has("items")) {
+            page.get("items").forEach(item -> ids.add(UUID.fromString(item.get("id").asString())));
+        }
+        return ids;
+    }
+}
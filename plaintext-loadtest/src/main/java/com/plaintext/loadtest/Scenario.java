@@ -0,0 +1,51 @@
+package com.plaintext.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request mixes to replay. Weights are relative; each client picks its next request independently.
+ */
+enum Scenario {
+    // Read-heavy day-to-day traffic
+    MIXED(Map.of(
+            Endpoint.FEED, 45,
+            Endpoint.TIMELINE, 15,
+            Endpoint.READ_COMMENTS, 10,
+            Endpoint.LIKE, 15,
+            Endpoint.COMMENT, 6,
+            Endpoint.CREATE_POST, 4,
+            Endpoint.FOLLOW, 5)),
+    // Every client hammers the like button of the same post
+    LIKE_BURST(Map.of(Endpoint.LIKE, 1)),
+    FEED_READS(Map.of(Endpoint.FEED, 80, Endpoint.TIMELINE, 20)),
+    // Everyone logging in at once, e.g. after a token-invalidating deploy
+    LOGIN_STORM(Map.of(Endpoint.LOGIN, 1)),
+    // A launch or a viral link: new accounts only, each signup hashing a fresh password
+    SIGNUP_STORM(Map.of(Endpoint.SIGNUP, 1));
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    Scenario(Map<Endpoint, Integer> weights) {
+        Map<Endpoint, Integer> ordered = new EnumMap<>(weights);
+        endpoints = ordered.keySet().toArray(Endpoint[]::new);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += ordered.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Endpoint next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
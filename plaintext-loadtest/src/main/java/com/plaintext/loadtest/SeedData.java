@@ -0,0 +1,429 @@
+package com.plaintext.loadtest;
+
+import com.plaintext.auth.AuthApplication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seeds a database with a synthetic social graph for benchmarking feeds, follows and engagement.
+ *
+ * Users are ranked by popularity (index 0 is the most popular). Follower counts and posts per
+ * author are Zipf-distributed over that ranking, and likes and comments are Zipf-distributed over
+ * posts ordered by author rank, so a handful of accounts and posts draw most of the traffic the
+ * way they do on real networks. Rows are streamed with COPY instead of going through JPA, over
+ * several connections per table, and tables without foreign keys between them load in parallel.
+ *
+ * The same options and seed always produce the same dataset, including ids. Seeded users can log
+ * in with {@link PlaintextClient#PASSWORD}.
+ *
+ * Usage: SeedData [--users=100000] [--posts-per-user=5] [--follows-per-user=20] [--likes=users*10]
+ * [--comments=users*2] [--follow-skew=1.0] [--activity-skew=0.6] [--engagement-skew=1.1] [--days=365]
+ * [--seed=42] [--prefix=seed] [--truncate=false] [--timelines=true] [--celebrity-threshold=10000]
+ * [--backfill-size=200] [--connections=4] [--skip-fk-checks=true]
+ * [--db-url=... --db-user=... --db-password=...]
+ */
+public final class SeedData {
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final String[] WORDS = ("just shipped the new build and it finally works after a week of "
+            + "debugging coffee deploy friday weekend thoughts on java latency postgres index cache feed "
+            + "timeline launch review morning music reading garden city rain sunny walk dinner team").split(" ");
+
+    private final SeedOptions options;
+    // "Now" as wall-clock seconds; see CopyWriter#addTimestamp
+    private final long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    private final long start;
+    private final int span;
+
+    // Posts are numbered author by author, most popular author first
+    private int[] authorOf;
+    // Offsets from start, always in the second half of the window so users exist before they act
+    private int[] postTime;
+    private int[] likeCounts;
+    private int[] commentCounts;
+    private boolean skipFkChecks;
+
+    private SeedData(SeedOptions options) {
+        this.options = options;
+        this.span = Math.multiplyExact(options.days(), SECONDS_PER_DAY);
+        this.start = now - span;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SeedOptions options = SeedOptions.parse(args);
+        // Auth's ddl-auto=update creates any missing tables; the services are not needed afterwards
+        LoadTest.boot(AuthApplication.class, options.dbUrl(), options.dbUser(), options.dbPassword(),
+                "--spring.jpa.hibernate.ddl-auto=update").close();
+        new SeedData(options).run();
+    }
+
+    private void run() throws Exception {
+        long begin = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(options.seed());
+        plan(random.split());
+        System.out.printf("Planned %d users, %d posts, %d likes, %d comments in %.1fs%n", options.users(),
+                authorOf.length, sum(likeCounts), sum(commentCounts), seconds(begin));
+
+        if (options.truncate()) {
+            // trending_scores has no foreign key to posts, but every instance's partition scores old ids;
+            // CASCADE covers any table added later that references these
+            execute("TRUNCATE users, posts, follows, post_likes, comments, timeline_entries, post_tags, trending_scores"
+                    + " CASCADE");
+        }
+        skipFkChecks = options.skipFkChecks() && canSkipFkChecks();
+        int users = options.users();
+        int posts = authorOf.length;
+        load(random, new Load("users", users, this::copyUsers));
+        // Both only reference users, then both only reference posts and users
+        load(random, new Load("follows", users, this::copyFollows), new Load("posts", posts, this::copyPosts));
+        load(random, new Load("likes", posts, this::copyLikes), new Load("comments", posts, this::copyComments));
+        if (options.timelines()) {
+            // One item per connection, each filling the timelines of one partition of the users
+            load(random, new Load("timeline entries", options.connections(),
+                    (from, to, partRandom) -> materializeTimelines(from)));
+        }
+        execute("ANALYZE users, follows, posts, post_likes, comments, timeline_entries");
+        System.out.printf("Seeded in %.1fs%n", seconds(begin));
+    }
+
+    /**
+     * Decides who posts what and how much engagement each post gets, before anything is written,
+     * so posts can be copied with their final likes_count and comments_count.
+     */
+    private void plan(SplittableRandom random) {
+        int users = options.users();
+        long posts = (long) users * options.postsPerUser();
+        if (posts > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many posts: " + posts);
+        }
+        ZipfSampler activity = new ZipfSampler(users, options.activitySkew());
+        int[] postsOf = new int[users];
+        for (long p = 0; p < posts; p++) {
+            postsOf[activity.sample(random) - 1]++;
+        }
+        int[] firstPost = new int[users + 1];
+        authorOf = new int[(int) posts];
+        for (int a = 0; a < users; a++) {
+            firstPost[a + 1] = firstPost[a] + postsOf[a];
+            for (int p = firstPost[a]; p < firstPost[a + 1]; p++) {
+                authorOf[p] = a;
+            }
+        }
+        postTime = new int[authorOf.length];
+        for (int p = 0; p < postTime.length; p++) {
+            postTime[p] = span / 2 + random.nextInt(span - span / 2);
+        }
+        likeCounts = engagement(options.likes(), random);
+        commentCounts = engagement(options.comments(), random);
+        // A user likes a post at most once
+        for (int p = 0; p < likeCounts.length; p++) {
+            likeCounts[p] = Math.min(likeCounts[p], users);
+        }
+    }
+
+    private int[] engagement(long total, SplittableRandom random) {
+        int[] counts = new int[authorOf.length];
+        if (counts.length == 0) {
+            return counts;
+        }
+        ZipfSampler sampler = new ZipfSampler(counts.length, options.engagementSkew());
+        for (long i = 0; i < total; i++) {
+            counts[sampler.sample(random) - 1]++;
+        }
+        return counts;
+    }
+
+    private long copyUsers(int from, int to, SplittableRandom random) throws Exception {
+        // One hash for everyone: BCrypt is deliberately slow
+        String passwordHash = new BCryptPasswordEncoder().encode(PlaintextClient.PASSWORD);
+        try (Connection connection = connect();
+             CopyWriter copy = new CopyWriter(connection, "users",
+                     "id", "username", "email", "password_hash", "role", "status", "created_at", "updated_at")) {
+            for (int u = from; u < to; u++) {
+                String username = options.username(u);
+                long createdAt = start + random.nextInt(span / 2);
+                copy.add(userId(u)).add(username).add(username + "@seed.local").add(passwordHash)
+                        .add("USER").add("ACTIVE").addTimestamp(createdAt).addTimestamp(createdAt).endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyFollows(int from, int to, SplittableRandom random) throws Exception {
+        int users = options.users();
+        ZipfSampler popularity = new ZipfSampler(users, options.followSkew());
+        Set<Integer> following = new HashSet<>();
+        try (Connection connection = connect();
+             CopyWriter copy = new CopyWriter(connection, "follows", "follower_id", "following_id", "created_at")) {
+            for (int u = from; u < to; u++) {
+                // Out-degrees are exponential around the mean; in-degrees follow the Zipf popularity
+                int degree = (int) Math.min(users - 1,
+                        Math.round(-Math.log(1 - random.nextDouble()) * options.followsPerUser()));
+                following.clear();
+                for (int attempt = 0; following.size() < degree && attempt < 4 * degree + 16; attempt++) {
+                    int target = popularity.sample(random) - 1;
+                    if (target != u && following.add(target)) {
+                        copy.add(userId(u)).add(userId(target))
+                                .addTimestamp(start + span / 2 + random.nextInt(span - span / 2)).endRow();
+                    }
+                }
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyPosts(int from, int to, SplittableRandom random) throws Exception {
+        try (Connection connection = connect();
+             CopyWriter copy = new CopyWriter(connection, "posts", "id", "user_id", "content", "likes_count",
+                     "comments_count", "moderation_score", "moderation_status", "moderated_at", "created_at",
+                     "updated_at")) {
+            for (int p = from; p < to; p++) {
+                // Approved as soon as posted, as the moderation service does for clean text
+                long createdAt = start + postTime[p];
+                copy.add(postId(p)).add(userId(authorOf[p])).add(text(random, 5, 30, 280))
+                        .add(likeCounts[p]).add(commentCounts[p]).add(0).add("APPROVED")
+                        .addTimestamp(createdAt).addTimestamp(createdAt).addTimestamp(createdAt).endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyLikes(int from, int to, SplittableRandom random) throws Exception {
+        int users = options.users();
+        Set<Integer> likers = new HashSet<>();
+        try (Connection connection = connect();
+             CopyWriter copy = new CopyWriter(connection, "post_likes", "user_id", "post_id", "created_at")) {
+            for (int p = from; p < to; p++) {
+                int k = likeCounts[p];
+                // Floyd's algorithm: k distinct users out of all of them in O(k)
+                likers.clear();
+                for (int j = users - k; j < users; j++) {
+                    int candidate = random.nextInt(j + 1);
+                    likers.add(likers.contains(candidate) ? j : candidate);
+                }
+                UUID postId = postId(p);
+                for (int user : likers) {
+                    copy.add(userId(user)).add(postId).addTimestamp(engagedAt(p, random)).endRow();
+                }
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyComments(int from, int to, SplittableRandom random) throws Exception {
+        int users = options.users();
+        // Comment ids are numbered across all posts
+        long index = 0;
+        for (int p = 0; p < from; p++) {
+            index += commentCounts[p];
+        }
+        try (Connection connection = connect();
+             CopyWriter copy = new CopyWriter(connection, "comments", "id", "post_id", "user_id", "content",
+                     "created_at")) {
+            for (int p = from; p < to; p++) {
+                UUID postId = postId(p);
+                for (int c = 0; c < commentCounts[p]; c++) {
+                    copy.add(id(3, index++)).add(postId).add(userId(random.nextInt(users)))
+                            .add(text(random, 3, 15, 140)).addTimestamp(engagedAt(p, random)).endRow();
+                }
+            }
+            return copy.finish();
+        }
+    }
+
+    /**
+     * Fills home timelines the way the running service would have: every post in its author's own
+     * timeline, and each follower of a regular author backfilled with that author's newest posts.
+     * Authors above the celebrity threshold are merged at read time and get no fan-out rows.
+     * Followers are split into one partition per connection by hash.
+     */
+    private long materializeTimelines(int partition) throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("""
+                     WITH celebrities AS (
+                         SELECT following_id FROM follows GROUP BY following_id HAVING count(*) >= ?
+                     )
+                     INSERT INTO timeline_entries (user_id, post_id, author_id, created_at)
+                     SELECT f.follower_id, p.id, p.user_id, p.created_at FROM follows f
+                     CROSS JOIN LATERAL (
+                         SELECT id, user_id, created_at FROM posts
+                         WHERE user_id = f.following_id
+                         ORDER BY created_at DESC, id DESC
+                         LIMIT ?
+                     ) p
+                     WHERE f.following_id NOT IN (SELECT following_id FROM celebrities)
+                       AND abs(hashtext(f.follower_id::text)) % ? = ?
+                     UNION ALL
+                     SELECT p.user_id, p.id, p.user_id, p.created_at FROM posts p
+                     WHERE abs(hashtext(p.user_id::text)) % ? = ?
+                     ON CONFLICT DO NOTHING
+                     """)) {
+            statement.setInt(1, options.celebrityThreshold());
+            statement.setInt(2, options.backfillSize());
+            statement.setInt(3, options.connections());
+            statement.setInt(4, partition);
+            statement.setInt(5, options.connections());
+            statement.setInt(6, partition);
+            return statement.executeLargeUpdate();
+        }
+    }
+
+    private long engagedAt(int post, SplittableRandom random) {
+        return start + postTime[post] + random.nextLong(span - postTime[post] + 1L);
+    }
+
+    private static String text(SplittableRandom random, int minWords, int maxWords, int maxLength) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (text.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(word);
+        }
+        return text.toString();
+    }
+
+    private UUID userId(int index) {
+        return id(1, index);
+    }
+
+    private UUID postId(int index) {
+        return id(2, index);
+    }
+
+    /**
+     * Deterministic version 4 style UUID. The index in the low bits keeps ids unique per kind;
+     * the mixed high bits spread them over the B-tree the way random UUIDs would.
+     */
+    private UUID id(int kind, long index) {
+        long mostSigBits = mix64(options.seed() ^ ((long) kind << 56) ^ mix64(index));
+        mostSigBits = (mostSigBits & ~0xF000L) | 0x4000L;
+        long leastSigBits = (index & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(options.dbUrl(), options.dbUser(), options.dbPassword());
+        try (Statement statement = connection.createStatement()) {
+            // Seeding is repeatable, so losing the tail of it in a crash is acceptable
+            statement.execute("SET synchronous_commit = off");
+            if (skipFkChecks) {
+                // Disables the per-row triggers that check foreign keys, roughly doubling COPY throughput
+                statement.execute("SET session_replication_role = replica");
+            }
+        }
+        return connection;
+    }
+
+    private boolean canSkipFkChecks() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET session_replication_role = replica");
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Foreign keys stay checked while loading: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeCopy {
+        /**
+         * @return rows written for items [from, to)
+         */
+        long copy(int from, int to, SplittableRandom random) throws Exception;
+    }
+
+    // One table, whose rows are generated from items 0..size (users or posts)
+    private record Load(String table, int size, RangeCopy copy) {
+    }
+
+    /**
+     * Loads the tables concurrently, each split into {@code --connections} contiguous ranges with
+     * a connection and a random stream of their own. Streams are split off in a fixed order, so
+     * the output does not depend on thread scheduling.
+     */
+    private void load(SplittableRandom random, Load... loads) throws Exception {
+        int chunks = options.connections();
+        long begin = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(loads.length * chunks)) {
+            List<List<Future<Long>>> running = new ArrayList<>();
+            AtomicLongArray finished = new AtomicLongArray(loads.length);
+            for (int i = 0; i < loads.length; i++) {
+                Load load = loads[i];
+                int table = i;
+                List<Future<Long>> parts = new ArrayList<>();
+                for (int c = 0; c < chunks; c++) {
+                    int from = (int) ((long) load.size() * c / chunks);
+                    int to = (int) ((long) load.size() * (c + 1) / chunks);
+                    SplittableRandom partRandom = random.split();
+                    parts.add(executor.submit(() -> {
+                        long rows = load.copy().copy(from, to, partRandom);
+                        finished.accumulateAndGet(table, System.nanoTime(), Math::max);
+                        return rows;
+                    }));
+                }
+                running.add(parts);
+            }
+            for (int i = 0; i < loads.length; i++) {
+                long rows = 0;
+                for (Future<Long> part : running.get(i)) {
+                    try {
+                        rows += part.get();
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof Exception cause ? cause : e;
+                    }
+                }
+                double elapsed = (finished.get(i) - begin) / 1e9;
+                System.out.printf("  %-16s %,14d rows in %6.1fs (%,.0f rows/s)%n", loads[i].table(), rows, elapsed,
+                        rows / Math.max(elapsed, 0.001));
+            }
+        }
+    }
+
+    private static long sum(int[] values) {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static double seconds(long beginNanos) {
+        return (System.nanoTime() - beginNanos) / 1e9;
+    }
+}
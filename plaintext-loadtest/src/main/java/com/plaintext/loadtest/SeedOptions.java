@@ -0,0 +1,80 @@
+package com.plaintext.loadtest;
+
+import java.util.Map;
+
+/**
+ * Command line options for {@link SeedData}, in the same {@code --name=value} form as the load test.
+ *
+ * @param followSkew     Zipf exponent of follower counts; around 1 gives a few accounts with a large share of all follows
+ * @param activitySkew   Zipf exponent of posts per author, over the same popularity ranking
+ * @param engagementSkew Zipf exponent of likes and comments per post; posts of popular authors rank first
+ * @param prefix         username prefix, so several datasets can share a database
+ * @param truncate       empty every content table before seeding
+ * @param timelines      materialize home timelines the way fan-out on write would have
+ * @param connections    parallel COPY streams per table
+ * @param skipFkChecks   skip foreign key triggers while loading, when the role may; generated rows are consistent anyway
+ */
+record SeedOptions(
+        int users,
+        int postsPerUser,
+        int followsPerUser,
+        long likes,
+        long comments,
+        double followSkew,
+        double activitySkew,
+        double engagementSkew,
+        int days,
+        long seed,
+        String prefix,
+        boolean truncate,
+        boolean timelines,
+        int celebrityThreshold,
+        int backfillSize,
+        int connections,
+        boolean skipFkChecks,
+        String dbUrl,
+        String dbUser,
+        String dbPassword) {
+
+    static SeedOptions parse(String[] args) {
+        Map<String, String> values = LoadTestOptions.values(args);
+        int users = Integer.parseInt(values.getOrDefault("users", "100000"));
+        SeedOptions options = new SeedOptions(
+                users,
+                Integer.parseInt(values.getOrDefault("posts-per-user", "5")),
+                Integer.parseInt(values.getOrDefault("follows-per-user", "20")),
+                Long.parseLong(values.getOrDefault("likes", Long.toString(users * 10L))),
+                Long.parseLong(values.getOrDefault("comments", Long.toString(users * 2L))),
+                Double.parseDouble(values.getOrDefault("follow-skew", "1.0")),
+                Double.parseDouble(values.getOrDefault("activity-skew", "0.6")),
+                Double.parseDouble(values.getOrDefault("engagement-skew", "1.1")),
+                Integer.parseInt(values.getOrDefault("days", "365")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("prefix", "seed"),
+                Boolean.parseBoolean(values.getOrDefault("truncate", "false")),
+                Boolean.parseBoolean(values.getOrDefault("timelines", "true")),
+                // Keep in step with plaintext.timeline.* in the core configuration
+                Integer.parseInt(values.getOrDefault("celebrity-threshold", "10000")),
+                Integer.parseInt(values.getOrDefault("backfill-size", "200")),
+                Integer.parseInt(values.getOrDefault("connections", "4")),
+                Boolean.parseBoolean(values.getOrDefault("skip-fk-checks", "true")),
+                values.getOrDefault("db-url", "jdbc:postgresql://localhost:5433/plaintext_db"),
+                values.getOrDefault("db-user", "plaintext_user"),
+                values.getOrDefault("db-password", "plaintext_password"));
+        if (users < 2) {
+            throw new IllegalArgumentException("--users must be at least 2");
+        }
+        if (options.connections() < 1) {
+            throw new IllegalArgumentException("--connections must be positive");
+        }
+        // users.username is limited to 20 characters
+        if (options.username(users - 1).length() > 20) {
+            throw new IllegalArgumentException("--prefix is too long for " + users + " users");
+        }
+        return options;
+    }
+
+    String username(int index) {
+        return prefix + index;
+    }
+}
@@ -0,0 +1,56 @@
+package com.plaintext.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfSamplerTest {
+
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    void matchesTheZipfProbabilities() {
+        int n = 1000;
+        for (double exponent : new double[]{0.6, 1.0, 1.1}) {
+            long[] counts = sample(new ZipfSampler(n, exponent), n);
+
+            double normalizer = 0;
+            for (int k = 1; k <= n; k++) {
+                normalizer += Math.pow(k, -exponent);
+            }
+            for (int k : new int[]{1, 2, 10, 100}) {
+                double expected = DRAWS * Math.pow(k, -exponent) / normalizer;
+                // Well over five standard deviations of a binomial count
+                assertEquals(expected, counts[k], 6 * Math.sqrt(expected) + 1, "exponent " + exponent + ", rank " + k);
+            }
+        }
+    }
+
+    @Test
+    void staysWithinRange() {
+        long[] counts = sample(new ZipfSampler(3, 0.1), 3);
+
+        assertEquals(0, counts[0]);
+        assertTrue(counts[1] > counts[3], "rank 1 must stay the most likely");
+        assertEquals(DRAWS, counts[1] + counts[2] + counts[3]);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, 0));
+    }
+
+    private static long[] sample(ZipfSampler sampler, int n) {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        return counts;
+    }
+}
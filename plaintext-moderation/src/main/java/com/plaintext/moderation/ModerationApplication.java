@@ -0,0 +1,16 @@
+package com.plaintext.moderation;
+
+import com.plaintext.common.ratelimit.RateLimitConfig;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.security.autoconfigure.UserDetailsServiceAutoConfiguration;
+
+// Works on the posts table with plain JDBC, so neither entities nor repositories are scanned.
+// Nobody logs in here, so no default user either, and nothing to rate-limit.
+@SpringBootApplication(exclude = { UserDetailsServiceAutoConfiguration.class, RateLimitConfig.class })
+public class ModerationApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ModerationApplication.class, args);
+    }
+}
@@ -0,0 +1,39 @@
+package com.plaintext.moderation.config;
+
+import com.plaintext.common.moderation.BannedTermScanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+@Configuration
+@EnableScheduling
+public class ModerationConfig {
+
+    public static final String SCORING_EXECUTOR = "scoringExecutor";
+
+    /** Starts with the inline terms; BannedTermsReloader adds the file's, if one is configured. */
+    @Bean
+    public BannedTermScanner bannedTermScanner(@Value("${plaintext.moderation.banned-terms:}") List<String> terms) {
+        return new BannedTermScanner(terms);
+    }
+
+    /**
+     * Scores the posts of one claimed batch. The pipeline submits one slice per worker and
+     * waits for all of them, so the queue never holds more than a batch worth of slices.
+     */
+    @Bean(name = SCORING_EXECUTOR)
+    public ThreadPoolTaskExecutor scoringExecutor(@Value("${plaintext.moderation.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("scoring-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
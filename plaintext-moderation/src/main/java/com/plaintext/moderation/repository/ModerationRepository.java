@@ -0,0 +1,89 @@
+package com.plaintext.moderation.repository;
+
+import com.plaintext.common.enums.ModerationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The moderation queue is the posts table itself: PENDING rows are the backlog, and
+ * idx_posts_moderation_status_created_at keeps claiming the oldest of them cheap.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationRepository {
+
+    // SKIP LOCKED lets several instances claim disjoint batches instead of queueing on each
+    // other's row locks. The locks are held until the claiming transaction writes the verdicts.
+    private static final String CLAIM_SQL = """
+            SELECT id, content, moderation_attempts FROM posts
+             WHERE moderation_status = ?
+             ORDER BY created_at
+             LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            """;
+
+    // moderated_at is what core polls to apply verdicts to its caches. It is the clock when the
+    // row is written, just before commit: LOCALTIMESTAMP would be the start of the transaction,
+    // which is older than core's overlap window when scoring a batch takes long.
+    private static final String VERDICT_SQL = """
+            UPDATE posts SET moderation_status = ?, moderation_score = ?,
+                   moderated_at = CAST(clock_timestamp() AS timestamp)
+             WHERE id = ?
+            """;
+
+    private static final String FAILURE_SQL = """
+            UPDATE posts SET moderation_attempts = moderation_attempts + 1 WHERE id = ?
+            """;
+
+    private static final String BACKLOG_SQL = """
+            SELECT count(*), min(created_at), LOCALTIMESTAMP FROM posts WHERE moderation_status = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks up to {@code limit} of the oldest PENDING posts not already locked by another
+     * claimer. Must run inside a transaction, which then owns the rows until it ends.
+     */
+    public List<PendingPost> claimPending(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, row) -> new PendingPost(
+                        rs.getObject("id", UUID.class), rs.getString("content"), rs.getInt("moderation_attempts")),
+                ModerationStatus.PENDING.name(), limit);
+    }
+
+    public void saveVerdicts(List<Verdict> verdicts) {
+        jdbcTemplate.batchUpdate(VERDICT_SQL, verdicts, verdicts.size(), (ps, verdict) -> {
+            ps.setString(1, verdict.status().name());
+            ps.setInt(2, verdict.score());
+            ps.setObject(3, verdict.postId());
+        });
+    }
+
+    /**
+     * Counts a failed scoring attempt for each post, leaving its status as it is.
+     */
+    public void saveFailures(List<UUID> postIds) {
+        jdbcTemplate.batchUpdate(FAILURE_SQL, postIds, postIds.size(), (ps, postId) -> ps.setObject(1, postId));
+    }
+
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, row) -> {
+            Timestamp oldest = rs.getTimestamp(2);
+            LocalDateTime now = rs.getTimestamp(3).toLocalDateTime();
+            return new Backlog(rs.getLong(1),
+                    oldest == null ? Duration.ZERO : Duration.between(oldest.toLocalDateTime(), now));
+        }, ModerationStatus.PENDING.name());
+    }
+
+    /** PENDING posts and how long the oldest of them has been waiting, by the database clock. */
+    public record Backlog(long posts, Duration oldestAge) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.plaintext.moderation.repository;
+
+import java.util.UUID;
+
+/**
+ * @param attempts failed scoring attempts so far
+ */
+public record PendingPost(UUID id, String content, int attempts) {
+}
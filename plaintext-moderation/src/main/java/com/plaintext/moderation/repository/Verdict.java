@@ -0,0 +1,8 @@
+package com.plaintext.moderation.repository;
+
+import com.plaintext.common.enums.ModerationStatus;
+
+import java.util.UUID;
+
+public record Verdict(UUID postId, ModerationStatus status, int score) {
+}
@@ -0,0 +1,83 @@
+package com.plaintext.moderation.scoring;
+
+import com.plaintext.common.moderation.BannedTermScanner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the scanner in step with {@code plaintext.moderation.banned-terms-file}, one term per
+ * line with {@code #} comments, on top of the inline {@code banned-terms}. The file is checked
+ * for changes periodically and recompiled off the scoring threads; scoring carries on against
+ * the previous list meanwhile, and keeps it if the file cannot be read.
+ */
+@Slf4j
+@Component
+public class BannedTermsReloader {
+    private final BannedTermScanner scanner;
+    private final List<String> inlineTerms;
+    private final Path file;
+    private FileTime loadedVersion;
+
+    public BannedTermsReloader(BannedTermScanner scanner,
+                               @Value("${plaintext.moderation.banned-terms:}") List<String> inlineTerms,
+                               @Value("${plaintext.moderation.banned-terms-file:}") String file,
+                               MeterRegistry meterRegistry) {
+        this.scanner = scanner;
+        this.inlineTerms = inlineTerms;
+        this.file = file.isBlank() ? null : Path.of(file);
+        Gauge.builder("plaintext.moderation.banned.terms", scanner, BannedTermScanner::size)
+                .description("Terms in the banned-term automaton")
+                .register(meterRegistry);
+        if (this.file != null) {
+            // Fail startup rather than moderate without the list
+            try {
+                reload();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read banned terms from " + this.file, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.moderation.banned-terms-refresh-ms:30000}")
+    public void refresh() {
+        if (file == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IOException e) {
+            log.warn("Cannot read banned terms from {}, keeping the current {} terms", file, scanner.size(), e);
+        }
+    }
+
+    private synchronized void reload() throws IOException {
+        FileTime version = Files.getLastModifiedTime(file);
+        if (version.equals(loadedVersion)) {
+            return;
+        }
+        List<String> terms = new ArrayList<>(inlineTerms);
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank() && !line.stripLeading().startsWith("#")) {
+                terms.add(line);
+            }
+        }
+        long start = System.nanoTime();
+        scanner.reload(terms);
+        loadedVersion = version;
+        log.info("Loaded {} banned terms from {} in {} ms", scanner.size(), file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,11 @@
+package com.plaintext.moderation.scoring;
+
+/**
+ * Scores post text from 0 (clean) to 100 (certainly unacceptable). Called concurrently
+ * from the scoring workers, so implementations must be thread-safe.
+ */
+public interface ContentScorer {
+    int MAX_SCORE = 100;
+
+    int score(String content);
+}
@@ -0,0 +1,57 @@
+package com.plaintext.moderation.scoring;
+
+import com.plaintext.common.moderation.BannedTermScanner;
+import com.plaintext.common.moderation.TermMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rule-based scoring: each banned term occurrence adds {@link #TERM_WEIGHT}, and link spam and
+ * all-caps shouting add smaller penalties. Terms are matched by an Aho-Corasick automaton in
+ * one pass over the text, however long the list, and the scan allocates nothing.
+ */
+@Component
+public class KeywordScorer implements ContentScorer {
+    static final int TERM_WEIGHT = 50;
+    static final int LINK_SPAM_WEIGHT = 20;
+    static final int SHOUTING_WEIGHT = 20;
+    private static final int MAX_LINKS = 3;
+    private static final int SHOUTING_MIN_LETTERS = 20;
+    private static final TermMatcher LINKS = TermMatcher.compile(List.of("http://", "https://"));
+
+    private final BannedTermScanner bannedTerms;
+
+    public KeywordScorer(BannedTermScanner bannedTerms) {
+        this.bannedTerms = bannedTerms;
+    }
+
+    @Override
+    public int score(String content) {
+        // Capped before multiplying so a wall of repeats cannot overflow
+        int score = Math.min(bannedTerms.count(content), MAX_SCORE) * TERM_WEIGHT;
+        if (LINKS.count(content) > MAX_LINKS) {
+            score += LINK_SPAM_WEIGHT;
+        }
+        if (isShouting(content)) {
+            score += SHOUTING_WEIGHT;
+        }
+        return Math.min(score, MAX_SCORE);
+    }
+
+    // At least SHOUTING_MIN_LETTERS letters, nine in ten of them upper case
+    private static boolean isShouting(String content) {
+        int letters = 0;
+        int upper = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                if (Character.isUpperCase(c)) {
+                    upper++;
+                }
+            }
+        }
+        return letters >= SHOUTING_MIN_LETTERS && upper * 10 >= letters * 9;
+    }
+}
@@ -0,0 +1,206 @@
+package com.plaintext.moderation.service;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.moderation.config.ModerationConfig;
+import com.plaintext.moderation.repository.ModerationRepository;
+import com.plaintext.moderation.repository.PendingPost;
+import com.plaintext.moderation.repository.Verdict;
+import com.plaintext.moderation.scoring.ContentScorer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves PENDING posts to APPROVED or REJECTED, entirely off the request path: createPost
+ * only inserts the row, and this pipeline picks it up on its next poll.
+ *
+ * Each batch is one transaction: claim the oldest pending posts with SKIP LOCKED, score them
+ * in parallel slices on the scoring pool, then write every verdict in one batched UPDATE.
+ * Any number of instances can run side by side; a crash before commit just releases the
+ * rows for the next claimer. Posts whose scoring throws stay PENDING and are retried on a
+ * later poll, until their {@code max-attempts}-th failure moves them to REJECTED_ERROR.
+ */
+@Slf4j
+@Service
+public class ModerationPipeline {
+    private final ModerationRepository moderationRepository;
+    private final ContentScorer scorer;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor scoringExecutor;
+    private final int batchSize;
+    private final int workers;
+    private final int rejectThreshold;
+    private final int maxAttempts;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final Counter approved;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private final AtomicLong backlogPosts = new AtomicLong();
+    private final AtomicLong backlogAgeSeconds = new AtomicLong();
+
+    private volatile boolean stopping;
+
+    public ModerationPipeline(ModerationRepository moderationRepository,
+                              ContentScorer scorer,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier(ModerationConfig.SCORING_EXECUTOR) Executor scoringExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${plaintext.moderation.batch-size:200}") int batchSize,
+                              @Value("${plaintext.moderation.workers:4}") int workers,
+                              @Value("${plaintext.moderation.reject-threshold:50}") int rejectThreshold,
+                              @Value("${plaintext.moderation.max-attempts:3}") int maxAttempts) {
+        this.moderationRepository = moderationRepository;
+        this.scorer = scorer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scoringExecutor = scoringExecutor;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.rejectThreshold = rejectThreshold;
+        this.maxAttempts = maxAttempts;
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = Timer.builder("plaintext.moderation.batch")
+                .description("Claim, score and update of one non-empty batch")
+                .register(meterRegistry);
+        this.approved = posts(ModerationStatus.APPROVED);
+        this.rejected = posts(ModerationStatus.REJECTED);
+        this.failed = Counter.builder("plaintext.moderation.errors")
+                .description("Failed scoring attempts, including those that moved the post to REJECTED_ERROR")
+                .register(meterRegistry);
+        this.deadLettered = posts(ModerationStatus.REJECTED_ERROR);
+        Gauge.builder("plaintext.moderation.backlog", backlogPosts, AtomicLong::get)
+                .description("PENDING posts at the last backlog refresh")
+                .register(meterRegistry);
+        Gauge.builder("plaintext.moderation.backlog.age", backlogAgeSeconds, AtomicLong::get)
+                .description("Wait of the oldest PENDING post at the last backlog refresh")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.moderation.poll-interval-ms:500}")
+    public void drain() {
+        // A batch of verdicts only means more are probably waiting. Failed posts are claimed
+        // first again, so a batch with any failure ends the drain until the next poll.
+        int moderated;
+        do {
+            moderated = moderateBatch();
+        } while (moderated == batchSize && !stopping);
+    }
+
+    /**
+     * @return the number of posts scored, not counting those whose scoring failed
+     */
+    public int moderateBatch() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Verdict> verdicts = new ArrayList<>();
+        List<UUID> failures = new ArrayList<>();
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<PendingPost> posts = moderationRepository.claimPending(batchSize);
+            if (!posts.isEmpty()) {
+                score(posts, verdicts, failures);
+                if (!verdicts.isEmpty()) {
+                    moderationRepository.saveVerdicts(verdicts);
+                }
+                if (!failures.isEmpty()) {
+                    moderationRepository.saveFailures(failures);
+                }
+            }
+            return posts.size();
+        });
+        if (claimed == null || claimed == 0) {
+            return 0;
+        }
+        sample.stop(batchTimer);
+        // Dead-lettered posts get a verdict too, but were never scored
+        int moderated = verdicts.size();
+        for (Verdict verdict : verdicts) {
+            switch (verdict.status()) {
+                case APPROVED -> approved.increment();
+                case REJECTED -> rejected.increment();
+                default -> {
+                    deadLettered.increment();
+                    moderated--;
+                }
+            }
+        }
+        failed.increment(failures.size());
+        return moderated;
+    }
+
+    @Scheduled(fixedDelayString = "${plaintext.moderation.backlog-refresh-ms:10000}")
+    public void refreshBacklog() {
+        ModerationRepository.Backlog backlog = moderationRepository.backlog();
+        backlogPosts.set(backlog.posts());
+        backlogAgeSeconds.set(backlog.oldestAge().toSeconds());
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    // One slice per worker; the caller's transaction stays open until every slice is scored.
+    // Fills verdicts, and failures with the posts whose scoring threw; a post failing its last
+    // attempt gets a REJECTED_ERROR verdict as well.
+    private void score(List<PendingPost> posts, List<Verdict> verdicts, List<UUID> failures) {
+        int sliceSize = (posts.size() + workers - 1) / workers;
+        List<CompletableFuture<Slice>> slices = new ArrayList<>();
+        for (int from = 0; from < posts.size(); from += sliceSize) {
+            List<PendingPost> slice = posts.subList(from, Math.min(from + sliceSize, posts.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> scoreSlice(slice), scoringExecutor));
+        }
+        for (CompletableFuture<Slice> slice : slices) {
+            verdicts.addAll(slice.join().verdicts());
+            failures.addAll(slice.join().failures());
+        }
+    }
+
+    private Slice scoreSlice(List<PendingPost> posts) {
+        Slice slice = new Slice(new ArrayList<>(posts.size()), new ArrayList<>());
+        for (PendingPost post : posts) {
+            try {
+                int score = scorer.score(post.content());
+                ModerationStatus status = score >= rejectThreshold ? ModerationStatus.REJECTED : ModerationStatus.APPROVED;
+                slice.verdicts().add(new Verdict(post.id(), status, score));
+            } catch (RuntimeException e) {
+                slice.failures().add(post.id());
+                if (post.attempts() + 1 >= maxAttempts) {
+                    slice.verdicts().add(new Verdict(post.id(), ModerationStatus.REJECTED_ERROR, 0));
+                    log.error("Scoring post {} failed {} times, moving it to REJECTED_ERROR", post.id(), maxAttempts, e);
+                } else {
+                    log.warn("Scoring post {} failed, leaving it PENDING", post.id(), e);
+                }
+            }
+        }
+        return slice;
+    }
+
+    private Counter posts(ModerationStatus status) {
+        return Counter.builder("plaintext.moderation.posts")
+                .description("Posts moderated, by verdict")
+                .tag("status", status.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private record Slice(List<Verdict> verdicts, List<UUID> failures) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.plaintext.moderation.scoring;
+
+import com.plaintext.common.moderation.BannedTermScanner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BannedTermsReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void refresh_ReloadsTheFileWhenItChanges() throws Exception {
+        Path file = dir.resolve("banned.txt");
+        Files.writeString(file, "# spam\ncheap watches\n\n  \n");
+        BannedTermScanner scanner = new BannedTermScanner(List.of());
+        BannedTermsReloader reloader = new BannedTermsReloader(scanner, List.of("free crypto"), file.toString(),
+                new SimpleMeterRegistry());
+
+        assertEquals(2, scanner.size());
+        assertEquals(2, scanner.count("cheap watches and free crypto"));
+
+        Files.writeString(file, "lottery win\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        reloader.refresh();
+
+        assertEquals(1, scanner.count("cheap watches and free crypto"));
+        assertEquals(1, scanner.count("Lottery Win!"));
+    }
+
+    @Test
+    void refresh_KeepsTheCurrentListWhenTheFileGoesMissing() throws Exception {
+        Path file = dir.resolve("banned.txt");
+        Files.writeString(file, "cheap watches\n");
+        BannedTermScanner scanner = new BannedTermScanner(List.of());
+        BannedTermsReloader reloader = new BannedTermsReloader(scanner, List.of(), file.toString(),
+                new SimpleMeterRegistry());
+
+        Files.delete(file);
+        reloader.refresh();
+
+        assertEquals(1, scanner.count("cheap watches"));
+    }
+}
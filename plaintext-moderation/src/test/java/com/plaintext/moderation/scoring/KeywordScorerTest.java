@@ -0,0 +1,44 @@
+package com.plaintext.moderation.scoring;
+
+import com.plaintext.common.moderation.BannedTermScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordScorerTest {
+
+    private final BannedTermScanner bannedTerms = new BannedTermScanner(List.of(" Free Crypto ", "buy followers", ""));
+    private final KeywordScorer scorer = new KeywordScorer(bannedTerms);
+
+    @Test
+    void score_CleanTextIsZero() {
+        assertEquals(0, scorer.score("Lovely weather for a walk today"));
+    }
+
+    @Test
+    void score_BannedTermsMatchIgnoringCase() {
+        assertEquals(KeywordScorer.TERM_WEIGHT, scorer.score("Get FREE CRYPTO now"));
+        assertEquals(ContentScorer.MAX_SCORE, scorer.score("free crypto and buy followers here"));
+    }
+
+    @Test
+    void score_FollowsReloadedTerms() {
+        assertEquals(0, scorer.score("cheap watches"));
+
+        bannedTerms.reload(List.of("cheap watches"));
+
+        assertEquals(KeywordScorer.TERM_WEIGHT, scorer.score("CHEAP WATCHES"));
+        assertEquals(0, scorer.score("free crypto"));
+    }
+
+    @Test
+    void score_PenalisesLinkSpamAndShouting() {
+        assertEquals(KeywordScorer.LINK_SPAM_WEIGHT,
+                scorer.score("see http://a.example https://b.example http://c.example https://d.example"));
+        assertEquals(0, scorer.score("see http://a.example and https://b.example"));
+        assertEquals(KeywordScorer.SHOUTING_WEIGHT, scorer.score("THIS IS THE BEST DAY OF MY WHOLE LIFE!!!"));
+        assertEquals(0, scorer.score("OK FINE"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.plaintext.moderation.service;
+
+import com.plaintext.common.enums.ModerationStatus;
+import com.plaintext.moderation.repository.ModerationRepository;
+import com.plaintext.moderation.repository.PendingPost;
+import com.plaintext.moderation.repository.Verdict;
+import com.plaintext.moderation.scoring.ContentScorer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationPipelineTest {
+
+    @Mock
+    private ModerationRepository moderationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final ContentScorer BROKEN_SCORER = content -> {
+        if (content.equals("broken")) {
+            throw new IllegalStateException("scorer bug");
+        }
+        return 0;
+    };
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<String> scoringThreads = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void moderateBatch_ScoresInParallelAndWritesEveryVerdictInOneBatch() {
+        List<PendingPost> claimed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            claimed.add(new PendingPost(UUID.randomUUID(), i % 4 == 0 ? "bad " + i : "good " + i, 0));
+        }
+        when(moderationRepository.claimPending(100)).thenReturn(claimed);
+        ModerationPipeline pipeline = pipeline(100, content -> {
+            scoringThreads.add(Thread.currentThread().getName());
+            return content.startsWith("bad") ? 90 : 10;
+        });
+
+        assertEquals(100, pipeline.moderateBatch());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Verdict>> saved = ArgumentCaptor.forClass(List.class);
+        verify(moderationRepository).saveVerdicts(saved.capture());
+        Map<UUID, Verdict> byPost = saved.getValue().stream()
+                .collect(Collectors.toMap(Verdict::postId, Function.identity()));
+        assertEquals(100, byPost.size());
+        for (PendingPost post : claimed) {
+            Verdict verdict = byPost.get(post.id());
+            boolean bad = post.content().startsWith("bad");
+            assertEquals(bad ? ModerationStatus.REJECTED : ModerationStatus.APPROVED, verdict.status());
+            assertEquals(bad ? 90 : 10, verdict.score());
+        }
+        assertTrue(scoringThreads.size() > 1);
+        assertEquals(25, meterRegistry.get("plaintext.moderation.posts").tag("status", "rejected").counter().count());
+        assertEquals(75, meterRegistry.get("plaintext.moderation.posts").tag("status", "approved").counter().count());
+    }
+
+    @Test
+    void moderateBatch_LeavesPostsWhoseScoringThrowsPending() {
+        PendingPost broken = new PendingPost(UUID.randomUUID(), "broken", 0);
+        PendingPost fine = new PendingPost(UUID.randomUUID(), "fine", 0);
+        when(moderationRepository.claimPending(10)).thenReturn(List.of(broken, fine));
+        ModerationPipeline pipeline = pipeline(10, BROKEN_SCORER);
+
+        assertEquals(1, pipeline.moderateBatch());
+
+        verify(moderationRepository).saveVerdicts(List.of(new Verdict(fine.id(), ModerationStatus.APPROVED, 0)));
+        verify(moderationRepository).saveFailures(List.of(broken.id()));
+        assertEquals(1, meterRegistry.get("plaintext.moderation.errors").counter().count());
+    }
+
+    @Test
+    void moderateBatch_DeadLettersPostsOnTheirLastAttempt() {
+        PendingPost broken = new PendingPost(UUID.randomUUID(), "broken", 2);
+        when(moderationRepository.claimPending(10)).thenReturn(List.of(broken));
+        ModerationPipeline pipeline = pipeline(10, BROKEN_SCORER);
+
+        assertEquals(0, pipeline.moderateBatch());
+
+        verify(moderationRepository).saveVerdicts(List.of(new Verdict(broken.id(), ModerationStatus.REJECTED_ERROR, 0)));
+        verify(moderationRepository).saveFailures(List.of(broken.id()));
+        assertEquals(1, meterRegistry.get("plaintext.moderation.posts").tag("status", "rejected_error").counter().count());
+    }
+
+    @Test
+    void drain_ClaimsUntilABatchComesBackShort() {
+        when(moderationRepository.claimPending(2)).thenReturn(
+                List.of(new PendingPost(UUID.randomUUID(), "a", 0), new PendingPost(UUID.randomUUID(), "b", 0)),
+                List.of(new PendingPost(UUID.randomUUID(), "c", 0)));
+        ModerationPipeline pipeline = pipeline(2, content -> 0);
+
+        pipeline.drain();
+
+        verify(moderationRepository, times(2)).claimPending(2);
+        verify(moderationRepository, times(2)).saveVerdicts(anyList());
+    }
+
+    @Test
+    void drain_StopsAtABatchWithFailures() {
+        // Failed posts are the oldest PENDING ones, so claiming again would return them first
+        when(moderationRepository.claimPending(2)).thenReturn(
+                List.of(new PendingPost(UUID.randomUUID(), "broken", 0), new PendingPost(UUID.randomUUID(), "fine", 0)));
+        ModerationPipeline pipeline = pipeline(2, BROKEN_SCORER);
+
+        pipeline.drain();
+
+        verify(moderationRepository, times(1)).claimPending(2);
+    }
+
+    @Test
+    void moderateBatch_EmptyClaimWritesNothing() {
+        when(moderationRepository.claimPending(10)).thenReturn(List.of());
+
+        assertEquals(0, pipeline(10, content -> 0).moderateBatch());
+
+        verify(moderationRepository, never()).saveVerdicts(anyList());
+        assertEquals(0, meterRegistry.get("plaintext.moderation.batch").timer().count());
+    }
+
+    private ModerationPipeline pipeline(int batchSize, ContentScorer scorer) {
+        return new ModerationPipeline(moderationRepository, scorer, transactionManager, workers, meterRegistry,
+                batchSize, 4, 50, 3);
+    }
+}